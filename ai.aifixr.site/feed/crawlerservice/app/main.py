@@ -1,6 +1,8 @@
 from fastapi import FastAPI, APIRouter
 import uvicorn
 
+from app.tracing import setup_tracing
+
 # 서브라우터 생성
 crawler_router = APIRouter(tags=["crawler"])
 
@@ -73,6 +75,9 @@ app = FastAPI(
 # 서브라우터를 앱에 포함
 app.include_router(crawler_router)
 
+# 게이트웨이 traceparent 이어받기
+setup_tracing(app, "crawler-service")
+
 
 if __name__ == "__main__":
     uvicorn.run(app, host="0.0.0.0", port=9001)
\ No newline at end of file
@@ -0,0 +1,40 @@
+"""
+게이트웨이가 보낸 W3C traceparent를 이어받아 같은 trace로 요청을 기록한다.
+
+- 샘플링은 부모(게이트웨이)의 결정을 따르고, 부모가 없을 때만 TRACING_SAMPLING_PROBABILITY 비율로 샘플링
+- OTLP_TRACING_ENABLED=true 일 때만 OTLP_TRACING_ENDPOINT로 span을 내보낸다 (게이트웨이/Spring 서비스와 같은 설정)
+- OpenTelemetry 패키지가 없으면 아무것도 하지 않는다
+"""
+import logging
+import os
+
+from fastapi import FastAPI
+
+logger = logging.getLogger(__name__)
+
+
+def setup_tracing(app: FastAPI, service_name: str) -> None:
+    try:
+        from opentelemetry import trace
+        from opentelemetry.instrumentation.fastapi import FastAPIInstrumentor
+        from opentelemetry.sdk.resources import Resource
+        from opentelemetry.sdk.trace import TracerProvider
+        from opentelemetry.sdk.trace.export import BatchSpanProcessor
+        from opentelemetry.sdk.trace.sampling import ParentBased, TraceIdRatioBased
+    except ImportError:
+        logger.info("OpenTelemetry가 설치되지 않아 tracing을 사용하지 않습니다")
+        return
+
+    probability = float(os.getenv("TRACING_SAMPLING_PROBABILITY", "0.1"))
+    provider = TracerProvider(
+        resource=Resource.create({"service.name": service_name}),
+        sampler=ParentBased(TraceIdRatioBased(probability)),
+    )
+    if os.getenv("OTLP_TRACING_ENABLED", "false").lower() == "true":
+        from opentelemetry.exporter.otlp.proto.http.trace_exporter import OTLPSpanExporter
+
+        endpoint = os.getenv("OTLP_TRACING_ENDPOINT", "http://otel-collector:4318/v1/traces")
+        provider.add_span_processor(BatchSpanProcessor(OTLPSpanExporter(endpoint=endpoint)))
+    trace.set_tracer_provider(provider)
+    # 기본 propagator가 W3C traceparent/tracestate
+    FastAPIInstrumentor.instrument_app(app, tracer_provider=provider)
@@ -1,6 +1,8 @@
 from fastapi import FastAPI, APIRouter
 import uvicorn
 
+from app.tracing import setup_tracing
+
 # 서브라우터 생성
 chatbot_router = APIRouter(tags=["chatbot"])
 
@@ -17,6 +19,9 @@ app = FastAPI(
 # 서브라우터를 앱에 포함
 app.include_router(chatbot_router)
 
+# 게이트웨이 traceparent 이어받기
+setup_tracing(app, "chatbot-service")
+
 
 
 if __name__ == "__main__":
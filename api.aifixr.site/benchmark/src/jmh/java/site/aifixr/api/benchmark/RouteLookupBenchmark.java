@@ -0,0 +1,118 @@
+package site.aifixr.api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import site.aifixr.api.gateway.route.RoutePathIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route lookup cost against route count
+ * - linear: the default gateway lookup (every route predicate in order until one matches)
+ * - indexed: RoutePathIndex candidates first, then the same predicates on those candidates only
+ * The request path matches the last route (worst case for the linear scan) or no route at all
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouteLookupBenchmark {
+
+	@Param({"10", "30", "100", "300", "1000"})
+	public int routeCount;
+
+	private List<Route> routes;
+	private RoutePathIndex index;
+	private ServerWebExchange lastRouteExchange;
+	private ServerWebExchange missExchange;
+
+	@Setup
+	public void setUp() {
+		PathRoutePredicateFactory factory = new PathRoutePredicateFactory();
+		routes = new ArrayList<>(routeCount);
+		Map<String, List<String>> paths = new HashMap<>();
+		String lastPath = null;
+
+		// Same shapes as the gateway table: service catch-alls, docs literals and templated login paths
+		for (int i = 0; i < routeCount; i++) {
+			String id = "route-" + i;
+			String pattern;
+			switch (i % 3) {
+				case 0 -> {
+					pattern = "/api/service" + i + "/**";
+					lastPath = "/api/service" + i + "/items/42";
+				}
+				case 1 -> {
+					pattern = "/api-docs/service" + i;
+					lastPath = "/api-docs/service" + i;
+				}
+				default -> {
+					pattern = "/api/oauth" + i + "/{provider}/login";
+					lastPath = "/api/oauth" + i + "/kakao/login";
+				}
+			}
+			PathRoutePredicateFactory.Config config = new PathRoutePredicateFactory.Config();
+			config.setPatterns(List.of(pattern));
+			routes.add(Route.async()
+					.id(id)
+					.uri("http://localhost:8080")
+					.predicate(factory.apply(config))
+					.build());
+			paths.put(id, List.of(pattern));
+		}
+		index = new RoutePathIndex(routes, paths);
+
+		lastRouteExchange = MockServerWebExchange.from(MockServerHttpRequest.get(lastPath));
+		missExchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/unknown/path"));
+	}
+
+	@Benchmark
+	public Route linearLastRoute() {
+		return linear(lastRouteExchange);
+	}
+
+	@Benchmark
+	public Route indexedLastRoute() {
+		return indexed(lastRouteExchange);
+	}
+
+	@Benchmark
+	public Route linearMiss() {
+		return linear(missExchange);
+	}
+
+	@Benchmark
+	public Route indexedMiss() {
+		return indexed(missExchange);
+	}
+
+	private Route linear(ServerWebExchange exchange) {
+		return lookup(routes, exchange);
+	}
+
+	private Route indexed(ServerWebExchange exchange) {
+		return lookup(index.candidates(exchange.getRequest().getPath().pathWithinApplication()), exchange);
+	}
+
+	private static Route lookup(List<Route> candidates, ServerWebExchange exchange) {
+		return Flux.fromIterable(candidates)
+				.filterWhen(route -> route.getPredicate().apply(exchange))
+				.next()
+				.block();
+	}
+}
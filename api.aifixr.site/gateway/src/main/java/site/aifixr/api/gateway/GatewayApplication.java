@@ -3,12 +3,18 @@ package site.aifixr.api.gateway;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 import reactor.core.publisher.Mono;
+import site.aifixr.api.gateway.admission.AdmissionFilter;
+import site.aifixr.api.gateway.ratelimit.RateLimitProperties;
 
+import java.net.InetSocketAddress;
 import java.util.Arrays;
 import java.util.List;
 
@@ -20,16 +26,25 @@ public class GatewayApplication {
 	}
 
 	/**
-	 * IP address-based Key Resolver for Rate Limiting
-	 * Moved from RateLimiterKeyResolver.java to keep all configuration in one place
+	 * Client IP Key Resolver for Rate Limiting
+	 * Uses the socket address unless rate-limit.trusted-proxies is set: only then is X-Forwarded-For read,
+	 * taking the entry appended by the outermost trusted proxy. Clients that reach the gateway directly
+	 * could otherwise pick a fresh bucket per request by sending their own header
 	 */
 	@Bean
-	public KeyResolver ipKeyResolver() {
+	public KeyResolver ipKeyResolver(RateLimitProperties rateLimitProperties) {
+		int trustedProxies = rateLimitProperties.getTrustedProxies();
+		RemoteAddressResolver resolver = trustedProxies > 0
+				? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+				: new RemoteAddressResolver() {
+				};
 		return exchange -> {
 			String ipAddress = "unknown";
-			var remoteAddr = exchange.getRequest().getRemoteAddress();
-			if (remoteAddr != null && remoteAddr.getAddress() != null) {
-				ipAddress = remoteAddr.getAddress().getHostAddress();
+			InetSocketAddress remoteAddr = resolver.resolve(exchange);
+			if (remoteAddr != null) {
+				ipAddress = remoteAddr.getAddress() != null
+						? remoteAddr.getAddress().getHostAddress()
+						: remoteAddr.getHostString();
 			}
 			return Mono.just(ipAddress);
 		};
@@ -38,8 +53,10 @@ public class GatewayApplication {
 	/**
 	 * CORS WebFilter for handling preflight requests
 	 * Using allowedOriginPatterns to support both specific origins and wildcards
+	 * Ordered ahead of AdmissionFilter, so its 503 rejections carry the CORS headers browsers need to read them
 	 */
 	@Bean
+	@Order(AdmissionFilter.ORDER - 1)
 	public CorsWebFilter corsWebFilter() {
 		CorsConfiguration corsConfig = new CorsConfiguration();
 
@@ -0,0 +1,53 @@
+package site.aifixr.api.gateway.accesslog;
+
+import java.time.Instant;
+
+/**
+ * One compact access log record
+ *
+ * @param upstreamMillis time until the backend answered with headers, -1 when no backend was called
+ * @param traceId W3C trace id propagated to the backend, null when tracing is off
+ */
+public record AccessLogEvent(long timestamp, String method, String path, String routeId, int status,
+		long durationMillis, long upstreamMillis, long bytes, String traceId) {
+
+	/**
+	 * Single-line JSON, written on the appender thread
+	 */
+	public String toJson() {
+		StringBuilder json = new StringBuilder(160 + path.length());
+		json.append("{\"ts\":\"").append(Instant.ofEpochMilli(timestamp)).append('"');
+		json.append(",\"method\":\"").append(method).append('"');
+		json.append(",\"path\":");
+		quote(json, path);
+		json.append(",\"route\":");
+		if (routeId != null) {
+			quote(json, routeId);
+		} else {
+			json.append("null");
+		}
+		json.append(",\"status\":").append(status);
+		json.append(",\"duration_ms\":").append(durationMillis);
+		json.append(",\"upstream_ms\":").append(upstreamMillis);
+		json.append(",\"bytes\":").append(bytes);
+		if (traceId != null) {
+			json.append(",\"trace\":\"").append(traceId).append('"');
+		}
+		return json.append('}').toString();
+	}
+
+	private static void quote(StringBuilder json, String value) {
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+}
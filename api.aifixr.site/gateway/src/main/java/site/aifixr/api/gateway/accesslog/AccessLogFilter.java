@@ -0,0 +1,110 @@
+package site.aifixr.api.gateway.accesslog;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import site.aifixr.api.gateway.metrics.UpstreamTimingFilter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Records one access log event per exchange: method, path, route id, status, total and upstream latency,
+ * and response bytes on the wire, plus the trace id of the server observation so log lines can be joined with traces
+ * Runs as the outermost WebFilter so rejected (401/429/503), cached and unrouted requests are covered too.
+ * The event is only handed to {@link AccessLogWriter}; nothing is formatted or written on the event loop.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessLogFilter implements WebFilter, Ordered {
+
+	/** Client went away before the response completed (nginx convention) */
+	static final int CLIENT_CLOSED_REQUEST = 499;
+
+	private final AccessLogWriter writer;
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		long start = System.nanoTime();
+		long timestamp = System.currentTimeMillis();
+		CountingResponse response = new CountingResponse(exchange.getResponse());
+		ServerWebExchange counted = exchange.mutate().response(response).build();
+		return chain.filter(counted)
+				.doFinally(signal -> record(counted, response, signal, timestamp, System.nanoTime() - start));
+	}
+
+	private void record(ServerWebExchange exchange, CountingResponse response, SignalType signal, long timestamp,
+			long elapsedNanos) {
+		HttpStatusCode statusCode = response.getStatusCode();
+		int status = signal == SignalType.CANCEL ? CLIENT_CLOSED_REQUEST
+				: statusCode != null ? statusCode.value()
+				: signal == SignalType.ON_ERROR ? 500 : 200;
+		long durationMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+		if (!writer.shouldLog(status, durationMillis)) {
+			return;
+		}
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		Long upstreamNanos = exchange.getAttribute(UpstreamTimingFilter.UPSTREAM_LATENCY_ATTR);
+		writer.publish(new AccessLogEvent(timestamp, exchange.getRequest().getMethod().name(),
+				exchange.getRequest().getPath().value(), route != null ? route.getId() : null, status,
+				durationMillis, upstreamNanos != null ? TimeUnit.NANOSECONDS.toMillis(upstreamNanos) : -1L,
+				response.bytes.get(), traceId(exchange)));
+	}
+
+	/**
+	 * Trace id of the span opened for this exchange by the WebFlux server observation, null when tracing is off
+	 */
+	static String traceId(ServerWebExchange exchange) {
+		return ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+				.map(context -> context.<TracingObservationHandler.TracingContext>get(
+						TracingObservationHandler.TracingContext.class))
+				.map(TracingObservationHandler.TracingContext::getSpan)
+				.map(Span::context)
+				.map(context -> context.traceId())
+				.orElse(null);
+	}
+
+	/**
+	 * Counts body bytes as they are written, after any encoding applied by inner filters
+	 */
+	private static final class CountingResponse extends ServerHttpResponseDecorator {
+		private final AtomicLong bytes = new AtomicLong();
+
+		private CountingResponse(ServerHttpResponse delegate) {
+			super(delegate);
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			return super.writeWith(Flux.from(body).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount())));
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk)
+					.doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))));
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package site.aifixr.api.gateway.accesslog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Access log pipeline meters (gateway.accesslog.*)
+ */
+@Configuration
+public class AccessLogMetricsConfig {
+
+	@Bean
+	public MeterBinder accessLogMetrics(AccessLogWriter writer) {
+		return registry -> {
+			FunctionCounter.builder("gateway.accesslog.events", writer, AccessLogWriter::getWrittenCount)
+					.tag("result", "written")
+					.register(registry);
+			FunctionCounter.builder("gateway.accesslog.events", writer, AccessLogWriter::getDroppedCount)
+					.tag("result", "dropped")
+					.description("Events dropped because the ring buffer was full")
+					.register(registry);
+			FunctionCounter.builder("gateway.accesslog.events", writer, AccessLogWriter::getSampledOutCount)
+					.tag("result", "sampled_out")
+					.register(registry);
+			Gauge.builder("gateway.accesslog.queued", writer, AccessLogWriter::getQueued)
+					.register(registry);
+			Gauge.builder("gateway.accesslog.capacity", writer, AccessLogWriter::getCapacity)
+					.register(registry);
+		};
+	}
+}
@@ -0,0 +1,23 @@
+package site.aifixr.api.gateway.accesslog;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Access log settings
+ * One event per exchange is queued on the request path; formatting and writing happen on a background thread
+ */
+@Configuration
+@ConfigurationProperties(prefix = "access-log")
+@Getter
+@Setter
+public class AccessLogProperties {
+	private boolean enabled = true;
+	private double sampleRate = 1.0; // 0.0 .. 1.0 of successful exchanges
+	private long slowThreshold = 1000L; // ms, slower exchanges are always logged
+	private int bufferSize = 8192; // ring buffer slots (rounded up to a power of two), events are dropped when full
+	private int batchSize = 256; // events written per drain pass
+	private long drainInterval = 50L; // ms the appender sleeps when the buffer is empty
+}
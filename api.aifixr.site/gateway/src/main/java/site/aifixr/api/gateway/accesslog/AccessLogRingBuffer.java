@@ -0,0 +1,61 @@
+package site.aifixr.api.gateway.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers (event loop threads) and a single consumer (the appender)
+ * - Producers claim a sequence with CAS and publish into its slot; a full buffer rejects instead of blocking
+ * - The consumer takes slots in sequence order and clears them before advancing, which frees them for reuse
+ */
+final class AccessLogRingBuffer<E> {
+
+	private final AtomicReferenceArray<E> slots;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+
+	AccessLogRingBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return false when the buffer is full
+	 */
+	boolean offer(E element) {
+		long sequence;
+		do {
+			sequence = tail.get();
+			if (sequence - head.get() >= slots.length()) {
+				return false;
+			}
+		} while (!tail.compareAndSet(sequence, sequence + 1));
+		slots.lazySet((int) sequence & mask, element);
+		return true;
+	}
+
+	/**
+	 * Consumer only; null when empty or the next slot is claimed but not yet published
+	 */
+	E poll() {
+		long sequence = head.get();
+		int index = (int) sequence & mask;
+		E element = slots.get(index);
+		if (element == null) {
+			return null;
+		}
+		slots.lazySet(index, null);
+		head.lazySet(sequence + 1);
+		return element;
+	}
+
+	int size() {
+		return (int) Math.max(0L, tail.get() - head.get());
+	}
+
+	int capacity() {
+		return slots.length();
+	}
+}
@@ -0,0 +1,135 @@
+package site.aifixr.api.gateway.accesslog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queues access log events and writes them from a single background appender thread,
+ * so event loop threads never format or write log output
+ * Events are written as JSON lines to the "gateway.access" logger
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+
+	private static final Logger ACCESS_LOG = LoggerFactory.getLogger("gateway.access");
+
+	private final AccessLogProperties properties;
+	private final AccessLogRingBuffer<AccessLogEvent> buffer;
+
+	private final LongAdder written = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder sampledOut = new LongAdder();
+	private volatile boolean running = false;
+	private Thread appender;
+
+	public AccessLogWriter(AccessLogProperties properties) {
+		this.properties = properties;
+		this.buffer = new AccessLogRingBuffer<>(properties.getBufferSize());
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		running = true;
+		appender = Thread.ofPlatform().name("access-log-appender").daemon().start(this::drainLoop);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		if (appender != null) {
+			LockSupport.unpark(appender);
+			appender.join(TimeUnit.SECONDS.toMillis(2));
+		}
+	}
+
+	/**
+	 * Sampling decision on the request path: errors and slow exchanges are always kept
+	 */
+	public boolean shouldLog(int status, long durationMillis) {
+		if (!properties.isEnabled()) {
+			return false;
+		}
+		if (status >= 500 || durationMillis >= properties.getSlowThreshold()) {
+			return true;
+		}
+		double rate = properties.getSampleRate();
+		if (rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate)) {
+			return true;
+		}
+		sampledOut.increment();
+		return false;
+	}
+
+	/**
+	 * Never blocks; the event is dropped (and counted) when the appender has fallen behind
+	 */
+	public void publish(AccessLogEvent event) {
+		if (!buffer.offer(event)) {
+			dropped.increment();
+		}
+	}
+
+	/**
+	 * Writes up to batch-size events, returns how many were written
+	 */
+	int drain() {
+		int count = 0;
+		AccessLogEvent event;
+		while (count < properties.getBatchSize() && (event = buffer.poll()) != null) {
+			try {
+				ACCESS_LOG.info(event.toJson());
+			} catch (RuntimeException e) {
+				log.debug("Failed to write access log event: {}", e.toString());
+			}
+			count++;
+		}
+		written.add(count);
+		return count;
+	}
+
+	public long getWrittenCount() {
+		return written.sum();
+	}
+
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	public long getSampledOutCount() {
+		return sampledOut.sum();
+	}
+
+	public int getQueued() {
+		return buffer.size();
+	}
+
+	public int getCapacity() {
+		return buffer.capacity();
+	}
+
+	private void drainLoop() {
+		long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getDrainInterval());
+		while (running) {
+			if (drain() == 0) {
+				LockSupport.parkNanos(this, idleNanos);
+			}
+		}
+		// Flush what is left on shutdown
+		while (drain() > 0) {
+			// keep draining
+		}
+	}
+}
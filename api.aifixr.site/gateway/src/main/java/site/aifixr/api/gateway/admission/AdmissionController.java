@@ -0,0 +1,262 @@
+package site.aifixr.api.gateway.admission;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Gateway-wide admission by {@link Priority}
+ * - A class is admitted while the in-flight count is below its share of max-in-flight, so lower classes
+ *   stop being admitted first as load rises; critical requests may use the whole capacity
+ * - Beyond its share a request waits in its class queue (bounded, with a timeout); freed slots go to the
+ *   most important queue first, and new arrivals never overtake requests already queued in their class or above
+ * - While the event loops lag behind, background requests are shed (queued ones included) and interactive
+ *   ones wait until the lag is gone; critical requests are only bound by max-in-flight
+ * - One lock guards the counters and queues; waiters are woken outside of it
+ */
+class AdmissionController {
+
+	private static final Priority[] PRIORITIES = Priority.values();
+	private static final Priority SHED_FIRST = PRIORITIES[PRIORITIES.length - 1];
+
+	private final AdmissionProperties properties;
+	private final LongSupplier eventLoopLagMillis;
+	private final int[] limits = new int[PRIORITIES.length];
+	private final List<Deque<Permit>> queues = new ArrayList<>();
+	private final LongAdder[] admitted = adders();
+	private final LongAdder[] queued = adders();
+	private final LongAdder[] rejected = adders();
+	private final LongAdder[] timedOut = adders();
+
+	// Guarded by this
+	private int inFlight;
+
+	AdmissionController(AdmissionProperties properties, LongSupplier eventLoopLagMillis) {
+		this.properties = properties;
+		this.eventLoopLagMillis = eventLoopLagMillis;
+		for (Priority priority : PRIORITIES) {
+			double share = Math.min(1.0, Math.max(0.0, properties.of(priority).getShare()));
+			limits[priority.ordinal()] = Math.max(1, (int) Math.round(properties.getMaxInFlight() * share));
+			queues.add(new ArrayDeque<>());
+		}
+	}
+
+	/**
+	 * Emits the permit once admitted (release it when the exchange ends), empty when rejected or timed out
+	 */
+	Mono<Permit> acquire(Priority priority) {
+		int index = priority.ordinal();
+		Permit permit = new Permit(priority);
+		synchronized (this) {
+			if (!hasQueued(priority) && canAdmit(priority)) {
+				inFlight++;
+				admitted[index].increment();
+				permit.state = State.GRANTED;
+				return Mono.just(permit);
+			}
+			if (isShed(priority) || queues.get(index).size() >= properties.of(priority).getQueueSize()) {
+				rejected[index].increment();
+				return Mono.empty();
+			}
+			queues.get(index).addLast(permit);
+			queued[index].increment();
+		}
+		return Mono.<Permit>create(sink -> attach(permit, sink))
+				.timeout(Duration.ofMillis(properties.of(priority).getQueueTimeout()), Mono.defer(() -> {
+					timedOut[index].increment();
+					return Mono.empty();
+				}));
+	}
+
+	/**
+	 * Called after every event loop lag sample: sheds background waiters while lagging, admits waiters otherwise
+	 */
+	void onLagSample() {
+		List<Permit> shed = new ArrayList<>();
+		List<Permit> granted;
+		synchronized (this) {
+			if (isShed(SHED_FIRST)) {
+				Deque<Permit> queue = queues.get(SHED_FIRST.ordinal());
+				for (Permit permit = queue.pollFirst(); permit != null; permit = queue.pollFirst()) {
+					permit.state = State.SHED;
+					rejected[SHED_FIRST.ordinal()].increment();
+					shed.add(permit);
+				}
+			}
+			granted = drain();
+		}
+		shed.forEach(Permit::wake);
+		granted.forEach(Permit::wake);
+	}
+
+	private void release() {
+		List<Permit> granted;
+		synchronized (this) {
+			inFlight--;
+			granted = drain();
+		}
+		granted.forEach(Permit::wake);
+	}
+
+	private void attach(Permit permit, MonoSink<Permit> sink) {
+		sink.onCancel(() -> abandon(permit));
+		synchronized (this) {
+			permit.sink = sink;
+			if (permit.state == State.WAITING) {
+				return;
+			}
+		}
+		permit.wake();
+	}
+
+	/**
+	 * Timed out or the client went away: leave the queue, or give the slot back if it was granted meanwhile
+	 */
+	private void abandon(Permit permit) {
+		boolean granted;
+		synchronized (this) {
+			if (permit.state == State.WAITING) {
+				queues.get(permit.priority.ordinal()).remove(permit);
+				permit.state = State.SHED;
+				return;
+			}
+			granted = permit.state == State.GRANTED;
+		}
+		if (granted) {
+			permit.release();
+		}
+	}
+
+	/**
+	 * Grants queued permits most important class first; guarded by this, the caller wakes them after unlocking
+	 */
+	private List<Permit> drain() {
+		List<Permit> granted = new ArrayList<>();
+		for (Priority priority : PRIORITIES) {
+			Deque<Permit> queue = queues.get(priority.ordinal());
+			while (!queue.isEmpty() && canAdmit(priority)) {
+				Permit permit = queue.pollFirst();
+				inFlight++;
+				admitted[priority.ordinal()].increment();
+				permit.state = State.GRANTED;
+				granted.add(permit);
+			}
+			if (!queue.isEmpty()) {
+				// Lower classes keep waiting while a more important one cannot be admitted
+				break;
+			}
+		}
+		return granted;
+	}
+
+	private boolean canAdmit(Priority priority) {
+		if (inFlight >= limits[priority.ordinal()]) {
+			return false;
+		}
+		return priority == Priority.CRITICAL || !isLagging();
+	}
+
+	private boolean hasQueued(Priority priority) {
+		for (int i = 0; i <= priority.ordinal(); i++) {
+			if (!queues.get(i).isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isShed(Priority priority) {
+		return priority == SHED_FIRST && isLagging();
+	}
+
+	private boolean isLagging() {
+		return eventLoopLagMillis.getAsLong() > properties.getMaxEventLoopLag();
+	}
+
+	synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	synchronized int getQueueLength(Priority priority) {
+		return queues.get(priority.ordinal()).size();
+	}
+
+	long getAdmittedCount(Priority priority) {
+		return admitted[priority.ordinal()].sum();
+	}
+
+	long getQueuedCount(Priority priority) {
+		return queued[priority.ordinal()].sum();
+	}
+
+	long getRejectedCount(Priority priority) {
+		return rejected[priority.ordinal()].sum();
+	}
+
+	long getTimedOutCount(Priority priority) {
+		return timedOut[priority.ordinal()].sum();
+	}
+
+	private static LongAdder[] adders() {
+		LongAdder[] adders = new LongAdder[PRIORITIES.length];
+		for (int i = 0; i < adders.length; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	private enum State {
+		WAITING, GRANTED, SHED
+	}
+
+	/**
+	 * One admitted (or waiting) request; release is idempotent
+	 */
+	final class Permit {
+		private final Priority priority;
+		private final AtomicBoolean released = new AtomicBoolean();
+		// Guarded by the controller
+		private State state = State.WAITING;
+		private MonoSink<Permit> sink;
+
+		private Permit(Priority priority) {
+			this.priority = priority;
+		}
+
+		Priority getPriority() {
+			return priority;
+		}
+
+		void release() {
+			if (released.compareAndSet(false, true)) {
+				AdmissionController.this.release();
+			}
+		}
+
+		private void wake() {
+			MonoSink<Permit> target;
+			State outcome;
+			synchronized (AdmissionController.this) {
+				target = sink;
+				outcome = state;
+			}
+			if (target == null) {
+				// Not subscribed yet, attach() wakes it
+				return;
+			}
+			if (outcome == State.GRANTED) {
+				target.success(this);
+			} else {
+				target.success();
+			}
+		}
+	}
+}
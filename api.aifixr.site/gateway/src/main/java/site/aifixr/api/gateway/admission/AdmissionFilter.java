@@ -0,0 +1,133 @@
+package site.aifixr.api.gateway.admission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Admits requests by priority class before any other work is done on them (see {@link AdmissionController})
+ * - critical-paths (OAuth login and callbacks, health) and writes to critical-write-paths are critical,
+ *   background-paths (API docs, Swagger UI, crawler) are background, everything else is interactive
+ * - A WebFilter, so requests answered by the gateway itself (API docs, actuator) are covered too
+ * - Rejected requests get 503 with Retry-After; CorsWebFilter runs first, so the rejection carries CORS headers
+ * - A streamed response (SSE / NDJSON, streaming: true routes) gives its slot back once it starts streaming:
+ *   the wait for the first byte is admitted, the open stream itself is bounded by the streaming idle timeout
+ */
+@Slf4j
+@Component
+public class AdmissionFilter implements WebFilter, Ordered {
+
+	// Inside AccessLogFilter (HIGHEST_PRECEDENCE) and CorsWebFilter, so rejected requests are logged and readable
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 2;
+
+	private static final Set<HttpMethod> WRITE_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH,
+			HttpMethod.DELETE);
+
+	private final AdmissionProperties properties;
+	private final AdmissionController controller;
+	private final List<PathPattern> criticalPaths;
+	private final List<PathPattern> criticalWritePaths;
+	private final List<PathPattern> backgroundPaths;
+
+	public AdmissionFilter(AdmissionProperties properties, EventLoopLagMonitor lagMonitor) {
+		this.properties = properties;
+		this.controller = new AdmissionController(properties, lagMonitor::getLagMillis);
+		this.criticalPaths = parse(properties.getCriticalPaths());
+		this.criticalWritePaths = parse(properties.getCriticalWritePaths());
+		this.backgroundPaths = parse(properties.getBackgroundPaths());
+		lagMonitor.addListener(controller::onLagSample);
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (!properties.isEnabled()) {
+			return chain.filter(exchange);
+		}
+		Priority priority = classify(exchange.getRequest());
+		return controller.acquire(priority)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(permit -> {
+					if (permit.isEmpty()) {
+						log.debug("Rejected {} request {} (in flight {})", priority.tag(),
+								exchange.getRequest().getPath(), controller.getInFlight());
+						ServerHttpResponse response = exchange.getResponse();
+						response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+						response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(properties.getRetryAfter()));
+						return response.setComplete();
+					}
+					AdmissionController.Permit granted = permit.get();
+					return chain.filter(exchange.mutate().response(new StreamReleasingResponse(exchange.getResponse(),
+									granted)).build())
+							.doFinally(signal -> granted.release());
+				});
+	}
+
+	Priority classify(ServerHttpRequest request) {
+		PathContainer path = request.getPath().pathWithinApplication();
+		if (matches(criticalPaths, path)
+				|| (WRITE_METHODS.contains(request.getMethod()) && matches(criticalWritePaths, path))) {
+			return Priority.CRITICAL;
+		}
+		return matches(backgroundPaths, path) ? Priority.BACKGROUND : Priority.INTERACTIVE;
+	}
+
+	AdmissionController getController() {
+		return controller;
+	}
+
+	private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+		for (PathPattern pattern : patterns) {
+			if (pattern.matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<PathPattern> parse(List<String> paths) {
+		return paths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+	}
+
+	/**
+	 * Releases the permit when the response is written as a stream (flushed per chunk)
+	 */
+	private static final class StreamReleasingResponse extends ServerHttpResponseDecorator {
+		private final AdmissionController.Permit permit;
+
+		private StreamReleasingResponse(ServerHttpResponse delegate, AdmissionController.Permit permit) {
+			super(delegate);
+			this.permit = permit;
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			permit.release();
+			return super.writeAndFlushWith(body);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package site.aifixr.api.gateway.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Admission control meters (gateway.admission.*)
+ */
+@Configuration
+public class AdmissionMetricsConfig {
+
+	@Bean
+	public MeterBinder admissionMetrics(AdmissionFilter filter, EventLoopLagMonitor lagMonitor) {
+		AdmissionController controller = filter.getController();
+		return registry -> {
+			Gauge.builder("gateway.admission.inflight", controller, AdmissionController::getInFlight)
+					.description("Requests admitted and not yet completed")
+					.register(registry);
+			Gauge.builder("gateway.admission.event.loop.lag", lagMonitor, EventLoopLagMonitor::getLagMillis)
+					.description("Longest wait of a probe task on the server event loops")
+					.baseUnit("milliseconds")
+					.register(registry);
+			for (Priority priority : Priority.values()) {
+				Gauge.builder("gateway.admission.queued", controller, c -> c.getQueueLength(priority))
+						.description("Requests waiting for admission")
+						.tag("priority", priority.tag())
+						.register(registry);
+				FunctionCounter.builder("gateway.admission.requests", controller, c -> c.getAdmittedCount(priority))
+						.tag("priority", priority.tag())
+						.tag("result", "admitted")
+						.register(registry);
+				FunctionCounter.builder("gateway.admission.requests", controller, c -> c.getQueuedCount(priority))
+						.description("Requests that had to wait (and were admitted, rejected or timed out later)")
+						.tag("priority", priority.tag())
+						.tag("result", "queued")
+						.register(registry);
+				FunctionCounter.builder("gateway.admission.requests", controller, c -> c.getRejectedCount(priority))
+						.tag("priority", priority.tag())
+						.tag("result", "rejected")
+						.register(registry);
+				FunctionCounter.builder("gateway.admission.requests", controller, c -> c.getTimedOutCount(priority))
+						.tag("priority", priority.tag())
+						.tag("result", "timeout")
+						.register(registry);
+			}
+		};
+	}
+}
@@ -0,0 +1,52 @@
+package site.aifixr.api.gateway.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Priority admission settings
+ * Requests are classed by path (unlisted paths are interactive); each class may fill its share of max-in-flight
+ * and waits in its own bounded queue beyond that, so background work is turned away long before logins are
+ */
+@Configuration
+@ConfigurationProperties(prefix = "admission")
+@Getter
+@Setter
+public class AdmissionProperties {
+	private boolean enabled = true;
+	private int maxInFlight = 1000; // requests the gateway works on at once, streams only until they start streaming
+	private long maxEventLoopLag = 100L; // ms, above this background requests are shed and interactive ones wait
+	private long lagProbeInterval = 250L; // ms
+	private long retryAfter = 1L; // seconds, Retry-After of rejected requests
+	private List<String> criticalPaths = new ArrayList<>();
+	private List<String> criticalWritePaths = new ArrayList<>(); // POST/PUT/PATCH/DELETE here are critical
+	private List<String> backgroundPaths = new ArrayList<>();
+	private PriorityClass critical = new PriorityClass(1.0, 200, 5000L);
+	private PriorityClass interactive = new PriorityClass(0.8, 100, 2000L);
+	private PriorityClass background = new PriorityClass(0.5, 50, 1000L);
+
+	public PriorityClass of(Priority priority) {
+		return switch (priority) {
+			case CRITICAL -> critical;
+			case INTERACTIVE -> interactive;
+			case BACKGROUND -> background;
+		};
+	}
+
+	@Getter
+	@Setter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class PriorityClass {
+		private double share; // of max-in-flight this class may fill before it has to queue
+		private int queueSize; // waiting requests, further ones get 503 at once
+		private long queueTimeout; // ms a request may wait for admission
+	}
+}
@@ -0,0 +1,98 @@
+package site.aifixr.api.gateway.admission;
+
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how far the server event loops lag behind
+ * Every probe interval a no-op task is submitted to each loop; the lag is the longest wait until such a task ran,
+ * or the age of the previous round while one of its tasks is still pending (a blocked loop)
+ */
+@Slf4j
+@Component
+public class EventLoopLagMonitor {
+
+	private final AdmissionProperties properties;
+	private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+	private final AtomicLong roundMaxNanos = new AtomicLong();
+	private final AtomicInteger pending = new AtomicInteger();
+	private volatile long roundStart;
+	private volatile long lagMillis;
+	private Disposable probe;
+
+	public EventLoopLagMonitor(AdmissionProperties properties) {
+		this.properties = properties;
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		// The loops the Netty server runs on (Spring Boot uses the global reactor-netty resources)
+		Iterable<EventExecutor> loops = HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE);
+		probe = Flux.interval(Duration.ofMillis(properties.getLagProbeInterval()))
+				.onBackpressureDrop()
+				.subscribe(tick -> sample(loops));
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (probe != null) {
+			probe.dispose();
+		}
+	}
+
+	void sample(Iterable<EventExecutor> loops) {
+		long now = System.nanoTime();
+		long lag = roundMaxNanos.getAndSet(0);
+		boolean stuck = pending.get() > 0;
+		if (stuck) {
+			lag = Math.max(lag, now - roundStart);
+		}
+		long previous = lagMillis;
+		lagMillis = TimeUnit.NANOSECONDS.toMillis(lag);
+		if (lagMillis > properties.getMaxEventLoopLag() && previous <= properties.getMaxEventLoopLag()) {
+			log.warn("Event loop lag {}ms over {}ms, shedding background requests", lagMillis,
+					properties.getMaxEventLoopLag());
+		}
+		listeners.forEach(Runnable::run);
+		if (stuck) {
+			// Don't pile more probes onto a loop that has not run the last one
+			return;
+		}
+		roundStart = now;
+		for (EventExecutor loop : loops) {
+			pending.incrementAndGet();
+			loop.execute(() -> {
+				roundMaxNanos.accumulateAndGet(System.nanoTime() - now, Math::max);
+				pending.decrementAndGet();
+			});
+		}
+	}
+
+	public long getLagMillis() {
+		return lagMillis;
+	}
+
+	/**
+	 * Runs after every sample on the probe thread
+	 */
+	public void addListener(Runnable listener) {
+		listeners.add(listener);
+	}
+}
@@ -0,0 +1,14 @@
+package site.aifixr.api.gateway.admission;
+
+/**
+ * Admission classes, most important first (declaration order is the shedding order, last is shed first)
+ */
+public enum Priority {
+	CRITICAL,
+	INTERACTIVE,
+	BACKGROUND;
+
+	public String tag() {
+		return name().toLowerCase();
+	}
+}
@@ -0,0 +1,119 @@
+package site.aifixr.api.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stored backend response
+ * Fresh until freshUntil, then served stale (while revalidating) until staleUntil
+ * gzipBody is the precompressed variant of body, or null when the body is not worth compressing
+ */
+public record CachedResponse(int status, HttpHeaders headers, byte[] body, byte[] gzipBody, String etag,
+		long storedAt, long freshUntil, long staleUntil) {
+
+	private static final int FORMAT_VERSION = 2;
+
+	public boolean isFresh(long now) {
+		return now < freshUntil;
+	}
+
+	public boolean isUsable(long now) {
+		return now < staleUntil;
+	}
+
+	/**
+	 * Same body, new lifetime (after the backend answered 304 Not Modified)
+	 */
+	public CachedResponse refreshed(long now, long ttl, long staleWhileRevalidate) {
+		return new CachedResponse(status, headers, body, gzipBody, etag, now, now + ttl, now + ttl + staleWhileRevalidate);
+	}
+
+	/**
+	 * Approximate memory footprint used for the L1 byte budget
+	 */
+	public long weight() {
+		long headerBytes = 0;
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			headerBytes += header.getKey().length();
+			for (String value : header.getValue()) {
+				headerBytes += value.length();
+			}
+		}
+		return body.length + (gzipBody != null ? gzipBody.length : 0) + headerBytes * 2 + 128;
+	}
+
+	public byte[] serialize() {
+		int bodyBytes = body.length + (gzipBody != null ? gzipBody.length : 0);
+		try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(bodyBytes + 512);
+				DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(FORMAT_VERSION);
+			out.writeShort(status);
+			out.writeLong(storedAt);
+			out.writeLong(freshUntil);
+			out.writeLong(staleUntil);
+			out.writeUTF(etag != null ? etag : "");
+			out.writeShort(headers.size());
+			for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+				out.writeUTF(header.getKey());
+				out.writeShort(header.getValue().size());
+				for (String value : header.getValue()) {
+					out.writeUTF(value);
+				}
+			}
+			out.writeInt(body.length);
+			out.write(body);
+			out.writeInt(gzipBody != null ? gzipBody.length : -1);
+			if (gzipBody != null) {
+				out.write(gzipBody);
+			}
+			out.flush();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return the entry, or null for data written by an incompatible version
+	 */
+	public static CachedResponse deserialize(byte[] data) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			if (in.readByte() != FORMAT_VERSION) {
+				return null;
+			}
+			int status = in.readShort();
+			long storedAt = in.readLong();
+			long freshUntil = in.readLong();
+			long staleUntil = in.readLong();
+			String etag = in.readUTF();
+			HttpHeaders headers = new HttpHeaders();
+			int headerCount = in.readShort();
+			for (int i = 0; i < headerCount; i++) {
+				String name = in.readUTF();
+				int valueCount = in.readShort();
+				for (int j = 0; j < valueCount; j++) {
+					headers.add(name, in.readUTF());
+				}
+			}
+			byte[] body = new byte[in.readInt()];
+			in.readFully(body);
+			int gzipLength = in.readInt();
+			byte[] gzipBody = gzipLength >= 0 ? new byte[gzipLength] : null;
+			if (gzipBody != null) {
+				in.readFully(gzipBody);
+			}
+			return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, gzipBody,
+					etag.isEmpty() ? null : etag, storedAt, freshUntil, staleUntil);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+}
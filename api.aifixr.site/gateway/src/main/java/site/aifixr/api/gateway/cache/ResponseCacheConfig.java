@@ -0,0 +1,76 @@
+package site.aifixr.api.gateway.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.web.reactive.function.client.WebClient;
+import site.aifixr.api.gateway.compress.ResponseCompressor;
+
+import java.time.Duration;
+
+/**
+ * Response cache wiring and meters (gateway.response.cache.*)
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+	@Bean
+	public ResponseCacheStore responseCacheStore(ResponseCacheProperties properties,
+			ObjectProvider<ReactiveRedisConnectionFactory> connectionFactory) {
+		ReactiveRedisTemplate<String, byte[]> redisTemplate = null;
+		ReactiveRedisConnectionFactory factory = connectionFactory.getIfAvailable();
+		if (properties.isRedisEnabled() && factory != null) {
+			redisTemplate = new ReactiveRedisTemplate<>(factory, RedisSerializationContext
+					.<String, byte[]>newSerializationContext(RedisSerializer.string())
+					.value(RedisSerializer.byteArray())
+					.build());
+		}
+		return new ResponseCacheStore(properties.getMaxBytes(), redisTemplate, properties.getRedisKeyPrefix(),
+				Duration.ofMillis(properties.getRedisTimeout()));
+	}
+
+	@Bean
+	public ResponseCacheFilter responseCacheFilter(ResponseCacheProperties properties, ResponseCacheStore store,
+			ResponseCompressor compressor, WebClient.Builder webClientBuilder) {
+		return new ResponseCacheFilter(properties, store, compressor, webClientBuilder);
+	}
+
+	@Bean
+	public MeterBinder responseCacheMetrics(ResponseCacheFilter filter, ResponseCacheStore store) {
+		return registry -> {
+			FunctionCounter.builder("gateway.response.cache.requests", filter, ResponseCacheFilter::getHitCount)
+					.tag("result", "hit")
+					.register(registry);
+			FunctionCounter.builder("gateway.response.cache.requests", filter, ResponseCacheFilter::getStaleHitCount)
+					.tag("result", "stale")
+					.register(registry);
+			FunctionCounter.builder("gateway.response.cache.requests", filter, ResponseCacheFilter::getMissCount)
+					.tag("result", "miss")
+					.register(registry);
+			FunctionCounter.builder("gateway.response.cache.not.modified", filter,
+					ResponseCacheFilter::getNotModifiedCount)
+					.description("Requests answered 304 from the cache")
+					.register(registry);
+			FunctionCounter.builder("gateway.response.cache.revalidated", filter,
+					ResponseCacheFilter::getRevalidatedCount)
+					.description("Expired entries the backend confirmed unchanged (304)")
+					.register(registry);
+			FunctionCounter.builder("gateway.response.cache.stores", filter, ResponseCacheFilter::getStoreCount)
+					.register(registry);
+			FunctionCounter.builder("gateway.response.cache.evictions", store, ResponseCacheStore::getEvictionCount)
+					.register(registry);
+			Gauge.builder("gateway.response.cache.size", store, ResponseCacheStore::size)
+					.register(registry);
+			Gauge.builder("gateway.response.cache.bytes", store, ResponseCacheStore::getBytes)
+					.baseUnit("bytes")
+					.register(registry);
+		};
+	}
+}
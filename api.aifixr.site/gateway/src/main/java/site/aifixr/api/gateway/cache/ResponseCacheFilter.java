@@ -0,0 +1,525 @@
+package site.aifixr.api.gateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import site.aifixr.api.gateway.compress.ResponseCompressionFilter;
+import site.aifixr.api.gateway.compress.ResponseCompressor;
+import site.aifixr.api.gateway.stream.StreamingResponseFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Caches idempotent GET responses for routes that opt in through metadata
+ * - cache-ttl: fresh lifetime (ms); cache-stale-while-revalidate: how long a stale copy may still be served (ms)
+ * - cache-paths: optional comma separated path patterns when only part of a route is cacheable
+ * - Fresh hits and If-None-Match matches are answered at the edge; stale hits are answered at once
+ *   while a single loopback request through the same route refreshes the entry
+ * - Expired entries are revalidated with If-None-Match, so an unchanged resource costs a 304 instead of a body
+ * - Compressible bodies are stored with a gzip variant, so repeated hits are not compressed again
+ *
+ * Runs after edge JWT verification but ahead of the route filters, so hits skip rate limiting
+ * and circuit breakers; requests carrying credentials (Authorization or Cookie) are never cached
+ */
+@Slf4j
+public class ResponseCacheFilter implements GlobalFilter, Ordered, ApplicationListener<WebServerInitializedEvent> {
+
+	/** After JwtAuthenticationFilter (-100), before NettyWriteResponseFilter so the body can be captured */
+	public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 50;
+
+	public static final String TTL_METADATA = "cache-ttl";
+	public static final String STALE_WHILE_REVALIDATE_METADATA = "cache-stale-while-revalidate";
+	public static final String PATHS_METADATA = "cache-paths";
+
+	public static final String CACHE_STATUS_HEADER = "X-Cache";
+	static final String REVALIDATE_HEADER = "X-Cache-Revalidate";
+
+	// Not replayed from the cache: hop-by-hop or recomputed per response; CORS headers are added per request origin
+	private static final Set<String> SKIPPED_HEADERS = Set.of(
+			HttpHeaders.TRANSFER_ENCODING.toLowerCase(), HttpHeaders.CONNECTION.toLowerCase(), "keep-alive",
+			HttpHeaders.PROXY_AUTHENTICATE.toLowerCase(), HttpHeaders.PROXY_AUTHORIZATION.toLowerCase(),
+			HttpHeaders.TE.toLowerCase(), HttpHeaders.TRAILER.toLowerCase(), HttpHeaders.UPGRADE.toLowerCase(),
+			HttpHeaders.DATE.toLowerCase(), HttpHeaders.AGE.toLowerCase(), CACHE_STATUS_HEADER.toLowerCase());
+	private static final String CORS_HEADER_PREFIX = "access-control-";
+
+	// Vary values the cache honours: the key carries the negotiated coding, the CORS headers are not stored
+	private static final Set<String> KEYED_VARY = Set.of(HttpHeaders.ACCEPT_ENCODING.toLowerCase(),
+			HttpHeaders.ORIGIN.toLowerCase(), HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD.toLowerCase(),
+			HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS.toLowerCase());
+
+	// Not forwarded on loopback revalidations, so the gateway sees its own address rather than the client's
+	private static final Set<String> LOOPBACK_SKIPPED_HEADERS = Set.of(HttpHeaders.HOST.toLowerCase(),
+			HttpHeaders.IF_NONE_MATCH.toLowerCase(), "forwarded", "x-forwarded-for");
+
+	private final ResponseCacheProperties properties;
+	private final ResponseCacheStore store;
+	private final ResponseCompressor compressor;
+	private final WebClient webClient;
+	private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+	private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+	// Marks loopback revalidations; unknown to clients, so the header cannot be used to bypass the cache
+	private final String revalidateToken = UUID.randomUUID().toString();
+	private volatile int port = -1;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder staleHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder notModified = new LongAdder();
+	private final LongAdder revalidated = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+
+	public ResponseCacheFilter(ResponseCacheProperties properties, ResponseCacheStore store,
+			ResponseCompressor compressor, WebClient.Builder webClientBuilder) {
+		this.properties = properties;
+		this.store = store;
+		this.compressor = compressor;
+		this.webClient = webClientBuilder.build();
+	}
+
+	@Override
+	public void onApplicationEvent(WebServerInitializedEvent event) {
+		// Management server (if on a separate port) has its own namespace
+		if (event.getApplicationContext().getServerNamespace() == null) {
+			port = event.getWebServer().getPort();
+		}
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		if (!properties.isEnabled() || route == null || request.getMethod() != HttpMethod.GET
+				|| StreamingResponseFilter.isStreamingRoute(route)) {
+			return chain.filter(exchange);
+		}
+		Policy policy = policy(route);
+		if (policy == null || !policy.covers(request.getPath().pathWithinApplication()) || !isCacheable(request)) {
+			return chain.filter(exchange);
+		}
+
+		String key = key(route, request);
+		if (revalidateToken.equals(request.getHeaders().getFirst(REVALIDATE_HEADER))) {
+			ServerHttpRequest stripped = request.mutate().headers(h -> h.remove(REVALIDATE_HEADER)).build();
+			return fetch(exchange.mutate().request(stripped).build(), chain, key, policy, store.getLocal(key));
+		}
+
+		boolean noCache = request.getHeaders().getCacheControl() != null
+				&& request.getHeaders().getCacheControl().contains("no-cache");
+		return store.get(key)
+				.map(cached -> {
+					long now = System.currentTimeMillis();
+					if (!noCache && cached.isFresh(now)) {
+						hits.increment();
+						return serve(exchange, cached, "HIT");
+					}
+					if (!noCache && cached.isUsable(now)) {
+						staleHits.increment();
+						revalidateInBackground(request, key);
+						return serve(exchange, cached, "STALE");
+					}
+					misses.increment();
+					return fetch(exchange, chain, key, policy, cached);
+				})
+				.switchIfEmpty(Mono.fromSupplier(() -> {
+					misses.increment();
+					return fetch(exchange, chain, key, policy, null);
+				}))
+				.flatMap(result -> result);
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getStaleHitCount() {
+		return staleHits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getNotModifiedCount() {
+		return notModified.sum();
+	}
+
+	public long getRevalidatedCount() {
+		return revalidated.sum();
+	}
+
+	public long getStoreCount() {
+		return stores.sum();
+	}
+
+	private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+		ServerHttpResponse response = exchange.getResponse();
+		HttpHeaders headers = response.getHeaders();
+		replay(headers, cached.headers());
+		headers.set(HttpHeaders.AGE, Long.toString(Math.max(0L, (System.currentTimeMillis() - cached.storedAt()) / 1000)));
+		headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+		if (cached.etag() != null && etagMatches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH),
+				cached.etag())) {
+			notModified.increment();
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			return response.setComplete();
+		}
+		response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+		return writeBody(response, cached, exchange.getRequest().getHeaders());
+	}
+
+	/**
+	 * The headers the backend sent, without hop-by-hop and CORS headers; null when the response was not proxied
+	 * (NettyRoutingFilter records the backend header names), e.g. a 429 or 503 written inside the gateway
+	 */
+	public static HttpHeaders backendHeaders(HttpHeaders headers, Map<String, Object> attributes) {
+		if (!(attributes.get(CLIENT_RESPONSE_HEADER_NAMES) instanceof Set<?> names)) {
+			return null;
+		}
+		Set<String> backendNames = new HashSet<>();
+		names.forEach(name -> backendNames.add(name.toString().toLowerCase()));
+		HttpHeaders backendHeaders = new HttpHeaders();
+		headers.forEach((name, values) -> {
+			String lowerCase = name.toLowerCase();
+			if (backendNames.contains(lowerCase) && !SKIPPED_HEADERS.contains(lowerCase)
+					&& !lowerCase.startsWith(CORS_HEADER_PREFIX)) {
+				backendHeaders.put(name, List.copyOf(values));
+			}
+		});
+		return backendHeaders;
+	}
+
+	/**
+	 * Copies the stored headers onto the response; Vary values already set (e.g. by CORS handling) are kept
+	 */
+	public static void replay(HttpHeaders target, HttpHeaders cached) {
+		cached.forEach((name, values) -> {
+			if (!HttpHeaders.VARY.equalsIgnoreCase(name)) {
+				target.put(name, values);
+				return;
+			}
+			List<String> present = target.getVary();
+			for (String value : cached.getVary()) {
+				if (present.stream().noneMatch(value::equalsIgnoreCase)) {
+					target.add(HttpHeaders.VARY, value);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Writes the gzip variant when the client accepts it, the identity body otherwise
+	 */
+	private static Mono<Void> writeBody(ServerHttpResponse response, CachedResponse cached, HttpHeaders requestHeaders) {
+		HttpHeaders headers = response.getHeaders();
+		byte[] body = cached.body();
+		if (cached.gzipBody() != null) {
+			ResponseCompressionFilter.addVary(headers);
+			if (ResponseCompressor.acceptsGzip(requestHeaders)) {
+				body = cached.gzipBody();
+				headers.set(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP);
+				ResponseCompressionFilter.weakenEtag(headers);
+			}
+		}
+		headers.setContentLength(body.length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+	}
+
+	/**
+	 * Forwards to the backend; conditional on the previous ETag when the client did not send its own
+	 */
+	private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain, String key, Policy policy,
+			CachedResponse previous) {
+		ServerHttpRequest request = exchange.getRequest();
+		CachedResponse conditionalOn = previous != null && previous.etag() != null
+				&& !request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH) ? previous : null;
+		if (conditionalOn != null) {
+			request = request.mutate().header(HttpHeaders.IF_NONE_MATCH, conditionalOn.etag()).build();
+		}
+		CachingResponse response = new CachingResponse(exchange.getResponse(), key, policy, conditionalOn,
+				exchange.getRequest().getHeaders(), exchange.getAttributes());
+		return chain.filter(exchange.mutate().request(request).response(response).build());
+	}
+
+	/**
+	 * Refreshes a stale entry with one loopback request through the same route (single flight per key)
+	 */
+	private void revalidateInBackground(ServerHttpRequest request, String key) {
+		if (port <= 0 || !revalidating.add(key)) {
+			return;
+		}
+		String uri = "http://127.0.0.1:" + port + request.getURI().getRawPath()
+				+ (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+		webClient.get()
+				.uri(URI.create(uri))
+				.headers(headers -> {
+					request.getHeaders().forEach((name, values) -> {
+						if (!LOOPBACK_SKIPPED_HEADERS.contains(name.toLowerCase())) {
+							headers.put(name, values);
+						}
+					});
+					headers.set(REVALIDATE_HEADER, revalidateToken);
+				})
+				.retrieve()
+				.toBodilessEntity()
+				.timeout(Duration.ofMillis(properties.getRevalidateTimeout()))
+				.doFinally(signal -> revalidating.remove(key))
+				.subscribe(null, error -> log.debug("Background revalidation of {} failed: {}", key, error.toString()));
+	}
+
+	private Policy policy(Route route) {
+		Map<String, Object> metadata = route.getMetadata();
+		Policy cached = policies.get(route.getId());
+		if (cached != null && cached.metadata == metadata) {
+			return cached.ttl > 0 ? cached : null;
+		}
+		Policy created = Policy.from(metadata);
+		policies.put(route.getId(), created);
+		return created.ttl > 0 ? created : null;
+	}
+
+	private static boolean isCacheable(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		if (headers.containsKey(HttpHeaders.AUTHORIZATION) || headers.containsKey(HttpHeaders.COOKIE)) {
+			return false;
+		}
+		String cacheControl = headers.getCacheControl();
+		return cacheControl == null || !cacheControl.contains("no-store");
+	}
+
+	/**
+	 * Route, path, query and the negotiated coding rather than the raw Accept-Encoding,
+	 * so browsers that spell the same preference differently share one entry
+	 */
+	private static String key(Route route, ServerHttpRequest request) {
+		String query = request.getURI().getRawQuery();
+		String encoding = ResponseCompressor.acceptsGzip(request.getHeaders()) ? ResponseCompressor.GZIP : "identity";
+		return route.getId() + ":" + request.getURI().getRawPath() + (query != null ? "?" + query : "")
+				+ "|" + encoding;
+	}
+
+	static boolean etagMatches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		String target = weak(etag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if ("*".equals(value) || weak(value).equals(target)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String weak(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	private static String digestEtag(byte[] body) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+			return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * Per-route caching rules parsed from route metadata
+	 */
+	private record Policy(Map<String, Object> metadata, long ttl, long staleWhileRevalidate,
+			List<PathPattern> paths) {
+
+		static Policy from(Map<String, Object> metadata) {
+			long ttl = number(metadata.get(TTL_METADATA));
+			long swr = number(metadata.get(STALE_WHILE_REVALIDATE_METADATA));
+			Object paths = metadata.get(PATHS_METADATA);
+			List<PathPattern> patterns = paths == null ? List.of() : Arrays.stream(paths.toString().split(","))
+					.map(String::trim)
+					.filter(pattern -> !pattern.isEmpty())
+					.map(PathPatternParser.defaultInstance::parse)
+					.toList();
+			return new Policy(metadata, ttl, Math.max(0L, swr), patterns);
+		}
+
+		boolean covers(PathContainer path) {
+			if (paths.isEmpty()) {
+				return true;
+			}
+			for (PathPattern pattern : paths) {
+				if (pattern.matches(path)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private static long number(Object value) {
+			if (value instanceof Number number) {
+				return number.longValue();
+			}
+			return value != null ? Long.parseLong(value.toString().trim()) : 0L;
+		}
+	}
+
+	/**
+	 * Copies a cacheable 200 into the store while streaming it to the client,
+	 * and turns a 304 for our own conditional request back into the cached 200
+	 * - Only proxied responses are stored, with their backend headers ({@link #backendHeaders})
+	 */
+	private final class CachingResponse extends ServerHttpResponseDecorator {
+		private final String key;
+		private final Policy policy;
+		private final CachedResponse conditionalOn;
+		private final HttpHeaders requestHeaders;
+		private final Map<String, Object> attributes;
+
+		private CachingResponse(ServerHttpResponse delegate, String key, Policy policy, CachedResponse conditionalOn,
+				HttpHeaders requestHeaders, Map<String, Object> attributes) {
+			super(delegate);
+			this.key = key;
+			this.policy = policy;
+			this.conditionalOn = conditionalOn;
+			this.requestHeaders = requestHeaders;
+			this.attributes = attributes;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			long now = System.currentTimeMillis();
+			HttpStatusCode status = getStatusCode();
+			// Only the backend (or a coalesced copy of its answer) replies 304 to our own conditional request
+			if (conditionalOn != null && status == HttpStatus.NOT_MODIFIED) {
+				revalidated.increment();
+				CachedResponse refreshed = conditionalOn.refreshed(now, policy.ttl, policy.staleWhileRevalidate);
+				store.put(key, refreshed);
+				setStatusCode(HttpStatusCode.valueOf(refreshed.status()));
+				replay(getHeaders(), refreshed.headers());
+				getHeaders().set(CACHE_STATUS_HEADER, "REVALIDATED");
+				return Flux.from(body)
+						.doOnNext(DataBufferUtils::release)
+						.then(writeBody(getDelegate(), refreshed, requestHeaders));
+			}
+
+			// Snapshot before the compression filter rewrites the shared headers for the encoded body
+			HttpHeaders backendHeaders = backendHeaders(getHeaders(), attributes);
+			if (backendHeaders == null || status != HttpStatus.OK || !isStorable(getHeaders())) {
+				return super.writeWith(body);
+			}
+			getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+			ByteArrayOutputStream copy = new ByteArrayOutputStream();
+			int limit = properties.getMaxEntryBytes();
+			boolean[] overflow = {false};
+			Flux<? extends DataBuffer> tee = Flux.from(body)
+					.doOnNext(buffer -> {
+						if (overflow[0]) {
+							return;
+						}
+						if (copy.size() + buffer.readableByteCount() > limit) {
+							overflow[0] = true;
+							copy.reset();
+							return;
+						}
+						try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+							while (iterator.hasNext()) {
+								ByteBuffer chunk = iterator.next();
+								byte[] bytes = new byte[chunk.remaining()];
+								chunk.get(bytes);
+								copy.writeBytes(bytes);
+							}
+						}
+					})
+					.doOnComplete(() -> {
+						if (!overflow[0]) {
+							store(backendHeaders, copy.toByteArray(), now);
+						}
+					});
+			return super.writeWith(tee);
+		}
+
+		private void store(HttpHeaders headers, byte[] body, long now) {
+			String etag = headers.getETag();
+			if (etag == null) {
+				etag = digestEtag(body);
+				headers.setETag(etag);
+			}
+			headers.setContentLength(body.length);
+			byte[] gzipBody = compressor != null && compressor.isCompressible(headers) ? compressor.compress(body) : null;
+			store.put(key, new CachedResponse(HttpStatus.OK.value(), HttpHeaders.readOnlyHttpHeaders(headers), body,
+					gzipBody, etag, now, now + policy.ttl, now + policy.ttl + policy.staleWhileRevalidate));
+			stores.increment();
+		}
+
+		private boolean isStorable(HttpHeaders headers) {
+			if (headers.containsKey(HttpHeaders.SET_COOKIE)
+					|| StreamingResponseFilter.isStreamingType(headers.getContentType())) {
+				return false;
+			}
+			// A body the backend encoded itself may use a coding other clients under the same key do not accept
+			String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+			if (contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding)) {
+				return false;
+			}
+			// The key only tells requests apart by path, query and negotiated coding
+			for (String vary : headers.getVary()) {
+				if (!KEYED_VARY.contains(vary.toLowerCase())) {
+					return false;
+				}
+			}
+			long length = headers.getContentLength();
+			if (length > properties.getMaxEntryBytes()) {
+				return false;
+			}
+			String cacheControl = headers.getCacheControl();
+			return cacheControl == null
+					|| !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+		}
+	}
+}
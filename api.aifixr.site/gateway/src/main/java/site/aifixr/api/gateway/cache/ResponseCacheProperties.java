@@ -0,0 +1,31 @@
+package site.aifixr.api.gateway.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gateway response cache settings
+ * Which routes are cached, and for how long, is set per route through route metadata:
+ * cache-ttl (ms), cache-stale-while-revalidate (ms) and optionally cache-paths (comma separated patterns)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "response-cache")
+@Getter
+@Setter
+public class ResponseCacheProperties {
+	private boolean enabled = true;
+
+	// L1 (in-memory) budget: total body + header bytes, and the largest single response worth keeping
+	private long maxBytes = 64L * 1024 * 1024;
+	private int maxEntryBytes = 1024 * 1024;
+
+	// Optional L2 shared across gateway instances
+	private boolean redisEnabled = false;
+	private String redisKeyPrefix = "gateway:response-cache:";
+	private long redisTimeout = 50L; // ms, slower L2 reads count as a miss
+
+	// Background revalidation of stale entries (loopback request through the same route)
+	private long revalidateTimeout = 30000L; // ms
+}
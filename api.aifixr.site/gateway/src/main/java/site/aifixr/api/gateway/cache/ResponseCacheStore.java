@@ -0,0 +1,167 @@
+package site.aifixr.api.gateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-level response store
+ * - L1: in-memory, bounded by total bytes; when over budget the least recently used entries are dropped
+ * - L2 (optional): Redis, shared between gateway instances; read with a short timeout and written in the background
+ */
+@Slf4j
+public class ResponseCacheStore {
+
+	private final long maxBytes;
+	private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+	private final String redisKeyPrefix;
+	private final Duration redisTimeout;
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicBoolean evicting = new AtomicBoolean(false);
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param redisTemplate null to run with L1 only
+	 */
+	public ResponseCacheStore(long maxBytes, ReactiveRedisTemplate<String, byte[]> redisTemplate,
+			String redisKeyPrefix, Duration redisTimeout) {
+		this.maxBytes = Math.max(1L, maxBytes);
+		this.redisTemplate = redisTemplate;
+		this.redisKeyPrefix = redisKeyPrefix;
+		this.redisTimeout = redisTimeout;
+	}
+
+	/**
+	 * L1 lookup only (no I/O)
+	 */
+	public CachedResponse getLocal(String key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		entry.lastAccess = System.nanoTime();
+		return entry.response;
+	}
+
+	/**
+	 * L1, then L2; an L2 hit is promoted to L1. Redis failures are treated as a miss.
+	 */
+	public Mono<CachedResponse> get(String key) {
+		CachedResponse local = getLocal(key);
+		if (local != null || redisTemplate == null) {
+			return Mono.justOrEmpty(local);
+		}
+		return redisTemplate.opsForValue().get(redisKeyPrefix + key)
+				.timeout(redisTimeout)
+				.mapNotNull(CachedResponse::deserialize)
+				.filter(response -> response.isUsable(System.currentTimeMillis()))
+				.doOnNext(response -> putLocal(key, response))
+				.onErrorResume(error -> {
+					log.debug("Response cache L2 read failed for {}: {}", key, error.toString());
+					return Mono.empty();
+				});
+	}
+
+	public void put(String key, CachedResponse response) {
+		putLocal(key, response);
+		if (redisTemplate != null) {
+			long ttl = response.staleUntil() - System.currentTimeMillis();
+			if (ttl > 0) {
+				redisTemplate.opsForValue()
+						.set(redisKeyPrefix + key, response.serialize(), Duration.ofMillis(ttl))
+						.subscribe(null, error -> log.debug("Response cache L2 write failed for {}: {}", key,
+								error.toString()));
+			}
+		}
+	}
+
+	public void clear() {
+		entries.clear();
+		bytes.set(0L);
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getBytes() {
+		return bytes.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	private void putLocal(String key, CachedResponse response) {
+		Entry entry = new Entry(response);
+		Entry previous = entries.put(key, entry);
+		bytes.addAndGet(entry.weight - (previous != null ? previous.weight : 0L));
+		if (bytes.get() > maxBytes) {
+			evict();
+		}
+	}
+
+	private void evict() {
+		// Only one thread sweeps at a time; others may briefly overshoot the budget
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			long now = System.currentTimeMillis();
+			entries.forEach((key, entry) -> {
+				if (!entry.response.isUsable(now)) {
+					remove(key, entry);
+				}
+			});
+
+			// Down to 90% of the budget so the next puts do not trigger another sweep right away
+			long target = maxBytes - maxBytes / 10;
+			if (bytes.get() > target) {
+				// Snapshot access times first: they keep changing while we sort
+				List<Candidate> byAge = new ArrayList<>(entries.size());
+				entries.forEach((key, entry) -> byAge.add(new Candidate(key, entry, entry.lastAccess)));
+				byAge.sort(Comparator.comparingLong(Candidate::lastAccess));
+				for (Candidate candidate : byAge) {
+					if (bytes.get() <= target) {
+						break;
+					}
+					remove(candidate.key(), candidate.entry());
+				}
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	private void remove(String key, Entry entry) {
+		if (entries.remove(key, entry)) {
+			bytes.addAndGet(-entry.weight);
+			evictions.increment();
+		}
+	}
+
+	private record Candidate(String key, Entry entry, long lastAccess) {
+	}
+
+	private static final class Entry {
+		private final CachedResponse response;
+		private final long weight;
+		private volatile long lastAccess = System.nanoTime();
+
+		private Entry(CachedResponse response) {
+			this.response = response;
+			this.weight = response.weight();
+		}
+	}
+}
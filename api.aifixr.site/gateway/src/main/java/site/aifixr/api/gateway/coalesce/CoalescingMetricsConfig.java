@@ -0,0 +1,38 @@
+package site.aifixr.api.gateway.coalesce;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request coalescing meters (gateway.coalescing.*)
+ */
+@Configuration
+public class CoalescingMetricsConfig {
+
+	@Bean
+	public MeterBinder requestCoalescingMetrics(RequestCoalescingFilter filter) {
+		return registry -> {
+			FunctionCounter.builder("gateway.coalescing.requests", filter, RequestCoalescingFilter::getLeaderCount)
+					.description("Requests that went to the backend for their flight")
+					.tag("result", "leader")
+					.register(registry);
+			FunctionCounter.builder("gateway.coalescing.requests", filter, RequestCoalescingFilter::getCoalescedCount)
+					.description("Requests answered with another request's backend response")
+					.tag("result", "coalesced")
+					.register(registry);
+			FunctionCounter.builder("gateway.coalescing.requests", filter, RequestCoalescingFilter::getFallbackCount)
+					.description("Waiters that called the backend themselves (response not shareable)")
+					.tag("result", "fallback")
+					.register(registry);
+			Gauge.builder("gateway.coalescing.ratio", filter, RequestCoalescingFilter::getCoalescingRatio)
+					.description("Share of coalescing-route requests served without their own backend call")
+					.register(registry);
+			Gauge.builder("gateway.coalescing.inflight", filter, RequestCoalescingFilter::getInFlightCount)
+					.description("Distinct backend exchanges currently shared")
+					.register(registry);
+		};
+	}
+}
@@ -0,0 +1,25 @@
+package site.aifixr.api.gateway.coalesce;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request coalescing (single flight) settings
+ * Routes opt in through route metadata: coalesce: true and optionally coalesce-paths (comma separated patterns)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "coalescing")
+@Getter
+@Setter
+public class CoalescingProperties {
+	private boolean enabled = true;
+	private int maxBodyBytes = 4 * 1024 * 1024; // larger responses are not shared, waiters call the backend themselves
+
+	// Request headers that select a different representation; Authorization and Cookie are always part of the key
+	private List<String> varyHeaders = new ArrayList<>(List.of("Accept", "Accept-Language"));
+}
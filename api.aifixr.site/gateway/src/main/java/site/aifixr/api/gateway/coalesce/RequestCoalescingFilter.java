@@ -0,0 +1,347 @@
+package site.aifixr.api.gateway.coalesce;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import site.aifixr.api.gateway.cache.ResponseCacheFilter;
+import site.aifixr.api.gateway.metrics.UpstreamTimingFilter;
+import site.aifixr.api.gateway.stream.StreamingResponseFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Shares one backend exchange between identical GET requests that are in flight at the same time
+ * - Routes opt in with metadata coalesce: true, optionally narrowed with coalesce-paths
+ * - Identical = same route, path, query, Authorization/Cookie, conditional headers and configured vary headers
+ * - The first request (leader) goes to the backend and streams its response as usual while a copy is kept;
+ *   requests arriving meanwhile wait for that copy and are answered with it (X-Coalesced: true)
+ * - Only what the backend produced is shared: its response without hop-by-hop and CORS headers (the waiter keeps
+ *   the CORS headers of its own origin), or the error of the backend call
+ * - Everything else makes the waiters call the backend themselves: answers written inside the gateway
+ *   (rate limiter 429, concurrency limit 503, circuit breaker), Set-Cookie, bodies larger than max-body-bytes,
+ *   SSE / NDJSON streams, a cancelled leader
+ *
+ * Runs right after the response cache, so only cache misses are coalesced; it also runs ahead of the
+ * route filters, which is why the leader's own rejections must not reach the waiters
+ */
+@Slf4j
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+	public static final String COALESCE_METADATA = "coalesce";
+	public static final String PATHS_METADATA = "coalesce-paths";
+	public static final String COALESCED_HEADER = "X-Coalesced";
+
+	private final CoalescingProperties properties;
+	private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+	private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+
+	private final LongAdder leaders = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder fallbacks = new LongAdder();
+
+	public RequestCoalescingFilter(CoalescingProperties properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	public int getOrder() {
+		return ResponseCacheFilter.ORDER + 1;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		if (!properties.isEnabled() || route == null || request.getMethod() != HttpMethod.GET
+				|| StreamingResponseFilter.isStreamingRoute(route)) {
+			return chain.filter(exchange);
+		}
+		Policy policy = policy(route);
+		if (policy == null || !policy.covers(request.getPath().pathWithinApplication())) {
+			return chain.filter(exchange);
+		}
+
+		String key = key(route, request);
+		Flight flight = new Flight(key);
+		Flight current = flights.putIfAbsent(key, flight);
+		if (current == null) {
+			leaders.increment();
+			return lead(exchange, chain, flight);
+		}
+		return current.result.asMono()
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(shared -> {
+					if (shared.isEmpty()) {
+						fallbacks.increment();
+						return chain.filter(exchange);
+					}
+					coalesced.increment();
+					return write(exchange.getResponse(), shared.get());
+				});
+	}
+
+	public long getLeaderCount() {
+		return leaders.sum();
+	}
+
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	public long getFallbackCount() {
+		return fallbacks.sum();
+	}
+
+	public int getInFlightCount() {
+		return flights.size();
+	}
+
+	/**
+	 * Share of GETs on coalescing routes that were answered without a backend call of their own
+	 */
+	public double getCoalescingRatio() {
+		long shared = coalesced.sum();
+		long total = shared + leaders.sum() + fallbacks.sum();
+		return total == 0 ? 0.0 : (double) shared / total;
+	}
+
+	private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, Flight flight) {
+		RecordingResponse response = new RecordingResponse(exchange.getResponse(), flight, exchange.getAttributes());
+		return chain.filter(exchange.mutate().response(response).build())
+				.doOnError(error -> {
+					// Timed when the backend was called; a rejection by a route filter is the leader's alone
+					if (exchange.getAttributes().containsKey(UpstreamTimingFilter.UPSTREAM_LATENCY_ATTR)) {
+						flight.fail(error);
+					}
+				})
+				// Cancelled by the leader's client, or the chain ended without a response body
+				.doFinally(signal -> flight.abandon());
+	}
+
+	private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+		response.setStatusCode(HttpStatusCode.valueOf(shared.status()));
+		ResponseCacheFilter.replay(response.getHeaders(), shared.headers());
+		response.getHeaders().set(COALESCED_HEADER, "true");
+		response.getHeaders().setContentLength(shared.body().length);
+		if (shared.body().length == 0) {
+			// Through writeWith, so the response cache still turns a shared 304 for its revalidation into its 200
+			return response.writeWith(Flux.empty());
+		}
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+	}
+
+	private String key(Route route, ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		StringBuilder key = new StringBuilder(route.getId()).append(':').append(request.getURI().getRawPath());
+		if (request.getURI().getRawQuery() != null) {
+			key.append('?').append(request.getURI().getRawQuery());
+		}
+		appendHeader(key, headers, HttpHeaders.AUTHORIZATION);
+		appendHeader(key, headers, HttpHeaders.COOKIE);
+		appendHeader(key, headers, HttpHeaders.IF_NONE_MATCH);
+		appendHeader(key, headers, HttpHeaders.IF_MODIFIED_SINCE);
+		for (String name : properties.getVaryHeaders()) {
+			appendHeader(key, headers, name);
+		}
+		return key.toString();
+	}
+
+	private static void appendHeader(StringBuilder key, HttpHeaders headers, String name) {
+		List<String> values = headers.get(name);
+		key.append('|');
+		if (values != null) {
+			key.append(String.join(",", values));
+		}
+	}
+
+	private Policy policy(Route route) {
+		Map<String, Object> metadata = route.getMetadata();
+		Policy cached = policies.get(route.getId());
+		if (cached == null || cached.metadata != metadata) {
+			cached = Policy.from(metadata);
+			policies.put(route.getId(), cached);
+		}
+		return cached.enabled ? cached : null;
+	}
+
+	/**
+	 * Per-route coalescing rules parsed from route metadata
+	 */
+	private record Policy(Map<String, Object> metadata, boolean enabled, List<PathPattern> paths) {
+
+		static Policy from(Map<String, Object> metadata) {
+			Object enabled = metadata.get(COALESCE_METADATA);
+			Object paths = metadata.get(PATHS_METADATA);
+			List<PathPattern> patterns = paths == null ? List.of() : Arrays.stream(paths.toString().split(","))
+					.map(String::trim)
+					.filter(pattern -> !pattern.isEmpty())
+					.map(PathPatternParser.defaultInstance::parse)
+					.toList();
+			return new Policy(metadata, enabled != null && Boolean.parseBoolean(enabled.toString().trim()), patterns);
+		}
+
+		boolean covers(PathContainer path) {
+			if (paths.isEmpty()) {
+				return true;
+			}
+			for (PathPattern pattern : paths) {
+				if (pattern.matches(path)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private record SharedResponse(int status, HttpHeaders headers, byte[] body) {
+	}
+
+	/**
+	 * One backend exchange and the requests waiting on it
+	 * Leaves the table before its result is emitted, so requests arriving afterwards start a new flight
+	 */
+	private final class Flight {
+		private final String key;
+		private final Sinks.One<SharedResponse> result = Sinks.one();
+		private final AtomicBoolean done = new AtomicBoolean(false);
+
+		private Flight(String key) {
+			this.key = key;
+		}
+
+		void publish(SharedResponse response) {
+			if (done.compareAndSet(false, true)) {
+				flights.remove(key, this);
+				result.tryEmitValue(response);
+			}
+		}
+
+		void fail(Throwable error) {
+			if (done.compareAndSet(false, true)) {
+				flights.remove(key, this);
+				result.tryEmitError(error);
+			}
+		}
+
+		void abandon() {
+			if (done.compareAndSet(false, true)) {
+				flights.remove(key, this);
+				result.tryEmitEmpty();
+			}
+		}
+	}
+
+	/**
+	 * Streams the leader's response to its client and hands a copy to the flight once complete
+	 */
+	private final class RecordingResponse extends ServerHttpResponseDecorator {
+		private final Flight flight;
+		private final Map<String, Object> attributes;
+
+		private RecordingResponse(ServerHttpResponse delegate, Flight flight, Map<String, Object> attributes) {
+			super(delegate);
+			this.flight = flight;
+			this.attributes = attributes;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			// Snapshot before inner filters (cache, compression) rewrite the headers for this client
+			HttpHeaders headers = sharedHeaders();
+			if (headers == null) {
+				flight.abandon();
+				return super.writeWith(body);
+			}
+			int status = statusValue();
+			ByteArrayOutputStream copy = new ByteArrayOutputStream();
+			int limit = properties.getMaxBodyBytes();
+			Flux<? extends DataBuffer> tee = Flux.from(body)
+					.doOnNext(buffer -> {
+						if (flight.done.get()) {
+							return;
+						}
+						if (copy.size() + buffer.readableByteCount() > limit) {
+							flight.abandon();
+							return;
+						}
+						try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+							while (iterator.hasNext()) {
+								ByteBuffer chunk = iterator.next();
+								byte[] bytes = new byte[chunk.remaining()];
+								chunk.get(bytes);
+								copy.writeBytes(bytes);
+							}
+						}
+					})
+					.doOnComplete(() -> flight.publish(new SharedResponse(status, headers, copy.toByteArray())));
+			return super.writeWith(tee);
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			// SSE / NDJSON: waiters would only get the copy once the whole stream has ended
+			flight.abandon();
+			return super.writeAndFlushWith(body);
+		}
+
+		@Override
+		public Mono<Void> setComplete() {
+			HttpHeaders headers = sharedHeaders();
+			if (headers != null) {
+				flight.publish(new SharedResponse(statusValue(), headers, new byte[0]));
+			} else {
+				flight.abandon();
+			}
+			return super.setComplete();
+		}
+
+		/**
+		 * The backend headers to hand to the waiters, null when the response must not be shared
+		 */
+		private HttpHeaders sharedHeaders() {
+			if (getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+					|| getHeaders().getContentLength() > properties.getMaxBodyBytes()
+					|| StreamingResponseFilter.isStreamingType(getHeaders().getContentType())) {
+				return null;
+			}
+			HttpHeaders headers = ResponseCacheFilter.backendHeaders(getHeaders(), attributes);
+			return headers != null ? HttpHeaders.readOnlyHttpHeaders(headers) : null;
+		}
+
+		private int statusValue() {
+			HttpStatusCode status = getStatusCode();
+			return status != null ? status.value() : HttpStatus.OK.value();
+		}
+	}
+}
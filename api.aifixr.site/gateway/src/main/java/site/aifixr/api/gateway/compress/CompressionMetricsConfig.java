@@ -0,0 +1,43 @@
+package site.aifixr.api.gateway.compress;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response compression meters (gateway.compression.*)
+ */
+@Configuration
+public class CompressionMetricsConfig {
+
+	@Bean
+	public MeterBinder responseCompressionMetrics(ResponseCompressor compressor) {
+		return registry -> {
+			FunctionCounter.builder("gateway.compression.responses", compressor, ResponseCompressor::getCompressedCount)
+					.tag("result", "compressed")
+					.register(registry);
+			FunctionCounter.builder("gateway.compression.responses", compressor, ResponseCompressor::getSkippedCount)
+					.tag("result", "skipped")
+					.description("Responses sent as-is: small, non-compressible type or already encoded")
+					.register(registry);
+			FunctionCounter.builder("gateway.compression.bytes.in", compressor, ResponseCompressor::getBytesIn)
+					.baseUnit("bytes")
+					.register(registry);
+			FunctionCounter.builder("gateway.compression.bytes.out", compressor, ResponseCompressor::getBytesOut)
+					.baseUnit("bytes")
+					.register(registry);
+			FunctionCounter.builder("gateway.compression.bytes.saved", compressor,
+					c -> Math.max(0L, c.getBytesIn() - c.getBytesOut()))
+					.baseUnit("bytes")
+					.register(registry);
+			FunctionCounter.builder("gateway.compression.cpu.time", compressor,
+					c -> c.getCpuNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+					.baseUnit("seconds")
+					.description("Time spent in the gzip encoder (streamed responses and cache variants)")
+					.register(registry);
+		};
+	}
+}
@@ -0,0 +1,25 @@
+package site.aifixr.api.gateway.compress;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway response compression settings
+ */
+@Configuration
+@ConfigurationProperties(prefix = "compression")
+@Getter
+@Setter
+public class CompressionProperties {
+	private boolean enabled = true;
+	private int minSize = 1024; // bytes, responses with a smaller Content-Length are sent as-is
+	private int level = 5; // 1 (fastest) .. 9 (smallest)
+	private List<String> mimeTypes = new ArrayList<>(List.of(
+			"application/json", "application/*+json", "application/javascript", "application/xml",
+			"text/html", "text/plain", "text/css", "text/csv", "text/xml", "image/svg+xml"));
+}
@@ -0,0 +1,81 @@
+package site.aifixr.api.gateway.compress;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Incremental gzip writer
+ * Each chunk is sync-flushed so a streamed response reaches the client as it arrives.
+ * Methods are synchronized because a cancel can end the deflater while a chunk is being written;
+ * once ended (or finished) further chunks produce no output instead of touching the closed deflater.
+ */
+final class GzipEncoder {
+
+	private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+	private static final byte[] EMPTY = new byte[0];
+
+	private final Deflater deflater;
+	private final CRC32 crc = new CRC32();
+	private final byte[] buffer = new byte[8192];
+	private boolean headerWritten = false;
+	private boolean finished = false;
+	private boolean ended = false;
+
+	GzipEncoder(int level) {
+		this.deflater = new Deflater(level, true);
+	}
+
+	synchronized byte[] write(byte[] input) {
+		if (ended || finished) {
+			return EMPTY;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 32);
+		header(out);
+		crc.update(input);
+		deflater.setInput(input);
+		int written;
+		do {
+			written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+			out.write(buffer, 0, written);
+		} while (written == buffer.length);
+		return out.toByteArray();
+	}
+
+	synchronized byte[] finish() {
+		if (ended || finished) {
+			return EMPTY;
+		}
+		finished = true;
+		ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+		header(out);
+		deflater.finish();
+		while (!deflater.finished()) {
+			out.write(buffer, 0, deflater.deflate(buffer));
+		}
+		writeInt(out, (int) crc.getValue());
+		writeInt(out, (int) deflater.getBytesRead());
+		return out.toByteArray();
+	}
+
+	synchronized void end() {
+		if (!ended) {
+			ended = true;
+			deflater.end();
+		}
+	}
+
+	private void header(ByteArrayOutputStream out) {
+		if (!headerWritten) {
+			headerWritten = true;
+			out.writeBytes(HEADER);
+		}
+	}
+
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		out.write(value & 0xff);
+		out.write((value >> 8) & 0xff);
+		out.write((value >> 16) & 0xff);
+		out.write((value >> 24) & 0xff);
+	}
+}
@@ -0,0 +1,100 @@
+package site.aifixr.api.gateway.compress;
+
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import site.aifixr.api.gateway.cache.ResponseCacheFilter;
+import site.aifixr.api.gateway.stream.StreamingResponseFilter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * gzip-encodes proxied responses for clients that accept it, streaming chunk by chunk
+ * - Skips bodies that are already encoded, of a non-compressible type or smaller than min-size
+ * - Skips streams (SSE / NDJSON, streaming routes): gzip would hold chunks back until its buffer fills
+ * - Cache hits that carry a precompressed variant arrive with Content-Encoding set and pass through untouched
+ *
+ * Wraps the response outside the response cache, so the cache stores and revalidates the identity body
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = ResponseCacheFilter.ORDER - 10;
+
+	private final ResponseCompressor compressor;
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		if (exchange.getRequest().getMethod() == HttpMethod.HEAD
+				|| !ResponseCompressor.acceptsGzip(exchange.getRequest().getHeaders())
+				|| StreamingResponseFilter.isStreamingRoute(exchange.getAttribute(GATEWAY_ROUTE_ATTR))) {
+			return chain.filter(exchange);
+		}
+		return chain.filter(exchange.mutate().response(new CompressingResponse(exchange.getResponse())).build());
+	}
+
+	private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+		private CompressingResponse(ServerHttpResponse delegate) {
+			super(delegate);
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			HttpHeaders headers = getHeaders();
+			HttpStatusCode status = getStatusCode();
+			if (status != null && (status.is1xxInformational() || status.value() == 204 || status.value() == 304)) {
+				return super.writeWith(body);
+			}
+			if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+				// Already encoded upstream or precompressed by the cache
+				return super.writeWith(body);
+			}
+			if (!compressor.isCompressible(headers) || StreamingResponseFilter.isStreamingType(headers.getContentType())) {
+				compressor.recordSkipped();
+				return super.writeWith(body);
+			}
+			headers.set(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP);
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			addVary(headers);
+			weakenEtag(headers);
+			return super.writeWith(compressor.compress(body, bufferFactory()));
+		}
+	}
+
+	/**
+	 * Vary: Accept-Encoding, kept alongside any value already sent by the backend
+	 */
+	public static void addVary(HttpHeaders headers) {
+		if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+	}
+
+	/**
+	 * The encoded bytes differ from the identity representation, so a strong ETag becomes weak
+	 */
+	public static void weakenEtag(HttpHeaders headers) {
+		String etag = headers.getETag();
+		if (etag != null && !etag.startsWith("W/")) {
+			headers.set(HttpHeaders.ETAG, "W/" + etag);
+		}
+	}
+}
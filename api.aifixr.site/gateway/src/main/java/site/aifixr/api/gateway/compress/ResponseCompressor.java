@@ -0,0 +1,194 @@
+package site.aifixr.api.gateway.compress;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * gzip encoding shared by the compression filter (streamed responses)
+ * and the response cache (variants stored next to cached bodies)
+ */
+@Component
+public class ResponseCompressor {
+
+	public static final String GZIP = "gzip";
+
+	private final CompressionProperties properties;
+	private final List<MediaType> mimeTypes;
+
+	private final LongAdder compressed = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+	private final LongAdder bytesIn = new LongAdder();
+	private final LongAdder bytesOut = new LongAdder();
+	private final LongAdder cpuNanos = new LongAdder();
+
+	public ResponseCompressor(CompressionProperties properties) {
+		this.properties = properties;
+		this.mimeTypes = properties.getMimeTypes().stream().map(MediaType::parseMediaType).toList();
+	}
+
+	/**
+	 * gzip accepted with a non-zero quality; an explicit gzip entry wins over *, wherever they appear
+	 * ("*;q=0, gzip" accepts gzip, "gzip;q=0, *" does not)
+	 */
+	public static boolean acceptsGzip(HttpHeaders requestHeaders) {
+		Double gzip = null;
+		Double any = null;
+		for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+			for (String coding : value.split(",")) {
+				String[] parts = coding.split(";");
+				String name = parts[0].trim();
+				if (GZIP.equalsIgnoreCase(name)) {
+					gzip = quality(parts);
+				} else if ("*".equals(name)) {
+					any = quality(parts);
+				}
+			}
+		}
+		if (gzip != null) {
+			return gzip > 0.0;
+		}
+		return any != null && any > 0.0;
+	}
+
+	/**
+	 * Worth compressing: enabled, not already encoded, a compressible type and not known to be small
+	 */
+	public boolean isCompressible(HttpHeaders responseHeaders) {
+		if (!properties.isEnabled() || responseHeaders.containsKey(HttpHeaders.CONTENT_ENCODING)
+				|| responseHeaders.containsKey(HttpHeaders.CONTENT_RANGE)) {
+			return false;
+		}
+		long length = responseHeaders.getContentLength();
+		if (length >= 0 && length < properties.getMinSize()) {
+			return false;
+		}
+		MediaType contentType = responseHeaders.getContentType();
+		if (contentType == null) {
+			return false;
+		}
+		for (MediaType mimeType : mimeTypes) {
+			if (mimeType.includes(contentType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compresses a stream chunk by chunk; input buffers are released as they are consumed
+	 */
+	public Flux<DataBuffer> compress(Publisher<? extends DataBuffer> body, DataBufferFactory bufferFactory) {
+		compressed.increment();
+		return Flux.using(() -> new GzipEncoder(properties.getLevel()),
+				encoder -> Flux.<DataBuffer>from(body)
+						.map(buffer -> {
+							byte[] input = read(buffer);
+							return bufferFactory.wrap(encode(encoder, input, false));
+						})
+						.concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(encode(encoder, null, true)))),
+				GzipEncoder::end);
+	}
+
+	/**
+	 * Compresses a whole body, e.g. a cached response; null when it would not get smaller
+	 */
+	public byte[] compress(byte[] body) {
+		GzipEncoder encoder = new GzipEncoder(properties.getLevel());
+		try {
+			byte[] head = encode(encoder, body, false);
+			byte[] tail = encode(encoder, null, true);
+			byte[] gzip = new byte[head.length + tail.length];
+			System.arraycopy(head, 0, gzip, 0, head.length);
+			System.arraycopy(tail, 0, gzip, head.length, tail.length);
+			return gzip.length < body.length ? gzip : null;
+		} finally {
+			encoder.end();
+		}
+	}
+
+	public void recordSkipped() {
+		skipped.increment();
+	}
+
+	public int getMinSize() {
+		return properties.getMinSize();
+	}
+
+	public long getCompressedCount() {
+		return compressed.sum();
+	}
+
+	public long getSkippedCount() {
+		return skipped.sum();
+	}
+
+	public long getBytesIn() {
+		return bytesIn.sum();
+	}
+
+	public long getBytesOut() {
+		return bytesOut.sum();
+	}
+
+	public long getCpuNanos() {
+		return cpuNanos.sum();
+	}
+
+	private byte[] encode(GzipEncoder encoder, byte[] input, boolean finish) {
+		long start = System.nanoTime();
+		byte[] output = finish ? encoder.finish() : encoder.write(input);
+		cpuNanos.add(System.nanoTime() - start);
+		if (input != null) {
+			bytesIn.add(input.length);
+		}
+		bytesOut.add(output.length);
+		return output;
+	}
+
+	private static byte[] read(DataBuffer buffer) {
+		try {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			int offset = 0;
+			try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+				while (iterator.hasNext()) {
+					ByteBuffer chunk = iterator.next();
+					int length = chunk.remaining();
+					chunk.get(bytes, offset, length);
+					offset += length;
+				}
+			}
+			return bytes;
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	/**
+	 * The q parameter of one Accept-Encoding entry, 1 when absent; an unparsable value counts as 0
+	 */
+	private static double quality(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String parameter = parts[i].trim();
+			int equals = parameter.indexOf('=');
+			if (equals > 0 && "q".equalsIgnoreCase(parameter.substring(0, equals).trim())) {
+				try {
+					return Double.parseDouble(parameter.substring(equals + 1).trim());
+				} catch (NumberFormatException e) {
+					return 0.0;
+				}
+			}
+		}
+		return 1.0;
+	}
+}
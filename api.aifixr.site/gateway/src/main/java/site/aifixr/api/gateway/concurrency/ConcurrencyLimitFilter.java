@@ -0,0 +1,139 @@
+package site.aifixr.api.gateway.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Caps in-flight backend calls per route with an adaptive {@link GradientLimiter}
+ * - Runs right before the backend call, so cache hits and requests rejected by the rate limiter or
+ *   an open circuit breaker never take a slot
+ * - Requests over the limit get an immediate 503 with Retry-After instead of queueing on a slow backend
+ * - Latency is measured until the backend answered with status and headers
+ * - Meters per route: gateway.concurrency.limit, gateway.concurrency.inflight,
+ *   gateway.concurrency.requests (result = accepted | rejected)
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+	public static final String MAX_LIMIT_METADATA = "concurrency-max-limit";
+
+	private final ConcurrencyLimitProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, GradientLimiter> limiters = new ConcurrentHashMap<>();
+
+	public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public int getOrder() {
+		// Outside UpstreamTimingFilter (NettyRoutingFilter.ORDER - 1)
+		return NettyRoutingFilter.ORDER - 2;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		GradientLimiter limiter = properties.isEnabled() && route != null ? limiter(route) : null;
+		if (limiter == null) {
+			return chain.filter(exchange);
+		}
+		int inFlight = limiter.tryAcquire();
+		if (inFlight < 0) {
+			log.debug("Concurrency limit {} reached for route {}", limiter.getLimit(), route.getId());
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+			response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(properties.getRetryAfter()));
+			return response.setComplete();
+		}
+
+		long start = System.nanoTime();
+		AtomicBoolean released = new AtomicBoolean(false);
+		return chain.filter(exchange)
+				.doOnSuccess(ignored -> complete(limiter, released, start, inFlight,
+						isOverloaded(exchange.getResponse().getStatusCode())))
+				.doOnError(error -> complete(limiter, released, start, inFlight, true))
+				.doOnCancel(() -> {
+					// Client went away: free the slot, the latency says nothing about the backend
+					if (released.compareAndSet(false, true)) {
+						limiter.release();
+					}
+				});
+	}
+
+	private void complete(GradientLimiter limiter, AtomicBoolean released, long start, int inFlight,
+			boolean dropped) {
+		if (released.compareAndSet(false, true)) {
+			limiter.release();
+			limiter.onSample(System.nanoTime() - start, inFlight, dropped);
+		}
+	}
+
+	/**
+	 * Null when the route opted out with concurrency-max-limit: 0
+	 */
+	GradientLimiter limiter(Route route) {
+		GradientLimiter limiter = limiters.get(route.getId());
+		if (limiter != null) {
+			return limiter;
+		}
+		int maxLimit = maxLimit(route);
+		if (maxLimit <= 0) {
+			return null;
+		}
+		return limiters.computeIfAbsent(route.getId(), id -> register(id, new GradientLimiter(properties, maxLimit)));
+	}
+
+	private int maxLimit(Route route) {
+		Object value = route.getMetadata().get(MAX_LIMIT_METADATA);
+		if (value == null) {
+			return properties.getMaxLimit();
+		}
+		return value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString().trim());
+	}
+
+	private GradientLimiter register(String routeId, GradientLimiter limiter) {
+		Gauge.builder("gateway.concurrency.limit", limiter, GradientLimiter::getLimit)
+				.description("Current adaptive in-flight limit")
+				.tag("route", routeId)
+				.register(meterRegistry);
+		Gauge.builder("gateway.concurrency.inflight", limiter, GradientLimiter::getInFlight)
+				.tag("route", routeId)
+				.register(meterRegistry);
+		FunctionCounter.builder("gateway.concurrency.requests", limiter, GradientLimiter::getAcceptedCount)
+				.tag("route", routeId)
+				.tag("result", "accepted")
+				.register(meterRegistry);
+		FunctionCounter.builder("gateway.concurrency.requests", limiter, GradientLimiter::getRejectedCount)
+				.tag("route", routeId)
+				.tag("result", "rejected")
+				.register(meterRegistry);
+		return limiter;
+	}
+
+	private static boolean isOverloaded(HttpStatusCode status) {
+		return status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504);
+	}
+}
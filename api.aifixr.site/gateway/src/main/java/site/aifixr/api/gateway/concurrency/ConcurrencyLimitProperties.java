@@ -0,0 +1,28 @@
+package site.aifixr.api.gateway.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adaptive concurrency limit settings (one limiter per route)
+ * The allowed in-flight count follows the backend latency: it grows while latency stays near the long-term
+ * baseline and shrinks as soon as requests start queueing, before timeouts and breaker trips
+ */
+@Configuration
+@ConfigurationProperties(prefix = "concurrency-limit")
+@Getter
+@Setter
+public class ConcurrencyLimitProperties {
+	private boolean enabled = true;
+	private int initialLimit = 20;
+	private int minLimit = 4;
+	private int maxLimit = 200; // per route, overridable with route metadata concurrency-max-limit (0 disables)
+	private double tolerance = 1.5; // latency may grow to baseline x tolerance before the limit shrinks
+	private double smoothing = 0.2; // weight of each new estimate, 0 .. 1
+	private int longWindow = 600; // samples in the baseline latency average
+	private int shortWindow = 10; // samples in the current latency average
+	private double backoffRatio = 0.9; // limit multiplier on a 502/503/504, error or timeout
+	private long retryAfter = 1L; // seconds, Retry-After of rejected requests
+}
@@ -0,0 +1,116 @@
+package site.aifixr.api.gateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient concurrency limit for one route
+ * - Admission is a CAS on the in-flight counter against the current limit
+ * - Every completed call feeds its latency into a short and a long moving average;
+ *   gradient = tolerance x long / short (clamped to 0.5 .. 1.0) scales the limit down when latency rises,
+ *   and a sqrt(limit) headroom lets it probe upwards while latency stays flat
+ * - Calls made while less than half the limit was in use don't move it (the backend was not the bottleneck)
+ * - Overload answers and errors cut the limit by backoff-ratio right away
+ */
+class GradientLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double tolerance;
+	private final double smoothing;
+	private final double longDecay;
+	private final double shortDecay;
+	private final double backoffRatio;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private volatile int limit;
+
+	// Guarded by this, updated once per completed call
+	private double estimatedLimit;
+	private double longRtt;
+	private double shortRtt;
+
+	GradientLimiter(ConcurrencyLimitProperties properties, int maxLimit) {
+		this.maxLimit = Math.max(1, maxLimit);
+		this.minLimit = Math.min(Math.max(1, properties.getMinLimit()), this.maxLimit);
+		this.tolerance = Math.max(1.0, properties.getTolerance());
+		this.smoothing = Math.min(1.0, Math.max(0.01, properties.getSmoothing()));
+		this.longDecay = 2.0 / (Math.max(1, properties.getLongWindow()) + 1);
+		this.shortDecay = 2.0 / (Math.max(1, properties.getShortWindow()) + 1);
+		this.backoffRatio = Math.min(1.0, Math.max(0.1, properties.getBackoffRatio()));
+		this.estimatedLimit = Math.min(this.maxLimit, Math.max(this.minLimit, properties.getInitialLimit()));
+		this.limit = (int) estimatedLimit;
+	}
+
+	/**
+	 * @return in-flight count including this call, or -1 when the limit is reached
+	 */
+	int tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				rejected.increment();
+				return -1;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				accepted.increment();
+				return current + 1;
+			}
+		}
+	}
+
+	void release() {
+		inFlight.decrementAndGet();
+	}
+
+	/**
+	 * @param inFlightAtStart in-flight count when the call was admitted
+	 * @param dropped         the backend was overloaded or failed
+	 */
+	synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+		if (dropped) {
+			update(estimatedLimit * backoffRatio);
+			return;
+		}
+		if (longRtt == 0) {
+			longRtt = rttNanos;
+			shortRtt = rttNanos;
+		} else {
+			longRtt += (rttNanos - longRtt) * longDecay;
+			shortRtt += (rttNanos - shortRtt) * shortDecay;
+		}
+		// Let the baseline follow a lasting latency drop instead of pinning the limit high
+		if (longRtt / shortRtt > 2) {
+			longRtt *= 0.95;
+		}
+		if (inFlightAtStart < estimatedLimit / 2) {
+			return;
+		}
+		double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+		double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+		update(estimatedLimit * (1 - smoothing) + target * smoothing);
+	}
+
+	private void update(double next) {
+		estimatedLimit = Math.min(maxLimit, Math.max(minLimit, next));
+		limit = (int) estimatedLimit;
+	}
+
+	int getLimit() {
+		return limit;
+	}
+
+	int getInFlight() {
+		return inFlight.get();
+	}
+
+	long getAcceptedCount() {
+		return accepted.sum();
+	}
+
+	long getRejectedCount() {
+		return rejected.sum();
+	}
+}
@@ -0,0 +1,310 @@
+package site.aifixr.api.gateway.docs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the backend OpenAPI documents and their merged form in memory
+ * - Backends are polled in the background every refresh interval, or on demand when one reports a change
+ *   ({@link ApiDocsEndpoint}), so serving a document never waits on a backend
+ * - A backend that fails or times out keeps its last good copy in the merged document
+ * - Merging prefixes paths with the gateway route prefix, namespaces components per service
+ *   ("user.UserDto") and groups operations under per-service tags
+ */
+@Slf4j
+@Component
+public class ApiDocsAggregator {
+
+	private static final Set<String> OPERATIONS = Set.of("get", "put", "post", "delete", "options", "head", "patch",
+			"trace");
+	private static final String COMPONENTS_REF = "#/components/";
+	// Referenced by name from security requirements, not by $ref, so they are shared as-is
+	private static final String SECURITY_SCHEMES = "securitySchemes";
+
+	private final ApiDocsProperties properties;
+	private final ObjectMapper objectMapper;
+	private final WebClient webClient;
+	private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+	private final Map<String, Long> lastFetchAt = new ConcurrentHashMap<>();
+
+	private final LongAdder fetchFailures = new LongAdder();
+	private final LongAdder rebuilds = new LongAdder();
+	private volatile ApiDocument merged;
+	private Disposable refreshLoop;
+
+	public ApiDocsAggregator(ApiDocsProperties properties, ObjectMapper objectMapper,
+			WebClient.Builder webClientBuilder) {
+		this.properties = properties;
+		this.objectMapper = objectMapper;
+		this.webClient = webClientBuilder.build();
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!properties.isEnabled()) {
+			log.info("API docs aggregation disabled (api-docs.enabled=false)");
+			return;
+		}
+		refreshLoop = Flux.interval(Duration.ZERO, Duration.ofMillis(properties.getRefreshInterval()))
+				.onBackpressureDrop()
+				// A failed tick is logged and the loop goes on with the next one
+				.concatMap(tick -> refresh(null).onErrorResume(e -> {
+					log.error("Refreshing API docs failed, serving the previous copies", e);
+					return Mono.empty();
+				}))
+				.subscribe(null, error -> log.error("API docs refresh loop stopped", error));
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (refreshLoop != null) {
+			refreshLoop.dispose();
+		}
+	}
+
+	/**
+	 * Fetches one service (or all when null) and rebuilds the merged document if anything changed.
+	 * Services fetched within min-refresh-interval are skipped so change notifications cannot flood backends.
+	 */
+	public Mono<Boolean> refresh(String serviceName) {
+		long now = System.currentTimeMillis();
+		List<ApiDocsProperties.Service> targets = properties.getServices().stream()
+				.filter(service -> serviceName == null || service.getName().equals(serviceName))
+				.filter(service -> now - lastFetchAt.getOrDefault(service.getName(), 0L)
+						>= properties.getMinRefreshInterval())
+				.toList();
+		targets.forEach(service -> lastFetchAt.put(service.getName(), now));
+
+		return Flux.fromIterable(targets)
+				.flatMap(this::fetch)
+				.reduce(false, Boolean::logicalOr)
+				.publishOn(Schedulers.boundedElastic())
+				.map(changed -> {
+					if (changed || (merged == null && !snapshots.isEmpty())) {
+						rebuild();
+					}
+					return changed;
+				});
+	}
+
+	public ApiDocument getMerged() {
+		return merged;
+	}
+
+	public ApiDocument getDocument(String serviceName) {
+		Snapshot snapshot = snapshots.get(serviceName);
+		return snapshot != null ? snapshot.document() : null;
+	}
+
+	public int getServiceCount() {
+		return snapshots.size();
+	}
+
+	public long getFetchFailureCount() {
+		return fetchFailures.sum();
+	}
+
+	public long getRebuildCount() {
+		return rebuilds.sum();
+	}
+
+	private Mono<Boolean> fetch(ApiDocsProperties.Service service) {
+		return webClient.get()
+				.uri(service.getUrl())
+				.accept(MediaType.APPLICATION_JSON)
+				.retrieve()
+				.bodyToMono(byte[].class)
+				.timeout(Duration.ofMillis(properties.getFetchTimeout()))
+				.map(body -> update(service.getName(), body))
+				.onErrorResume(e -> {
+					fetchFailures.increment();
+					log.warn("Failed to fetch API docs of {} from {}: {}", service.getName(), service.getUrl(),
+							e.toString());
+					return Mono.just(false);
+				});
+	}
+
+	/**
+	 * Stores a fetched document, returns false when it is identical to the current copy
+	 */
+	boolean update(String serviceName, byte[] body) {
+		Snapshot current = snapshots.get(serviceName);
+		if (current != null && current.document().version().equals(ApiDocument.hash(body))) {
+			return false;
+		}
+		try {
+			JsonNode tree = objectMapper.readTree(body);
+			if (!tree.isObject()) {
+				throw new IOException("not a JSON object");
+			}
+			snapshots.put(serviceName, new Snapshot(ApiDocument.of(body), tree));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Invalid OpenAPI document from " + serviceName, e);
+		}
+		log.info("API docs of {} changed", serviceName);
+		return true;
+	}
+
+	synchronized void rebuild() {
+		ObjectNode root = objectMapper.createObjectNode();
+		root.put("openapi", "3.0.1");
+		ObjectNode info = root.putObject("info");
+		root.putArray("servers").addObject().put("url", "/");
+		ArrayNode tags = root.putArray("tags");
+		ObjectNode paths = root.putObject("paths");
+		ObjectNode components = root.putObject("components");
+
+		StringBuilder sourceVersions = new StringBuilder();
+		boolean versionTaken = false;
+		for (ApiDocsProperties.Service service : properties.getServices()) {
+			Snapshot snapshot = snapshots.get(service.getName());
+			if (snapshot == null) {
+				continue;
+			}
+			if (!versionTaken && snapshot.tree().hasNonNull("openapi")) {
+				root.set("openapi", snapshot.tree().get("openapi"));
+				versionTaken = true;
+			}
+			merge(service, snapshot.tree().deepCopy(), tags, paths, components);
+			sourceVersions.append(service.getName()).append(':').append(snapshot.document().version()).append(';');
+		}
+		info.put("title", properties.getTitle());
+		info.put("version", ApiDocument.hash(sourceVersions.toString().getBytes(StandardCharsets.UTF_8)));
+
+		try {
+			merged = ApiDocument.of(objectMapper.writeValueAsBytes(root));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		rebuilds.increment();
+		log.info("Merged API docs of {} services, version {}", snapshots.size(), merged.version());
+	}
+
+	private void merge(ApiDocsProperties.Service service, ObjectNode doc, ArrayNode tags, ObjectNode paths,
+			ObjectNode components) {
+		String name = service.getName();
+		namespaceRefs(doc, name);
+
+		if (doc.get("tags") instanceof ArrayNode docTags) {
+			for (JsonNode tag : docTags) {
+				if (tag instanceof ObjectNode tagNode && tagNode.hasNonNull("name")) {
+					tagNode.put("name", tagName(name, tagNode.get("name").asText()));
+					tags.add(tagNode);
+				}
+			}
+		}
+		tags.addObject().put("name", name);
+
+		JsonNode security = doc.get("security");
+		if (doc.get("paths") instanceof ObjectNode docPaths) {
+			docPaths.fields().forEachRemaining(path -> {
+				if (path.getValue() instanceof ObjectNode pathItem) {
+					pathItem.fields().forEachRemaining(operation -> {
+						if (OPERATIONS.contains(operation.getKey()) && operation.getValue() instanceof ObjectNode op) {
+							rewriteOperation(name, op, security);
+						}
+					});
+					paths.set(service.getPathPrefix() + path.getKey(), pathItem);
+				}
+			});
+		}
+
+		if (doc.get("components") instanceof ObjectNode docComponents) {
+			docComponents.fields().forEachRemaining(section -> {
+				if (!(section.getValue() instanceof ObjectNode entries)) {
+					return;
+				}
+				ObjectNode target = components.has(section.getKey())
+						? (ObjectNode) components.get(section.getKey())
+						: components.putObject(section.getKey());
+				entries.fields().forEachRemaining(entry -> {
+					if (SECURITY_SCHEMES.equals(section.getKey())) {
+						if (!target.has(entry.getKey())) {
+							target.set(entry.getKey(), entry.getValue());
+						}
+					} else {
+						target.set(name + "." + entry.getKey(), entry.getValue());
+					}
+				});
+			});
+		}
+	}
+
+	private void rewriteOperation(String serviceName, ObjectNode operation, JsonNode docSecurity) {
+		ArrayNode tags = objectMapper.createArrayNode();
+		if (operation.get("tags") instanceof ArrayNode opTags && !opTags.isEmpty()) {
+			opTags.forEach(tag -> tags.add(tagName(serviceName, tag.asText())));
+		} else {
+			tags.add(serviceName);
+		}
+		operation.set("tags", tags);
+		if (operation.hasNonNull("operationId")) {
+			operation.put("operationId", serviceName + "_" + operation.get("operationId").asText());
+		}
+		// Document-wide security only applied to this service's operations
+		if (docSecurity != null && !operation.has("security")) {
+			operation.set("security", docSecurity.deepCopy());
+		}
+	}
+
+	/**
+	 * Rewrites local component references to the namespaced names used in the merged document
+	 */
+	private void namespaceRefs(JsonNode node, String serviceName) {
+		if (node instanceof ObjectNode object) {
+			Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				if ("$ref".equals(field.getKey()) && field.getValue().isTextual()) {
+					field.setValue(new TextNode(namespaceRef(field.getValue().asText(), serviceName)));
+				} else {
+					namespaceRefs(field.getValue(), serviceName);
+				}
+			}
+		} else if (node instanceof ArrayNode array) {
+			array.forEach(child -> namespaceRefs(child, serviceName));
+		}
+	}
+
+	private static String namespaceRef(String ref, String serviceName) {
+		if (!ref.startsWith(COMPONENTS_REF)) {
+			return ref;
+		}
+		int slash = ref.indexOf('/', COMPONENTS_REF.length());
+		if (slash < 0 || ref.startsWith(COMPONENTS_REF + SECURITY_SCHEMES + "/")) {
+			return ref;
+		}
+		return ref.substring(0, slash + 1) + serviceName + "." + ref.substring(slash + 1);
+	}
+
+	private static String tagName(String serviceName, String tag) {
+		return serviceName + " - " + tag;
+	}
+
+	private record Snapshot(ApiDocument document, JsonNode tree) {
+	}
+}
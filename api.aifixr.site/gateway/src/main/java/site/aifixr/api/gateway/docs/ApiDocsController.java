@@ -0,0 +1,69 @@
+package site.aifixr.api.gateway.docs;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import site.aifixr.api.gateway.compress.ResponseCompressor;
+
+/**
+ * Serves the OpenAPI documents held by {@link ApiDocsAggregator} from memory
+ * - GET /api-docs/aggregate : merged document of all services
+ * - GET /api-docs/{service} : last fetched document of one service
+ * - Refreshing on demand is an actuator operation on the management port ({@link ApiDocsEndpoint})
+ *
+ * Responses carry the content hash as ETag and are sent gzip-precompressed when the client accepts it;
+ * the gzip form has its own ETag, so a cache never answers an identity request with the gzip bytes
+ */
+@RestController
+@RequestMapping("/api-docs")
+@RequiredArgsConstructor
+public class ApiDocsController {
+
+	private final ApiDocsAggregator aggregator;
+
+	@GetMapping("/aggregate")
+	public ResponseEntity<byte[]> aggregate(ServerWebExchange exchange) {
+		return serve(aggregator.getMerged(), exchange);
+	}
+
+	@GetMapping("/{service}")
+	public ResponseEntity<byte[]> service(@PathVariable String service, ServerWebExchange exchange) {
+		return serve(aggregator.getDocument(service), exchange);
+	}
+
+	static ResponseEntity<byte[]> serve(ApiDocument document, ServerWebExchange exchange) {
+		if (document == null) {
+			// Not fetched yet (startup or backend never reachable)
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, "5")
+					.build();
+		}
+		HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+		boolean gzip = ResponseCompressor.acceptsGzip(requestHeaders);
+		String etag = gzip ? document.gzipEtag() : document.etag();
+		if (requestHeaders.getIfNoneMatch().contains(etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+					.eTag(etag)
+					.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+					.build();
+		}
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP).body(document.gzip());
+		}
+		return response.body(document.json());
+	}
+}
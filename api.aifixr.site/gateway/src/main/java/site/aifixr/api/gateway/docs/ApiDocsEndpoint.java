@@ -0,0 +1,31 @@
+package site.aifixr.api.gateway.docs;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * POST /actuator/apidocs?service= (Content-Type: application/json) : lets a backend report a changed document
+ * - An actuator operation, so it is only reachable on the management port (management.server.port),
+ *   which is not published to clients
+ */
+@Component
+@Endpoint(id = "apidocs")
+@RequiredArgsConstructor
+public class ApiDocsEndpoint {
+
+	private final ApiDocsAggregator aggregator;
+
+	@WriteOperation
+	public Mono<Map<String, Object>> refresh(@Nullable String service) {
+		return aggregator.refresh(service).map(changed -> {
+			ApiDocument merged = aggregator.getMerged();
+			return Map.of("changed", changed, "version", merged != null ? merged.version() : "");
+		});
+	}
+}
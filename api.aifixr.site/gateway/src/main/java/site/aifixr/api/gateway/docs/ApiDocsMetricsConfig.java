@@ -0,0 +1,29 @@
+package site.aifixr.api.gateway.docs;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * API docs aggregation meters (gateway.api.docs.*)
+ */
+@Configuration
+public class ApiDocsMetricsConfig {
+
+	@Bean
+	public MeterBinder apiDocsMetrics(ApiDocsAggregator aggregator) {
+		return registry -> {
+			FunctionCounter.builder("gateway.api.docs.fetch.failures", aggregator,
+					ApiDocsAggregator::getFetchFailureCount)
+					.description("Backend OpenAPI fetches that failed or timed out (last good copy kept)")
+					.register(registry);
+			FunctionCounter.builder("gateway.api.docs.rebuilds", aggregator, ApiDocsAggregator::getRebuildCount)
+					.register(registry);
+			Gauge.builder("gateway.api.docs.services", aggregator, ApiDocsAggregator::getServiceCount)
+					.description("Services with a fetched OpenAPI document")
+					.register(registry);
+		};
+	}
+}
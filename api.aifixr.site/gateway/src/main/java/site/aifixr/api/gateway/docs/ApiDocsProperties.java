@@ -0,0 +1,33 @@
+package site.aifixr.api.gateway.docs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Backend OpenAPI documents collected and merged by the gateway
+ */
+@Configuration
+@ConfigurationProperties(prefix = "api-docs")
+@Getter
+@Setter
+public class ApiDocsProperties {
+	private boolean enabled = true;
+	private long refreshInterval = 300000L; // ms between background refreshes
+	private long fetchTimeout = 5000L; // ms per backend, a slow backend keeps its last good copy
+	private long minRefreshInterval = 5000L; // ms, change notifications within this window are ignored
+	private String title = "AIFIXR API";
+	private List<Service> services = new ArrayList<>();
+
+	@Getter
+	@Setter
+	public static class Service {
+		private String name;
+		private String url; // backend OpenAPI document
+		private String pathPrefix = ""; // prepended to the backend paths so they match the gateway routes
+	}
+}
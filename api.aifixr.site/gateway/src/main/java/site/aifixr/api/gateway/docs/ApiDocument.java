@@ -0,0 +1,48 @@
+package site.aifixr.api.gateway.docs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An OpenAPI document ready to serve: JSON, its gzip form and a content hash used as version/ETag
+ * (suffixed for the gzip form)
+ */
+public record ApiDocument(byte[] json, byte[] gzip, String version, long fetchedAt) {
+
+	public static ApiDocument of(byte[] json) {
+		return new ApiDocument(json, gzip(json), hash(json), System.currentTimeMillis());
+	}
+
+	public String etag() {
+		return "\"" + version + "\"";
+	}
+
+	public String gzipEtag() {
+		return "\"" + version + "-gzip\"";
+	}
+
+	public static String hash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static byte[] gzip(byte[] content) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(content);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+}
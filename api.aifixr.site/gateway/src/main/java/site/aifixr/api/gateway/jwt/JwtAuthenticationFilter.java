@@ -0,0 +1,169 @@
+package site.aifixr.api.gateway.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Verifies oauth-service HS256 access tokens once at the edge
+ * - Only tokens with typ: access are accepted; refresh tokens share the signing key but must never
+ *   authenticate a request, rotated or not
+ * - Runs before the route filters, so rejected requests never reach
+ *   RequestRateLimiter, the circuit breakers or a backend connection
+ * - Trusted sub/email claims are forwarded as internal headers; client supplied
+ *   copies of those headers are always stripped
+ */
+@Component
+@Slf4j
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+	/** Ahead of route filters (ordered 1..n) and NettyWriteResponseFilter (-1) */
+	public static final int ORDER = -100;
+
+	private static final String BEARER_PREFIX = "Bearer ";
+	private static final String TOKEN_TYPE_CLAIM = "typ";
+	private static final String ACCESS_TOKEN = "access";
+
+	private final JwtProperties jwtProperties;
+	private final JwtParser parser;
+	private final VerifiedTokenCache cache;
+	private final List<PathPattern> protectedPaths;
+
+	public JwtAuthenticationFilter(JwtProperties jwtProperties) {
+		this.jwtProperties = jwtProperties;
+		this.parser = Jwts.parser()
+				.verifyWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8)))
+				.build();
+		this.cache = new VerifiedTokenCache(jwtProperties.getVerifiedCacheSize(), jwtProperties.getVerifiedCacheTtl());
+		this.protectedPaths = jwtProperties.getProtectedPaths().stream()
+				.map(PathPatternParser.defaultInstance::parse)
+				.toList();
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+
+		if (!isProtected(request)) {
+			ServerHttpRequest stripped = stripIdentityHeaders(request);
+			return chain.filter(stripped == request ? exchange : exchange.mutate().request(stripped).build());
+		}
+
+		String token = extractToken(request);
+		if (token == null) {
+			return reject(exchange, null);
+		}
+
+		Claims claims = verify(token);
+		if (claims == null) {
+			return reject(exchange, "invalid_token");
+		}
+
+		ServerHttpRequest authenticated = request.mutate()
+				.headers(headers -> {
+					headers.remove(jwtProperties.getUserIdHeader());
+					headers.remove(jwtProperties.getEmailHeader());
+					headers.set(jwtProperties.getUserIdHeader(), claims.getSubject());
+					String email = claims.get("email", String.class);
+					if (email != null) {
+						headers.set(jwtProperties.getEmailHeader(), email);
+					}
+				})
+				.build();
+		return chain.filter(exchange.mutate().request(authenticated).build());
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	public VerifiedTokenCache getCache() {
+		return cache;
+	}
+
+	private boolean isProtected(ServerHttpRequest request) {
+		if (request.getMethod() == HttpMethod.OPTIONS || protectedPaths.isEmpty()) {
+			return false;
+		}
+		PathContainer path = request.getPath().pathWithinApplication();
+		for (PathPattern pattern : protectedPaths) {
+			if (pattern.matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Claims verify(String token) {
+		String digest = VerifiedTokenCache.digest(token);
+		Claims claims = cache.get(digest);
+		if (claims != null) {
+			return claims;
+		}
+		try {
+			claims = parser.parseSignedClaims(token).getPayload();
+		} catch (JwtException | IllegalArgumentException e) {
+			log.debug("Rejected bearer token: {}", e.getMessage());
+			return null;
+		}
+		if (claims.getSubject() == null || !ACCESS_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+			log.debug("Rejected bearer token that is not an access token");
+			return null;
+		}
+		cache.put(digest, claims);
+		return claims;
+	}
+
+	private ServerHttpRequest stripIdentityHeaders(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		if (!headers.containsKey(jwtProperties.getUserIdHeader())
+				&& !headers.containsKey(jwtProperties.getEmailHeader())) {
+			return request;
+		}
+		return request.mutate()
+				.headers(h -> {
+					h.remove(jwtProperties.getUserIdHeader());
+					h.remove(jwtProperties.getEmailHeader());
+				})
+				.build();
+	}
+
+	private static String extractToken(ServerHttpRequest request) {
+		String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+			return null;
+		}
+		String token = authorization.substring(BEARER_PREFIX.length()).trim();
+		return token.isEmpty() ? null : token;
+	}
+
+	private static Mono<Void> reject(ServerWebExchange exchange, String error) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.UNAUTHORIZED);
+		// RFC 6750: no error attribute when the request carried no token at all
+		response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE,
+				error == null ? "Bearer" : "Bearer error=\"" + error + "\"");
+		return response.setComplete();
+	}
+}
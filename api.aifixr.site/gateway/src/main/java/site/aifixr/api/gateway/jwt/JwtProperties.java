@@ -0,0 +1,26 @@
+package site.aifixr.api.gateway.jwt;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Edge JWT verification settings
+ * The secret must match the one oauth-service signs its HS256 tokens with
+ */
+@Configuration
+@ConfigurationProperties(prefix = "jwt")
+@Getter
+@Setter
+public class JwtProperties {
+	private String secret;
+	private List<String> protectedPaths = new ArrayList<>();
+	private String userIdHeader = "X-User-Id";
+	private String emailHeader = "X-User-Email";
+	private int verifiedCacheSize = 10000;
+	private long verifiedCacheTtl = 300000L; // 5 minutes (ms)
+}
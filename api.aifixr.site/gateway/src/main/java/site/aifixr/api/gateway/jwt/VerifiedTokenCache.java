@@ -0,0 +1,130 @@
+package site.aifixr.api.gateway.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of already verified JWT claims for the edge filter
+ * Keyed by the token's SHA-256 digest (the raw token is never stored);
+ * entries expire at the token's exp or the max TTL, whichever comes first
+ */
+public class VerifiedTokenCache {
+
+	private final int maxEntries;
+	private final long maxTtlMillis;
+	private final ConcurrentHashMap<String, Entry> entries;
+	private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public VerifiedTokenCache(int maxEntries, long maxTtlMillis) {
+		this.maxEntries = Math.max(1, maxEntries);
+		this.maxTtlMillis = Math.max(0L, maxTtlMillis);
+		this.entries = new ConcurrentHashMap<>(Math.min(this.maxEntries, 1024));
+	}
+
+	/**
+	 * Returns cached claims, treating expired entries as a miss
+	 */
+	public Claims get(String digest) {
+		Entry entry = entries.get(digest);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		if (entry.expiresAt <= System.currentTimeMillis()) {
+			entries.remove(digest, entry);
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.claims;
+	}
+
+	/**
+	 * Stores claims of a token that passed signature verification
+	 */
+	public void put(String digest, Claims claims) {
+		long now = System.currentTimeMillis();
+		long expiresAt = now + maxTtlMillis;
+		Date expiration = claims.getExpiration();
+		if (expiration != null) {
+			expiresAt = Math.min(expiresAt, expiration.getTime());
+		}
+		if (expiresAt <= now) {
+			return;
+		}
+		if (entries.size() >= maxEntries) {
+			evict(now);
+		}
+		entries.put(digest, new Entry(claims, expiresAt));
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * SHA-256 digest of the token (Base64URL without padding)
+	 */
+	public static String digest(String token) {
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private void evict(long now) {
+		// Only one thread sweeps at a time; others may briefly overshoot the bound
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			int before = entries.size();
+			entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+			int overflow = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+			Iterator<String> it = entries.keySet().iterator();
+			while (overflow-- > 0 && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+			evictions.add(Math.max(0, before - entries.size()));
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	private record Entry(Claims claims, long expiresAt) {
+	}
+}
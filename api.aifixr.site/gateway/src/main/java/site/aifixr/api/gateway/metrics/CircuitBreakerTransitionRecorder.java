@@ -0,0 +1,53 @@
+package site.aifixr.api.gateway.metrics;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts circuit breaker state transitions
+ * - gateway.circuitbreaker.transitions (name, from, to); state/call gauges come from resilience4j-micrometer
+ * - Breakers are created lazily on the first request of a route, so new registry entries are attached as they appear
+ */
+@Slf4j
+@Component
+public class CircuitBreakerTransitionRecorder {
+
+	private final MeterRegistry meterRegistry;
+
+	public CircuitBreakerTransitionRecorder(MeterRegistry meterRegistry,
+			ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry) {
+		this.meterRegistry = meterRegistry;
+		circuitBreakerRegistry.ifAvailable(this::bind);
+	}
+
+	private void bind(CircuitBreakerRegistry registry) {
+		registry.getAllCircuitBreakers().forEach(this::attach);
+		registry.getEventPublisher().onEntryAdded(event -> attach(event.getAddedEntry()));
+	}
+
+	private void attach(CircuitBreaker circuitBreaker) {
+		circuitBreaker.getEventPublisher().onStateTransition(this::record);
+	}
+
+	private void record(CircuitBreakerOnStateTransitionEvent event) {
+		CircuitBreaker.StateTransition transition = event.getStateTransition();
+		Counter.builder("gateway.circuitbreaker.transitions")
+				.description("Circuit breaker state transitions")
+				.tag("name", event.getCircuitBreakerName())
+				.tag("from", transition.getFromState().name())
+				.tag("to", transition.getToState().name())
+				.register(meterRegistry)
+				.increment();
+		if (transition.getToState() == CircuitBreaker.State.OPEN) {
+			log.warn("Circuit breaker {} opened ({})", event.getCircuitBreakerName(), transition);
+		} else {
+			log.info("Circuit breaker {} {}", event.getCircuitBreakerName(), transition);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package site.aifixr.api.gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times the route filters (RequestRateLimiter, CircuitBreaker, StripPrefix ...)
+ * - gateway.filter.duration (route, filter): time a filter spends before handing the exchange on,
+ *   or until it completes when it answers by itself (e.g. a 429 from the rate limiter)
+ * - Routes are wrapped once and reused until the route table changes
+ */
+@Component
+public class RouteFilterTimer {
+
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Instrumented> routes = new ConcurrentHashMap<>();
+
+	public RouteFilterTimer(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Same route with every filter wrapped in a timer (same order, same behaviour)
+	 */
+	public Route instrument(Route route) {
+		Instrumented cached = routes.get(route.getId());
+		if (cached != null && cached.source() == route) {
+			return cached.timed();
+		}
+		List<GatewayFilter> filters = route.getFilters().stream()
+				.map(filter -> (GatewayFilter) new TimedGatewayFilter(filter, timer(route.getId(), filterName(filter))))
+				.toList();
+		Route timed = Route.async()
+				.id(route.getId())
+				.uri(route.getUri())
+				.order(route.getOrder())
+				.asyncPredicate(route.getPredicate())
+				.metadata(route.getMetadata())
+				.filters(filters)
+				.build();
+		routes.put(route.getId(), new Instrumented(route, timed));
+		return timed;
+	}
+
+	/**
+	 * Factory filters print as "[Name args...]"; lambdas and anonymous filters are named after the factory class
+	 */
+	static String filterName(GatewayFilter filter) {
+		GatewayFilter target = filter instanceof OrderedGatewayFilter ordered ? ordered.getDelegate() : filter;
+		String text = target.toString();
+		String name = null;
+		if (text.startsWith("[")) {
+			int end = 1;
+			while (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+				end++;
+			}
+			name = end > 1 ? text.substring(1, end) : null;
+		}
+		if (name == null) {
+			String className = target.getClass().getName();
+			name = className.substring(className.lastIndexOf('.') + 1);
+			int nested = name.indexOf('$');
+			name = nested > 0 ? name.substring(0, nested) : name;
+		}
+		// SpringCloudCircuitBreakerResilience4JFilterFactory -> CircuitBreaker
+		return name.replaceFirst("^SpringCloud", "").replaceFirst("(Resilience4J)?(Gateway)?FilterFactory$", "");
+	}
+
+	private Timer timer(String routeId, String filterName) {
+		return Timer.builder("gateway.filter.duration")
+				.description("Time spent in a route filter before the rest of the chain")
+				.tag("route", routeId)
+				.tag("filter", filterName)
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+	}
+
+	private record Instrumented(Route source, Route timed) {
+	}
+
+	private static final class TimedGatewayFilter implements GatewayFilter, Ordered {
+		private final GatewayFilter delegate;
+		private final Timer timer;
+
+		private TimedGatewayFilter(GatewayFilter delegate, Timer timer) {
+			this.delegate = delegate;
+			this.timer = timer;
+		}
+
+		@Override
+		public int getOrder() {
+			return delegate instanceof Ordered ordered ? ordered.getOrder() : 0;
+		}
+
+		@Override
+		public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+			long start = System.nanoTime();
+			AtomicBoolean recorded = new AtomicBoolean(false);
+			Runnable record = () -> {
+				if (recorded.compareAndSet(false, true)) {
+					timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				}
+			};
+			return delegate.filter(exchange, next -> {
+						record.run();
+						return chain.filter(next);
+					})
+					.doOnTerminate(record)
+					.doOnCancel(record);
+		}
+
+		@Override
+		public String toString() {
+			return delegate.toString();
+		}
+	}
+}
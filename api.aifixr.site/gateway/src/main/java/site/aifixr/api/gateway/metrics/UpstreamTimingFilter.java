@@ -0,0 +1,74 @@
+package site.aifixr.api.gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Measures the backend call: runs right before NettyRoutingFilter, whose Mono completes once the
+ * backend has answered with status and headers (the body is streamed afterwards by NettyWriteResponseFilter)
+ * - gateway.route.upstream : per-route histogram (route, outcome = status series or "error")
+ * - The elapsed nanos are also left in the {@link #UPSTREAM_LATENCY_ATTR} exchange attribute for the access log
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+	public static final String UPSTREAM_LATENCY_ATTR = UpstreamTimingFilter.class.getName() + ".upstreamLatency";
+
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+	public UpstreamTimingFilter(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public int getOrder() {
+		return NettyRoutingFilter.ORDER - 1;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		long start = System.nanoTime();
+		// doOnSuccess/doOnError run before the signal reaches outer filters (doFinally would run after them)
+		return chain.filter(exchange)
+				.doOnSuccess(ignored -> record(exchange, start, outcome(exchange.getResponse().getStatusCode())))
+				.doOnError(error -> record(exchange, start, "error"))
+				.doOnCancel(() -> record(exchange, start, "cancelled"));
+	}
+
+	private void record(ServerWebExchange exchange, long start, String outcome) {
+		long elapsed = System.nanoTime() - start;
+		exchange.getAttributes().put(UPSTREAM_LATENCY_ATTR, elapsed);
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		String routeId = route != null ? route.getId() : "unknown";
+		timers.computeIfAbsent(routeId + "|" + outcome, key -> Timer.builder("gateway.route.upstream")
+						.description("Time until the backend answered with status and headers")
+						.tag("route", routeId)
+						.tag("outcome", outcome)
+						.publishPercentileHistogram()
+						.register(meterRegistry))
+				.record(elapsed, TimeUnit.NANOSECONDS);
+	}
+
+	private static String outcome(HttpStatusCode status) {
+		if (status == null) {
+			return "unknown";
+		}
+		return (status.value() / 100) + "xx";
+	}
+}
@@ -0,0 +1,63 @@
+package site.aifixr.api.gateway.pool;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.AddressUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Gateway HttpClient whose connection provider holds one pool per configured downstream
+ * (Reactor Netty host specific pools); hosts that are not listed share a pool built from the defaults
+ */
+public class DownstreamHttpClientFactory extends HttpClientFactory {
+
+	private final DownstreamPoolProperties pools;
+
+	public DownstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+			HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+			DownstreamPoolProperties pools) {
+		super(properties, serverProperties, sslConfigurer, customizers);
+		this.pools = pools;
+	}
+
+	@Override
+	protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+		ConnectionProvider.Builder builder = apply(ConnectionProvider.builder(pools.getName()), pools.getDefaults(),
+				pools.getDefaults());
+		for (DownstreamPoolProperties.Downstream downstream : pools.getDownstreams()) {
+			// Same address form the client connects with (IP literals come out resolved), so the lookup matches
+			builder.forRemoteHost(AddressUtils.createUnresolved(downstream.getHost(), downstream.getPort()),
+					spec -> apply(spec, downstream, pools.getDefaults()));
+		}
+		return builder.build();
+	}
+
+	private <S extends ConnectionProvider.ConnectionPoolSpec<S>> S apply(S spec, DownstreamPoolProperties.Pool pool,
+			DownstreamPoolProperties.Pool defaults) {
+		spec.maxConnections(or(pool.getMaxConnections(), defaults.getMaxConnections()))
+				.pendingAcquireMaxCount(or(pool.getPendingAcquireMaxCount(), defaults.getPendingAcquireMaxCount()))
+				.pendingAcquireTimeout(millis(or(pool.getPendingAcquireTimeout(), defaults.getPendingAcquireTimeout())))
+				.maxIdleTime(millis(or(pool.getMaxIdleTime(), defaults.getMaxIdleTime())))
+				.maxLifeTime(millis(or(pool.getMaxLifeTime(), defaults.getMaxLifeTime())))
+				.metrics(pools.isMetrics());
+		long evictionInterval = or(pool.getEvictionInterval(), defaults.getEvictionInterval());
+		if (evictionInterval > 0) {
+			spec.evictInBackground(millis(evictionInterval));
+		}
+		return spec;
+	}
+
+	private static <T> T or(T value, T fallback) {
+		return value != null ? value : fallback;
+	}
+
+	private static Duration millis(long millis) {
+		return Duration.ofMillis(millis);
+	}
+}
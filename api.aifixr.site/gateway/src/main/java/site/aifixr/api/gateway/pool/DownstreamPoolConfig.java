@@ -0,0 +1,50 @@
+package site.aifixr.api.gateway.pool;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * Per-downstream pools and h2c routing
+ * - gatewayHttpClientFactory: GatewayAutoConfiguration backs off (@ConditionalOnMissingBean)
+ * - The stock routingFilter cannot be replaced by type, so it is switched off with
+ *   spring.cloud.gateway.global-filter.netty-routing.enabled=false and this one takes its place;
+ *   the stock nettyWriteResponseFilter is tied to the same switch and is registered here as well
+ */
+@Configuration
+public class DownstreamPoolConfig {
+
+	@Bean
+	public HttpClientFactory gatewayHttpClientFactory(HttpClientProperties properties,
+			ServerProperties serverProperties, List<HttpClientCustomizer> customizers,
+			HttpClientSslConfigurer sslConfigurer, DownstreamPoolProperties pools) {
+		return new DownstreamHttpClientFactory(properties, serverProperties, sslConfigurer, customizers, pools);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "spring.cloud.gateway.global-filter.netty-routing.enabled", havingValue = "false")
+	public NettyRoutingFilter downstreamRoutingFilter(HttpClient httpClient,
+			ObjectProvider<List<HttpHeadersFilter>> headersFilters, HttpClientProperties properties,
+			DownstreamPoolProperties pools) {
+		return new DownstreamRoutingFilter(httpClient, headersFilters, properties, pools);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "spring.cloud.gateway.global-filter.netty-routing.enabled", havingValue = "false")
+	public NettyWriteResponseFilter downstreamWriteResponseFilter(GatewayProperties properties) {
+		return new NettyWriteResponseFilter(properties.getStreamingMediaTypes());
+	}
+}
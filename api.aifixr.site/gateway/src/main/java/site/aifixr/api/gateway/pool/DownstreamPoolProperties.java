@@ -0,0 +1,55 @@
+package site.aifixr.api.gateway.pool;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection pools toward the backends
+ * Every downstream (host:port) gets its own pool, so a slow backend holding all its connections
+ * cannot starve the others; unset downstream values fall back to the defaults
+ */
+@Configuration
+@ConfigurationProperties(prefix = "downstream-pools")
+@Getter
+@Setter
+public class DownstreamPoolProperties {
+	private String name = "gateway-downstream";
+	private boolean metrics = true; // reactor.netty.connection.provider.* gauges per remote address
+	private Pool defaults = Pool.defaults();
+	private List<Downstream> downstreams = new ArrayList<>();
+
+	@Getter
+	@Setter
+	public static class Pool {
+		private Integer maxConnections;
+		private Integer pendingAcquireMaxCount; // waiters beyond this fail at once instead of queueing
+		private Long pendingAcquireTimeout; // ms a request may wait for a connection
+		private Long maxIdleTime; // ms, idle connections are closed after this
+		private Long maxLifeTime; // ms, connections are recycled after this even when busy
+		private Long evictionInterval; // ms between background eviction passes, 0 disables
+
+		static Pool defaults() {
+			Pool pool = new Pool();
+			pool.setMaxConnections(200);
+			pool.setPendingAcquireMaxCount(400);
+			pool.setPendingAcquireTimeout(5000L);
+			pool.setMaxIdleTime(30000L);
+			pool.setMaxLifeTime(300000L);
+			pool.setEvictionInterval(10000L);
+			return pool;
+		}
+	}
+
+	@Getter
+	@Setter
+	public static class Downstream extends Pool {
+		private String host;
+		private int port = 80;
+		private boolean h2c = false; // HTTP/2 cleartext (upgrade from HTTP/1.1) toward this backend
+	}
+}
@@ -0,0 +1,49 @@
+package site.aifixr.api.gateway.pool;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * NettyRoutingFilter that talks HTTP/2 cleartext to the downstreams marked h2c
+ * The h2c client is derived from the gateway client, so it uses the same per-downstream pools;
+ * HTTP/1.1 is kept as fallback, a backend without h2c support simply declines the upgrade
+ */
+public class DownstreamRoutingFilter extends NettyRoutingFilter {
+
+	private final HttpClient h2cClient;
+	private final Set<String> h2cDownstreams;
+
+	public DownstreamRoutingFilter(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+			HttpClientProperties properties, DownstreamPoolProperties pools) {
+		super(httpClient, headersFilters, properties);
+		this.h2cClient = httpClient.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C);
+		this.h2cDownstreams = pools.getDownstreams().stream()
+				.filter(DownstreamPoolProperties.Downstream::isH2c)
+				.map(downstream -> downstream.getHost() + ":" + downstream.getPort())
+				.collect(Collectors.toUnmodifiableSet());
+	}
+
+	@Override
+	protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+		if (!h2cDownstreams.isEmpty() && h2cDownstreams.contains(hostAndPort(route.getUri()))) {
+			return h2cClient;
+		}
+		return super.getHttpClient(route, exchange);
+	}
+
+	private static String hostAndPort(URI uri) {
+		int port = uri.getPort() >= 0 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+		return uri.getHost() + ":" + port;
+	}
+}
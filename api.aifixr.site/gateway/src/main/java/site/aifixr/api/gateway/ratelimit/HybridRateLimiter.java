@@ -0,0 +1,288 @@
+package site.aifixr.api.gateway.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier rate limiter for RequestRateLimiter routes
+ * - Admission is decided by an in-process token bucket, so no Redis call sits on the request path
+ * - Tokens admitted locally are pushed to Redis in batches every sync interval; the shared per-window
+ *   totals tell each instance how much quota the other instances used, which is charged to the local bucket
+ * - When Redis is slow or unreachable the limiter keeps running local-only (fail open) and retries later
+ *
+ * Route args use the "hybrid-rate-limiter" prefix with the same names as redis-rate-limiter
+ */
+@Slf4j
+@Primary
+@Component
+public class HybridRateLimiter extends AbstractRateLimiter<HybridRateLimiter.Config> {
+
+	public static final String CONFIGURATION_PROPERTY_NAME = "hybrid-rate-limiter";
+
+	public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+	public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+	public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+	public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+	// INCRBY every key of the batch by its delta and return the window totals in order
+	private static final RedisScript<List<Long>> SYNC_SCRIPT = listScript("""
+			local ttl = ARGV[#ARGV]
+			local totals = {}
+			for i, key in ipairs(KEYS) do
+			  totals[i] = redis.call('INCRBY', key, ARGV[i])
+			  redis.call('PEXPIRE', key, ttl)
+			end
+			return totals
+			""");
+
+	private final RateLimitProperties properties;
+	private final ReactiveStringRedisTemplate redisTemplate;
+	private final Config defaultConfig;
+	private final Map<String, LocalTokenBucket> buckets = new ConcurrentHashMap<>();
+
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder syncFailures = new LongAdder();
+	private final LongAdder syncCalls = new LongAdder();
+	private final LongAdder syncNanos = new LongAdder();
+	private volatile boolean degraded = false;
+	private volatile long retryAt = 0L;
+	private Disposable syncLoop;
+
+	public HybridRateLimiter(RateLimitProperties properties, ReactiveStringRedisTemplate redisTemplate,
+			ConfigurationService configurationService) {
+		super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+		this.properties = properties;
+		this.redisTemplate = redisTemplate;
+		this.defaultConfig = new Config();
+		this.defaultConfig.setReplenishRate(properties.getReplenishRate());
+		this.defaultConfig.setBurstCapacity(properties.getBurstCapacity());
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!properties.isSyncEnabled()) {
+			log.info("Rate limiter running local-only (rate-limit.sync-enabled=false)");
+			return;
+		}
+		syncLoop = Flux.interval(Duration.ofMillis(properties.getSyncInterval()))
+				.onBackpressureDrop()
+				// A round that throws while being assembled counts as a failed sync instead of ending the loop
+				.concatMap(tick -> Mono.defer(this::sync).onErrorResume(error -> {
+					failed(error);
+					return Mono.empty();
+				}))
+				.subscribe(null, error -> log.error("Rate limiter Redis sync loop stopped, running local-only", error));
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (syncLoop != null) {
+			syncLoop.dispose();
+		}
+	}
+
+	@Override
+	public Mono<Response> isAllowed(String routeId, String id) {
+		Config config = getConfig().getOrDefault(routeId, defaultConfig);
+		long now = System.nanoTime();
+		LocalTokenBucket bucket = bucket(routeId, id, config, now);
+		long remaining = bucket.tryAcquire(config.getRequestedTokens(), now);
+
+		if (remaining < 0) {
+			rejected.increment();
+			return Mono.just(new Response(false, headers(config, 0L)));
+		}
+		allowed.increment();
+		return Mono.just(new Response(true, headers(config, remaining)));
+	}
+
+	public boolean isDegraded() {
+		return degraded;
+	}
+
+	public int getBucketCount() {
+		return buckets.size();
+	}
+
+	public long getAllowedCount() {
+		return allowed.sum();
+	}
+
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	public long getSyncCallCount() {
+		return syncCalls.sum();
+	}
+
+	public double getSyncTimeNanos() {
+		return syncNanos.sum();
+	}
+
+	public long getSyncFailureCount() {
+		return syncFailures.sum();
+	}
+
+	/**
+	 * One sync round: evict idle buckets, then push pending usage of active buckets in batches
+	 */
+	Mono<Void> sync() {
+		long nowMillis = System.currentTimeMillis();
+		if (degraded && nowMillis < retryAt) {
+			// Local-only until the retry interval passes; usage admitted meanwhile is not replayed
+			buckets.values().forEach(LocalTokenBucket::drainPending);
+			return Mono.empty();
+		}
+
+		long nowNanos = System.nanoTime();
+		long window = nowMillis / properties.getSyncWindow();
+		long activeSince = nowNanos - TimeUnit.MILLISECONDS.toNanos(properties.getSyncWindow());
+		long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleTimeout());
+
+		List<String> keys = new ArrayList<>();
+		List<LocalTokenBucket> batch = new ArrayList<>();
+		List<Long> deltas = new ArrayList<>();
+		buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(nowNanos, idleNanos));
+		buckets.forEach((key, bucket) -> {
+			long delta = bucket.drainPending();
+			if (delta == 0 && !bucket.isActiveSince(activeSince)) {
+				return;
+			}
+			if (bucket.syncWindow != window) {
+				bucket.syncWindow = window;
+				bucket.contributed = 0L;
+				bucket.remoteApplied = 0L;
+			}
+			bucket.contributed += delta;
+			keys.add(properties.getKeyPrefix() + key + ":" + window);
+			batch.add(bucket);
+			deltas.add(delta);
+		});
+		if (keys.isEmpty()) {
+			return Mono.empty();
+		}
+
+		int batchSize = Math.max(1, properties.getSyncBatchSize());
+		List<Mono<Void>> calls = new ArrayList<>();
+		for (int from = 0; from < keys.size(); from += batchSize) {
+			int to = Math.min(keys.size(), from + batchSize);
+			calls.add(syncBatch(keys.subList(from, to), batch.subList(from, to), deltas.subList(from, to)));
+		}
+		return Flux.concat(calls)
+				.then()
+				.doOnSuccess(ignored -> recovered())
+				.onErrorResume(error -> {
+					failed(error);
+					return Mono.empty();
+				});
+	}
+
+	private Mono<Void> syncBatch(List<String> keys, List<LocalTokenBucket> batch, List<Long> deltas) {
+		List<String> args = new ArrayList<>(deltas.size() + 1);
+		deltas.forEach(delta -> args.add(Long.toString(delta)));
+		args.add(Long.toString(properties.getSyncWindow() * 2));
+
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return redisTemplate.execute(SYNC_SCRIPT, keys, args)
+					.next()
+					.timeout(Duration.ofMillis(properties.getRedisTimeout()))
+					.doFinally(signal -> {
+						syncCalls.increment();
+						syncNanos.add(System.nanoTime() - start);
+					});
+		})
+				.doOnNext(totals -> {
+					long now = System.nanoTime();
+					for (int i = 0; i < batch.size() && i < totals.size(); i++) {
+						LocalTokenBucket bucket = batch.get(i);
+						long remote = totals.get(i) - bucket.contributed;
+						if (remote > bucket.remoteApplied) {
+							bucket.charge(remote - bucket.remoteApplied, now);
+							bucket.remoteApplied = remote;
+						}
+					}
+				})
+				.then();
+	}
+
+	private void recovered() {
+		if (degraded) {
+			degraded = false;
+			log.info("Rate limiter Redis sync recovered");
+		}
+	}
+
+	private void failed(Throwable error) {
+		syncFailures.increment();
+		retryAt = System.currentTimeMillis() + properties.getRetryInterval();
+		if (!degraded) {
+			degraded = true;
+			log.warn("Rate limiter Redis sync failed, running local-only for {} ms: {}",
+					properties.getRetryInterval(), error.toString());
+		}
+	}
+
+	private LocalTokenBucket bucket(String routeId, String id, Config config, long now) {
+		String key = routeId + ":" + id;
+		LocalTokenBucket bucket = buckets.get(key);
+		if (bucket != null && bucket.matches(config.getReplenishRate(), config.getBurstCapacity())) {
+			return bucket;
+		}
+		// New client, or the route limits changed on refresh: start a bucket with the current shape
+		return buckets.compute(key, (k, existing) ->
+				existing != null && existing.matches(config.getReplenishRate(), config.getBurstCapacity())
+						? existing
+						: new LocalTokenBucket(config.getReplenishRate(), config.getBurstCapacity(), now));
+	}
+
+	private Map<String, String> headers(Config config, long remaining) {
+		if (!properties.isIncludeHeaders()) {
+			return Map.of();
+		}
+		return Map.of(
+				REMAINING_HEADER, Long.toString(remaining),
+				REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()),
+				BURST_CAPACITY_HEADER, Integer.toString(config.getBurstCapacity()),
+				REQUESTED_TOKENS_HEADER, Integer.toString(config.getRequestedTokens()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static RedisScript<List<Long>> listScript(String script) {
+		// Lua integer arrays come back as a List of Long
+		return (RedisScript<List<Long>>) (RedisScript<?>) RedisScript.of(script, List.class);
+	}
+
+	/**
+	 * Per-route limits (hybrid-rate-limiter.replenishRate / burstCapacity / requestedTokens)
+	 */
+	@Getter
+	@Setter
+	public static class Config {
+		private int replenishRate = 10;
+		private int burstCapacity = 20;
+		private int requestedTokens = 1;
+	}
+}
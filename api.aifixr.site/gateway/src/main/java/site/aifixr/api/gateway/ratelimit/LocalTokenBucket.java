@@ -0,0 +1,94 @@
+package site.aifixr.api.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket for one (route, client) pair
+ * Implemented as GCRA: the whole bucket state is a single "theoretical arrival time",
+ * so admission is one CAS on an AtomicLong with no allocation
+ */
+class LocalTokenBucket {
+
+	private final int replenishRate;
+	private final int burstCapacity;
+	private final long intervalNanos;
+	private final long capacityNanos;
+	private final AtomicLong theoreticalArrival;
+	private final LongAdder pending = new LongAdder();
+	private volatile long lastAccess;
+
+	// Sync bookkeeping, only touched by the (serialised) sync loop
+	long syncWindow = -1L;
+	long contributed;
+	long remoteApplied;
+
+	LocalTokenBucket(int replenishRate, int burstCapacity, long nowNanos) {
+		this.replenishRate = Math.max(1, replenishRate);
+		this.burstCapacity = Math.max(1, burstCapacity);
+		this.intervalNanos = Math.max(1L, 1_000_000_000L / this.replenishRate);
+		this.capacityNanos = intervalNanos * this.burstCapacity;
+		this.theoreticalArrival = new AtomicLong(nowNanos);
+		this.lastAccess = nowNanos;
+	}
+
+	/**
+	 * Takes tokens if available
+	 *
+	 * @return tokens left after the call, or -1 when the request is rejected
+	 */
+	long tryAcquire(int tokens, long nowNanos) {
+		lastAccess = nowNanos;
+		long cost = tokens * intervalNanos;
+		while (true) {
+			long tat = theoreticalArrival.get();
+			long next = Math.max(tat, nowNanos) + cost;
+			if (next - nowNanos > capacityNanos) {
+				return -1L;
+			}
+			if (theoreticalArrival.compareAndSet(tat, next)) {
+				pending.add(tokens);
+				return (capacityNanos - (next - nowNanos)) / intervalNanos;
+			}
+		}
+	}
+
+	/**
+	 * Charges tokens consumed on other gateway instances (never below an empty bucket)
+	 */
+	void charge(long tokens, long nowNanos) {
+		if (tokens <= 0) {
+			return;
+		}
+		long cost = tokens * intervalNanos;
+		while (true) {
+			long tat = theoreticalArrival.get();
+			long next = Math.min(Math.max(tat, nowNanos) + cost, nowNanos + capacityNanos);
+			if (next <= tat || theoreticalArrival.compareAndSet(tat, next)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Tokens admitted locally since the last sync
+	 */
+	long drainPending() {
+		return pending.sumThenReset();
+	}
+
+	boolean matches(int replenishRate, int burstCapacity) {
+		return this.replenishRate == Math.max(1, replenishRate) && this.burstCapacity == Math.max(1, burstCapacity);
+	}
+
+	/**
+	 * Idle and refilled, so dropping it loses no state
+	 */
+	boolean isIdle(long nowNanos, long idleNanos) {
+		return nowNanos - lastAccess > idleNanos && theoreticalArrival.get() <= nowNanos;
+	}
+
+	boolean isActiveSince(long sinceNanos) {
+		return lastAccess >= sinceNanos;
+	}
+}
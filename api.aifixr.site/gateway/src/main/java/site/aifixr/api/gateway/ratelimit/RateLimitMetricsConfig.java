@@ -0,0 +1,41 @@
+package site.aifixr.api.gateway.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiter meters (gateway.ratelimit.*)
+ */
+@Configuration
+public class RateLimitMetricsConfig {
+
+	@Bean
+	public MeterBinder hybridRateLimiterMetrics(HybridRateLimiter rateLimiter) {
+		return registry -> {
+			FunctionCounter.builder("gateway.ratelimit.requests", rateLimiter, HybridRateLimiter::getAllowedCount)
+					.tag("result", "allowed")
+					.register(registry);
+			FunctionCounter.builder("gateway.ratelimit.requests", rateLimiter, HybridRateLimiter::getRejectedCount)
+					.tag("result", "rejected")
+					.register(registry);
+			FunctionCounter.builder("gateway.ratelimit.sync.failures", rateLimiter,
+					HybridRateLimiter::getSyncFailureCount)
+					.register(registry);
+			FunctionTimer.builder("gateway.ratelimit.sync.latency", rateLimiter, HybridRateLimiter::getSyncCallCount,
+					HybridRateLimiter::getSyncTimeNanos, TimeUnit.NANOSECONDS)
+					.description("Redis round-trips of the batched bucket sync")
+					.register(registry);
+			Gauge.builder("gateway.ratelimit.local.only", rateLimiter, limiter -> limiter.isDegraded() ? 1 : 0)
+					.description("1 while Redis sync is failing and limits are enforced per instance only")
+					.register(registry);
+			Gauge.builder("gateway.ratelimit.buckets", rateLimiter, HybridRateLimiter::getBucketCount)
+					.register(registry);
+		};
+	}
+}
@@ -0,0 +1,38 @@
+package site.aifixr.api.gateway.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hybrid (local + Redis) rate limiter settings
+ * Per-route limits stay on the RequestRateLimiter filter args (hybrid-rate-limiter.*);
+ * these values are the instance-wide knobs and the fallback limits
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+	// Number of trusted proxies in front of the gateway (X-Forwarded-For hops to skip from the right);
+	// 0 keys clients by socket address and ignores X-Forwarded-For, set it only when a proxy sits in front
+	private int trustedProxies = 0;
+
+	// Defaults for routes that do not configure their own limits
+	private int replenishRate = 10;
+	private int burstCapacity = 20;
+
+	// Redis quota sync (never on the request path)
+	private boolean syncEnabled = true;
+	private long syncInterval = 200L; // ms between batches
+	private long syncWindow = 1000L; // ms, one shared counter per key and window
+	private int syncBatchSize = 500; // keys per Redis round trip
+	private long redisTimeout = 100L; // ms, slower syncs count as failures
+	private long retryInterval = 5000L; // ms to stay local-only after a failed sync
+	private String keyPrefix = "gateway:rate-limit:";
+
+	// Buckets untouched for this long are dropped (ms)
+	private long idleTimeout = 60000L;
+	private boolean includeHeaders = true;
+}
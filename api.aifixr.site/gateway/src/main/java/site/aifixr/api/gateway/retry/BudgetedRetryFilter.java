@@ -0,0 +1,197 @@
+package site.aifixr.api.gateway.retry;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Retries transient backend failures, paid from a per-route {@link RetryBudget}
+ * - Only idempotent methods are retried, POST and PATCH only when they carry an Idempotency-Key header
+ * - Retried: I/O errors before a response (connection refused or reset, premature close) and the configured
+ *   statuses without Retry-After; response timeouts are not, waiting twice would only double the latency
+ * - Runs inside the circuit breaker and outside the concurrency limiter, so a retry that succeeds does not
+ *   count against the breaker while every attempt still takes a limiter slot
+ * - Full jitter backoff: random 0 .. min(max-backoff, first-backoff x 2^retry)
+ * - Meters per route: gateway.retry.budget.tokens, gateway.retry.attempts (result = retried | exhausted)
+ */
+@Slf4j
+@Component
+public class BudgetedRetryFilter implements GlobalFilter, Ordered {
+
+	public static final String MAX_RETRIES_METADATA = "retry-max-retries";
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD,
+			HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+	private final RetryBudgetProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+	public BudgetedRetryFilter(RetryBudgetProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public int getOrder() {
+		// Outside ConcurrencyLimitFilter (NettyRoutingFilter.ORDER - 2)
+		return NettyRoutingFilter.ORDER - 3;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		if (!properties.isEnabled() || route == null) {
+			return chain.filter(exchange);
+		}
+		RetryBudget budget = budget(route.getId());
+		int maxRetries = isIdempotent(exchange.getRequest()) ? maxRetries(route) : 0;
+		if (maxRetries > 0 && hasBody(exchange.getRequest())) {
+			long length = exchange.getRequest().getHeaders().getContentLength();
+			if (length < 0 || length > properties.getMaxBodyBytes()) {
+				maxRetries = 0;
+			} else {
+				// Buffered once so every attempt can replay it, released by RemoveCachedBodyFilter
+				int retries = maxRetries;
+				return ServerWebExchangeUtils.cacheRequestBody(exchange,
+						request -> attempt(exchange.mutate().request(request).build(), chain, budget, retries, 0));
+			}
+		}
+		return attempt(exchange, chain, budget, maxRetries, 0);
+	}
+
+	private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, RetryBudget budget,
+			int maxRetries, int retry) {
+		return chain.filter(exchange)
+				.materialize()
+				.flatMap(signal -> {
+					Throwable error = signal.getThrowable();
+					ServerHttpResponse response = exchange.getResponse();
+					boolean retryable = error != null ? isRetryable(error) : isRetryable(response);
+					if (!retryable) {
+						if (error == null && !isServerError(response.getStatusCode())) {
+							budget.deposit();
+						}
+						return error != null ? Mono.error(error) : Mono.empty();
+					}
+					if (retry >= maxRetries || response.isCommitted() || !budget.tryWithdraw()) {
+						return error != null ? Mono.error(error) : Mono.empty();
+					}
+					Duration backoff = backoff(retry);
+					log.debug("Retrying {} {} ({}/{}) in {}ms after {}", exchange.getRequest().getMethod(),
+							exchange.getRequest().getPath(), retry + 1, maxRetries, backoff.toMillis(),
+							error != null ? error.toString() : response.getStatusCode());
+					reset(exchange);
+					return Mono.delay(backoff).then(attempt(exchange, chain, budget, maxRetries, retry + 1));
+				});
+	}
+
+	/**
+	 * Drops the failed attempt's backend connection (its body was never read) and the response headers copied
+	 * from it, so the routing filter can run again
+	 */
+	private static void reset(ServerWebExchange exchange) {
+		Connection connection = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+		if (connection != null) {
+			connection.dispose();
+			exchange.getAttributes().remove(CLIENT_RESPONSE_CONN_ATTR);
+		}
+		ServerWebExchangeUtils.reset(exchange);
+	}
+
+	Duration backoff(int retry) {
+		long ceiling = Math.min(properties.getMaxBackoff(), properties.getFirstBackoff() << Math.min(retry, 20));
+		return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+	}
+
+	RetryBudget budget(String routeId) {
+		RetryBudget budget = budgets.get(routeId);
+		return budget != null ? budget : budgets.computeIfAbsent(routeId, id -> register(id, new RetryBudget(properties)));
+	}
+
+	private int maxRetries(Route route) {
+		Object value = route.getMetadata().get(MAX_RETRIES_METADATA);
+		if (value == null) {
+			return properties.getMaxRetries();
+		}
+		return value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString().trim());
+	}
+
+	private RetryBudget register(String routeId, RetryBudget budget) {
+		Gauge.builder("gateway.retry.budget.tokens", budget, RetryBudget::getTokens)
+				.description("Retries the route can currently afford")
+				.tag("route", routeId)
+				.register(meterRegistry);
+		FunctionCounter.builder("gateway.retry.attempts", budget, RetryBudget::getRetryCount)
+				.tag("route", routeId)
+				.tag("result", "retried")
+				.register(meterRegistry);
+		FunctionCounter.builder("gateway.retry.attempts", budget, RetryBudget::getExhaustedCount)
+				.description("Retryable failures returned as-is because the budget was empty")
+				.tag("route", routeId)
+				.tag("result", "exhausted")
+				.register(meterRegistry);
+		return budget;
+	}
+
+	static boolean isIdempotent(ServerHttpRequest request) {
+		HttpMethod method = request.getMethod();
+		if (IDEMPOTENT_METHODS.contains(method)) {
+			return true;
+		}
+		return (HttpMethod.POST.equals(method) || HttpMethod.PATCH.equals(method))
+				&& request.getHeaders().containsKey(IDEMPOTENCY_KEY_HEADER);
+	}
+
+	private static boolean hasBody(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+	}
+
+	private boolean isRetryable(ServerHttpResponse response) {
+		HttpStatusCode status = response.getStatusCode();
+		// Retry-After means the backend (or ConcurrencyLimitFilter) asked callers to back off
+		return status != null && properties.getStatuses().contains(status.value())
+				&& !response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER);
+	}
+
+	private static boolean isRetryable(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof IOException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isServerError(HttpStatusCode status) {
+		return status != null && status.is5xxServerError();
+	}
+}
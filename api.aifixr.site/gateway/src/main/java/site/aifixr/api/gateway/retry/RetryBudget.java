@@ -0,0 +1,58 @@
+package site.aifixr.api.gateway.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket paying for retries of one route
+ * - Every successful request deposits ratio tokens, every retry withdraws one
+ * - Tokens are kept in thousandths so fractional deposits are a single CAS, no lock
+ */
+class RetryBudget {
+
+	private static final long SCALE = 1000;
+
+	private final long deposit;
+	private final long capacity;
+	private final AtomicLong balance;
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder exhausted = new LongAdder();
+
+	RetryBudget(RetryBudgetProperties properties) {
+		this.deposit = Math.round(properties.getRatio() * SCALE);
+		this.capacity = Math.round(properties.getMaxTokens() * SCALE);
+		this.balance = new AtomicLong(Math.min(capacity, Math.round(properties.getInitialTokens() * SCALE)));
+	}
+
+	void deposit() {
+		balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+	}
+
+	/**
+	 * False (and counted as exhausted) when less than one token is left
+	 */
+	boolean tryWithdraw() {
+		long current;
+		do {
+			current = balance.get();
+			if (current < SCALE) {
+				exhausted.increment();
+				return false;
+			}
+		} while (!balance.compareAndSet(current, current - SCALE));
+		retries.increment();
+		return true;
+	}
+
+	public double getTokens() {
+		return balance.get() / (double) SCALE;
+	}
+
+	public long getRetryCount() {
+		return retries.sum();
+	}
+
+	public long getExhaustedCount() {
+		return exhausted.sum();
+	}
+}
@@ -0,0 +1,29 @@
+package site.aifixr.api.gateway.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Budgeted retry settings (one budget per route)
+ * Retries are paid from a token bucket that only successful requests refill, so during an outage
+ * the extra load stays below ratio x successful traffic instead of multiplying every failure
+ */
+@Configuration
+@ConfigurationProperties(prefix = "retry-budget")
+@Getter
+@Setter
+public class RetryBudgetProperties {
+	private boolean enabled = true;
+	private int maxRetries = 2; // per request, overridable with route metadata retry-max-retries (0 disables)
+	private double ratio = 0.1; // tokens earned per successful request, one token per retry
+	private double initialTokens = 10; // lets a quiet route retry before it has earned tokens
+	private double maxTokens = 100; // caps the retry burst once an outage starts
+	private long firstBackoff = 50; // ms
+	private long maxBackoff = 1000; // ms, the backoff doubles per retry up to this and is fully jittered
+	private List<Integer> statuses = List.of(502, 503, 504); // retried unless the response carries Retry-After
+	private long maxBodyBytes = 1024 * 1024; // larger (or unsized) request bodies are not buffered for replay
+}
@@ -0,0 +1,138 @@
+package site.aifixr.api.gateway.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import site.aifixr.api.gateway.metrics.RouteFilterTimer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * Route lookup backed by a RoutePathIndex
+ * - The default mapping evaluates every route predicate in order until one matches;
+ *   here only the routes whose Path patterns can match the request are evaluated (same order, same predicates)
+ * - The index is rebuilt whenever the route cache is refreshed; until then the default scan is used
+ * - The matched route is handed on with its filters timed by RouteFilterTimer
+ */
+@Slf4j
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+		implements ApplicationListener<RefreshRoutesResultEvent> {
+
+	private static final String PATH_PREDICATE = "Path";
+
+	private final RouteLocator routeLocator;
+	private final RouteDefinitionLocator routeDefinitionLocator;
+	private final RouteFilterTimer routeFilterTimer;
+	private volatile RoutePathIndex index;
+
+	public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+			RouteDefinitionLocator routeDefinitionLocator, GlobalCorsProperties globalCorsProperties,
+			Environment environment, RouteFilterTimer routeFilterTimer) {
+		super(webHandler, routeLocator, globalCorsProperties, environment);
+		this.routeLocator = routeLocator;
+		this.routeDefinitionLocator = routeDefinitionLocator;
+		this.routeFilterTimer = routeFilterTimer;
+	}
+
+	@Override
+	public void onApplicationEvent(RefreshRoutesResultEvent event) {
+		if (!event.isSuccess()) {
+			return;
+		}
+		Mono.zip(routeLocator.getRoutes().collectList(), routeDefinitionLocator.getRouteDefinitions().collectList())
+				.subscribe(tuple -> {
+					RoutePathIndex rebuilt = new RoutePathIndex(tuple.getT1(), pathPatterns(tuple.getT2()));
+					index = rebuilt;
+					log.debug("Indexed {} routes ({} without an indexable Path predicate)",
+							rebuilt.size(), rebuilt.unindexedCount());
+				}, error -> {
+					// Keep serving with the default scan rather than a stale index
+					index = null;
+					log.warn("Failed to rebuild route index: {}", error.getMessage());
+				});
+	}
+
+	@Override
+	protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+		return findRoute(exchange).map(routeFilterTimer::instrument);
+	}
+
+	private Mono<Route> findRoute(ServerWebExchange exchange) {
+		RoutePathIndex current = index;
+		List<Route> candidates = current != null
+				? current.candidates(exchange.getRequest().getPath().pathWithinApplication())
+				: null;
+		if (candidates == null) {
+			return super.lookupRoute(exchange);
+		}
+		if (candidates.isEmpty()) {
+			return Mono.empty();
+		}
+		return firstMatch(candidates, exchange)
+				.map(route -> {
+					validateRoute(route, exchange);
+					return route;
+				});
+	}
+
+	/**
+	 * First candidate whose predicate matches; like the default lookup, a route whose predicate
+	 * fails is logged and skipped instead of failing the whole lookup
+	 */
+	static Mono<Route> firstMatch(List<Route> candidates, ServerWebExchange exchange) {
+		return Flux.fromIterable(candidates)
+				.concatMap(route -> Mono.just(route)
+						.filterWhen(r -> {
+							exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+							return r.getPredicate().apply(exchange);
+						})
+						.doOnError(e -> log.error("Error applying predicate for route: {}", route.getId(), e))
+						.onErrorResume(e -> Mono.empty()))
+				.next();
+	}
+
+	RoutePathIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * Path predicate patterns per route id (shortcut form "Path=/a,/b" or named "patterns" args)
+	 */
+	static Map<String, List<String>> pathPatterns(List<RouteDefinition> definitions) {
+		Map<String, List<String>> patterns = new HashMap<>();
+		for (RouteDefinition definition : definitions) {
+			List<String> routePatterns = new ArrayList<>();
+			for (PredicateDefinition predicate : definition.getPredicates()) {
+				if (!PATH_PREDICATE.equals(predicate.getName())) {
+					continue;
+				}
+				predicate.getArgs().forEach((key, value) -> {
+					if (key.startsWith("_genkey_") || key.startsWith("patterns")) {
+						routePatterns.add(value);
+					}
+				});
+			}
+			if (!routePatterns.isEmpty()) {
+				patterns.put(definition.getId(), routePatterns);
+			}
+		}
+		return patterns;
+	}
+}
@@ -0,0 +1,28 @@
+package site.aifixr.api.gateway.route;
+
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import site.aifixr.api.gateway.metrics.RouteFilterTimer;
+
+/**
+ * Replaces the gateway's linear route lookup with the path-trie backed one
+ * (GatewayAutoConfiguration backs off because routePredicateHandlerMapping is @ConditionalOnMissingBean)
+ */
+@Configuration
+public class RouteIndexConfig {
+
+	@Bean
+	public RoutePredicateHandlerMapping routePredicateHandlerMapping(FilteringWebHandler webHandler,
+			RouteLocator routeLocator, RouteDefinitionLocator routeDefinitionLocator,
+			GlobalCorsProperties globalCorsProperties, Environment environment,
+			RouteFilterTimer routeFilterTimer) {
+		return new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, routeDefinitionLocator,
+				globalCorsProperties, environment, routeFilterTimer);
+	}
+}
@@ -0,0 +1,176 @@
+package site.aifixr.api.gateway.route;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Path-segment trie over the route table
+ * - Each route's Path patterns are compiled into the trie once per route refresh
+ * - A lookup walks the request path once and yields the candidate routes, in route order,
+ *   whose Path patterns can match; the full predicates are still evaluated on those candidates only
+ * - Routes without an indexable Path predicate are candidates for every request,
+ *   so the index only ever narrows the scan and never changes which route wins
+ */
+public class RoutePathIndex {
+
+	private final List<Route> routes;
+	private final Node root = new Node();
+	private final BitSet unindexed = new BitSet();
+
+	/**
+	 * @param routes        routes in lookup order (as returned by the RouteLocator)
+	 * @param pathsByRoute  Path predicate patterns per route id; routes missing here are never filtered out
+	 */
+	public RoutePathIndex(List<Route> routes, Map<String, List<String>> pathsByRoute) {
+		this.routes = List.copyOf(routes);
+		for (int i = 0; i < this.routes.size(); i++) {
+			List<String> patterns = pathsByRoute.get(this.routes.get(i).getId());
+			if (patterns == null || patterns.isEmpty() || !patterns.stream().allMatch(RoutePathIndex::isIndexable)) {
+				unindexed.set(i);
+				continue;
+			}
+			for (String pattern : patterns) {
+				insert(pattern, i);
+			}
+		}
+	}
+
+	/**
+	 * Candidate routes for a request path, or null when the path cannot be looked up safely
+	 * (the caller then falls back to evaluating every route)
+	 */
+	public List<Route> candidates(PathContainer path) {
+		List<String> segments = segments(path);
+		if (segments == null) {
+			return null;
+		}
+
+		BitSet matched = (BitSet) unindexed.clone();
+		collect(root, segments, 0, matched);
+		if (matched.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		List<Route> candidates = new ArrayList<>(matched.cardinality());
+		for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+			candidates.add(routes.get(i));
+		}
+		return candidates;
+	}
+
+	public int size() {
+		return routes.size();
+	}
+
+	public int unindexedCount() {
+		return unindexed.cardinality();
+	}
+
+	private void insert(String pattern, int routeIndex) {
+		Node node = root;
+		for (String segment : split(pattern)) {
+			if ("**".equals(segment) || segment.startsWith("{*")) {
+				node.catchAll.set(routeIndex);
+				return;
+			}
+			if (isVariable(segment)) {
+				if (node.wildcard == null) {
+					node.wildcard = new Node();
+				}
+				node = node.wildcard;
+			} else {
+				node = node.literals.computeIfAbsent(segment, s -> new Node());
+			}
+		}
+		node.terminal.set(routeIndex);
+	}
+
+	private static void collect(Node node, List<String> segments, int depth, BitSet matched) {
+		// "/**" also matches the prefix itself, so catch-alls apply at any depth they are reached
+		matched.or(node.catchAll);
+		if (depth == segments.size()) {
+			matched.or(node.terminal);
+			return;
+		}
+		Node literal = node.literals.get(segments.get(depth));
+		if (literal != null) {
+			collect(literal, segments, depth + 1, matched);
+		}
+		if (node.wildcard != null) {
+			collect(node.wildcard, segments, depth + 1, matched);
+		}
+	}
+
+	/**
+	 * Decoded path segments; a trailing slash is ignored like the Path predicate does by default.
+	 * Empty inner segments ("//") are left to the regular predicates.
+	 */
+	private static List<String> segments(PathContainer path) {
+		List<String> segments = new ArrayList<>();
+		boolean afterSeparator = false;
+		for (PathContainer.Element element : path.elements()) {
+			if (element instanceof PathContainer.PathSegment segment) {
+				if (segment.valueToMatch().isEmpty()) {
+					return null;
+				}
+				segments.add(segment.valueToMatch());
+				afterSeparator = false;
+			} else {
+				if (afterSeparator) {
+					return null;
+				}
+				afterSeparator = true;
+			}
+		}
+		return segments;
+	}
+
+	private static List<String> split(String pattern) {
+		List<String> segments = new ArrayList<>();
+		for (String segment : pattern.split("/")) {
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		return segments;
+	}
+
+	/**
+	 * Patterns the trie understands: literal segments, single-segment wildcards and a trailing catch-all
+	 */
+	private static boolean isIndexable(String pattern) {
+		if (pattern == null || !pattern.startsWith("/")) {
+			return false;
+		}
+		List<String> segments = split(pattern);
+		for (int i = 0; i < segments.size(); i++) {
+			String segment = segments.get(i);
+			boolean catchAll = "**".equals(segment) || segment.startsWith("{*");
+			if (catchAll && i != segments.size() - 1) {
+				return false;
+			}
+			if (!catchAll && segment.contains("**")) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isVariable(String segment) {
+		return segment.indexOf('{') >= 0 || segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0;
+	}
+
+	private static final class Node {
+		private final Map<String, Node> literals = new HashMap<>(4);
+		private final BitSet terminal = new BitSet();
+		private final BitSet catchAll = new BitSet();
+		private Node wildcard;
+	}
+}
@@ -0,0 +1,20 @@
+package site.aifixr.api.gateway.stream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Streamed response settings
+ * Streams are SSE / NDJSON responses on any route, and every response of a route with metadata streaming: true.
+ * They are flushed chunk by chunk and never buffered or compressed by the gateway
+ */
+@Configuration
+@ConfigurationProperties(prefix = "streaming")
+@Getter
+@Setter
+public class StreamingProperties {
+	private boolean enabled = true;
+	private long idleTimeout = 60000L; // ms between two chunks, overridable with route metadata stream-idle-timeout
+}
@@ -0,0 +1,173 @@
+package site.aifixr.api.gateway.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import site.aifixr.api.gateway.compress.ResponseCompressionFilter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Passes streamed responses through chunk by chunk and measures time to first byte
+ * - Streams (SSE / NDJSON, or any response of a route with metadata streaming: true) are written with a flush
+ *   per chunk; nothing is aggregated, and the backend is only read as fast as the client takes the chunks
+ * - A stream that stays silent longer than the idle timeout is ended (and the backend connection dropped);
+ *   spring.cloud.gateway.httpclient.response-timeout still only covers the wait for status and headers
+ * - Outermost response decorator, so the compression, cache and coalescing decorators see the stream first
+ *   and step aside ({@link #isStreamingRoute}, {@link #isStreamingType})
+ * - Meters: gateway.route.ttfb (route, mode = stream | buffered), gateway.stream.active,
+ *   gateway.stream.idle.timeouts (route)
+ */
+@Slf4j
+@Component
+public class StreamingResponseFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = ResponseCompressionFilter.ORDER - 10;
+	public static final String STREAMING_METADATA = "streaming";
+	public static final String IDLE_TIMEOUT_METADATA = "stream-idle-timeout";
+
+	// Same defaults as spring.cloud.gateway.streaming-media-types, which NettyWriteResponseFilter flushes per chunk
+	private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.TEXT_EVENT_STREAM,
+			MediaType.APPLICATION_NDJSON, MediaType.valueOf("application/stream+json"));
+
+	private final StreamingProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Timer> ttfbTimers = new ConcurrentHashMap<>();
+	private final AtomicInteger activeStreams = new AtomicInteger();
+
+	public StreamingResponseFilter(StreamingProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		Gauge.builder("gateway.stream.active", activeStreams, AtomicInteger::get)
+				.description("Streamed responses currently open")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		if (!properties.isEnabled() || route == null) {
+			return chain.filter(exchange);
+		}
+		StreamingResponse response = new StreamingResponse(exchange.getResponse(), route, System.nanoTime());
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+
+	/**
+	 * The route streams every response (metadata streaming: true)
+	 */
+	public static boolean isStreamingRoute(Route route) {
+		return route != null && Boolean.parseBoolean(String.valueOf(route.getMetadata().get(STREAMING_METADATA)));
+	}
+
+	/**
+	 * SSE / NDJSON, streamed on any route
+	 */
+	public static boolean isStreamingType(MediaType contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		for (MediaType mediaType : STREAMING_MEDIA_TYPES) {
+			if (mediaType.isCompatibleWith(contentType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Duration idleTimeout(Route route) {
+		Object value = route.getMetadata().get(IDLE_TIMEOUT_METADATA);
+		if (value == null) {
+			return Duration.ofMillis(properties.getIdleTimeout());
+		}
+		return Duration.ofMillis(value instanceof Number number ? number.longValue()
+				: Long.parseLong(value.toString().trim()));
+	}
+
+	private void recordTtfb(String routeId, String mode, long start) {
+		ttfbTimers.computeIfAbsent(routeId + "|" + mode, key -> Timer.builder("gateway.route.ttfb")
+						.description("Time until the first body byte was handed to the client")
+						.tag("route", routeId)
+						.tag("mode", mode)
+						.publishPercentileHistogram()
+						.register(meterRegistry))
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private final class StreamingResponse extends ServerHttpResponseDecorator {
+		private final Route route;
+		private final long start;
+		private final AtomicBoolean firstByte = new AtomicBoolean();
+
+		private StreamingResponse(ServerHttpResponse delegate, Route route, long start) {
+			super(delegate);
+			this.route = route;
+			this.start = start;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (isStreamingRoute(route) || isStreamingType(getHeaders().getContentType())) {
+				return writeAndFlushWith(Flux.from(body).map(Mono::just));
+			}
+			return super.writeWith(Flux.from(body).doOnNext(buffer -> onChunk("buffered")));
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			Duration idleTimeout = idleTimeout(route);
+			Flux<Flux<DataBuffer>> chunks = Flux.from(body)
+					.map(chunk -> Flux.<DataBuffer>from(chunk).doOnNext(buffer -> onChunk("stream")))
+					// Gaps are measured between chunks the client asked for, so a stalled client ends the stream too
+					.timeout(idleTimeout)
+					.onErrorResume(TimeoutException.class, e -> {
+						log.warn("Ending stream of route {} idle for {}ms", route.getId(), idleTimeout.toMillis());
+						Counter.builder("gateway.stream.idle.timeouts")
+								.tag("route", route.getId())
+								.register(meterRegistry)
+								.increment();
+						return Flux.empty();
+					})
+					.doOnSubscribe(subscription -> activeStreams.incrementAndGet())
+					// Not doFinally: that would run only after the completion reached the client response
+					.doOnTerminate(activeStreams::decrementAndGet)
+					.doOnCancel(activeStreams::decrementAndGet);
+			return super.writeAndFlushWith(chunks);
+		}
+
+		private void onChunk(String mode) {
+			if (firstByte.compareAndSet(false, true)) {
+				recordTtfb(route.getId(), mode, start);
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package site.aifixr.api.gateway.accesslog;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import site.aifixr.api.gateway.metrics.UpstreamTimingFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class AccessLogFilterTests {
+
+	@Test
+	void oneEventPerExchangeWithRouteStatusAndBytes() {
+		List<AccessLogEvent> events = new ArrayList<>();
+		AccessLogFilter filter = new AccessLogFilter(capturingWriter(new AccessLogProperties(), events));
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/common/codes"));
+
+		filter.filter(exchange, e -> {
+			e.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async().id("common-service").uri("http://common:8080")
+					.predicate(x -> true).build());
+			e.getAttributes().put(UpstreamTimingFilter.UPSTREAM_LATENCY_ATTR, 7_000_000L);
+			e.getResponse().setStatusCode(HttpStatus.CREATED);
+			return e.getResponse().writeWith(Mono.just(e.getResponse().bufferFactory()
+					.wrap("{\"ok\":true}".getBytes(StandardCharsets.UTF_8))));
+		}).block();
+
+		assertThat(events).hasSize(1);
+		AccessLogEvent event = events.get(0);
+		assertThat(event.routeId()).isEqualTo("common-service");
+		assertThat(event.status()).isEqualTo(201);
+		assertThat(event.upstreamMillis()).isEqualTo(7);
+		assertThat(event.bytes()).isEqualTo(11);
+		assertThat(event.toJson()).contains("\"path\":\"/api/common/codes\"", "\"route\":\"common-service\"");
+	}
+
+	@Test
+	void samplingKeepsErrorsAndSlowExchanges() {
+		AccessLogProperties properties = new AccessLogProperties();
+		properties.setSampleRate(0.0);
+		properties.setSlowThreshold(500);
+		AccessLogWriter writer = new AccessLogWriter(properties);
+
+		assertThat(writer.shouldLog(200, 10)).isFalse();
+		assertThat(writer.shouldLog(503, 10)).isTrue();
+		assertThat(writer.shouldLog(200, 800)).isTrue();
+		assertThat(writer.getSampledOutCount()).isEqualTo(1);
+	}
+
+	@Test
+	void fullRingBufferDropsInsteadOfBlocking() {
+		AccessLogProperties properties = new AccessLogProperties();
+		properties.setBufferSize(4);
+		AccessLogWriter writer = new AccessLogWriter(properties);
+
+		for (int i = 0; i < 6; i++) {
+			writer.publish(new AccessLogEvent(0L, "GET", "/api/user/" + i, "user-service", 200, 1, 1, 0, null));
+		}
+
+		assertThat(writer.getQueued()).isEqualTo(4);
+		assertThat(writer.getDroppedCount()).isEqualTo(2);
+		assertThat(writer.drain()).isEqualTo(4);
+		assertThat(writer.getQueued()).isZero();
+	}
+
+	private static AccessLogWriter capturingWriter(AccessLogProperties properties, List<AccessLogEvent> events) {
+		return new AccessLogWriter(properties) {
+			@Override
+			public void publish(AccessLogEvent event) {
+				events.add(event);
+			}
+		};
+	}
+}
@@ -0,0 +1,124 @@
+package site.aifixr.api.gateway.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControllerTests {
+
+	private final AtomicLong lag = new AtomicLong();
+	private final AdmissionController controller = new AdmissionController(properties(), lag::get);
+
+	@Test
+	void lowerClassesStopBeingAdmittedFirst() {
+		List<AdmissionController.Permit> held = new ArrayList<>();
+		// max-in-flight 10: background may fill 5, interactive 8, critical all 10
+		for (int i = 0; i < 5; i++) {
+			held.add(controller.acquire(Priority.BACKGROUND).block());
+		}
+		for (int i = 0; i < 3; i++) {
+			held.add(controller.acquire(Priority.INTERACTIVE).block());
+		}
+		held.add(controller.acquire(Priority.CRITICAL).block());
+
+		assertThat(held).doesNotContainNull();
+		controller.acquire(Priority.BACKGROUND).subscribe();
+		controller.acquire(Priority.INTERACTIVE).subscribe();
+		assertThat(controller.getQueueLength(Priority.BACKGROUND)).isEqualTo(1);
+		assertThat(controller.getQueueLength(Priority.INTERACTIVE)).isEqualTo(1);
+		assertThat(controller.acquire(Priority.CRITICAL).block()).isNotNull();
+		assertThat(controller.getInFlight()).isEqualTo(10);
+	}
+
+	@Test
+	void freedSlotsGoToTheMostImportantQueueAndFullQueuesReject() {
+		List<AdmissionController.Permit> held = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			held.add(controller.acquire(Priority.CRITICAL).block());
+		}
+		List<Priority> admittedOrder = new ArrayList<>();
+		controller.acquire(Priority.BACKGROUND).subscribe(permit -> admittedOrder.add(permit.getPriority()));
+		controller.acquire(Priority.BACKGROUND).subscribe(permit -> admittedOrder.add(permit.getPriority()));
+		controller.acquire(Priority.INTERACTIVE).subscribe(permit -> admittedOrder.add(permit.getPriority()));
+		// Background queue holds 2
+		assertThat(controller.acquire(Priority.BACKGROUND).block()).isNull();
+
+		held.forEach(AdmissionController.Permit::release);
+
+		assertThat(admittedOrder).containsExactly(Priority.INTERACTIVE, Priority.BACKGROUND, Priority.BACKGROUND);
+		assertThat(controller.getRejectedCount(Priority.BACKGROUND)).isEqualTo(1);
+		assertThat(controller.getInFlight()).isEqualTo(3);
+	}
+
+	@Test
+	void eventLoopLagShedsBackgroundAndHoldsInteractive() {
+		List<Priority> admittedOrder = new ArrayList<>();
+		controller.acquire(Priority.BACKGROUND).subscribe(permit -> admittedOrder.add(permit.getPriority()));
+		lag.set(500);
+
+		assertThat(controller.acquire(Priority.BACKGROUND).block()).isNull();
+		controller.acquire(Priority.INTERACTIVE).subscribe(permit -> admittedOrder.add(permit.getPriority()));
+		assertThat(controller.acquire(Priority.CRITICAL).block()).isNotNull();
+		controller.onLagSample();
+		assertThat(controller.getQueueLength(Priority.INTERACTIVE)).isEqualTo(1);
+
+		lag.set(0);
+		controller.onLagSample();
+
+		assertThat(admittedOrder).containsExactly(Priority.BACKGROUND, Priority.INTERACTIVE);
+		assertThat(controller.getRejectedCount(Priority.BACKGROUND)).isEqualTo(1);
+	}
+
+	@Test
+	void requestsAreClassedByPathAndMethod() {
+		AdmissionFilter filter = new AdmissionFilter(properties(), new EventLoopLagMonitor(new AdmissionProperties()));
+
+		assertThat(filter.classify(MockServerHttpRequest.get("/oauth/kakao/callback").build()))
+				.isEqualTo(Priority.CRITICAL);
+		assertThat(filter.classify(MockServerHttpRequest.post("/api/user/profile").build()))
+				.isEqualTo(Priority.CRITICAL);
+		assertThat(filter.classify(MockServerHttpRequest.get("/api/user/profile").build()))
+				.isEqualTo(Priority.INTERACTIVE);
+		assertThat(filter.classify(MockServerHttpRequest.get("/api-docs/aggregate").build()))
+				.isEqualTo(Priority.BACKGROUND);
+	}
+
+	@Test
+	void streamsGiveTheirSlotBackOnceStreaming() {
+		AdmissionFilter filter = new AdmissionFilter(properties(), new EventLoopLagMonitor(new AdmissionProperties()));
+		WebFilterChain stream = exchange -> exchange.getResponse()
+				.writeAndFlushWith(Flux.just(Mono.just(exchange.getResponse().bufferFactory().wrap(new byte[] {1}))))
+				.then(Mono.never());
+		WebFilterChain slow = exchange -> Mono.never();
+
+		Disposable streaming = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/chatbot")), stream)
+				.subscribe();
+		Disposable waiting = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/user")), slow)
+				.subscribe();
+
+		assertThat(filter.getController().getInFlight()).isEqualTo(1);
+		streaming.dispose();
+		waiting.dispose();
+		assertThat(filter.getController().getInFlight()).isZero();
+	}
+
+	private static AdmissionProperties properties() {
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setMaxInFlight(10);
+		properties.getBackground().setQueueSize(2);
+		properties.setCriticalPaths(List.of("/oauth/*/callback"));
+		properties.setCriticalWritePaths(List.of("/api/user/**"));
+		properties.setBackgroundPaths(List.of("/api-docs/**"));
+		return properties;
+	}
+}
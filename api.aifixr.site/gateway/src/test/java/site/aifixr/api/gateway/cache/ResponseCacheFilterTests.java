@@ -0,0 +1,196 @@
+package site.aifixr.api.gateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import site.aifixr.api.gateway.compress.CompressionProperties;
+import site.aifixr.api.gateway.compress.ResponseCompressor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ResponseCacheFilterTests {
+
+	private static final String BODY = "{\"items\":[1,2,3]}";
+
+	private final ResponseCacheFilter filter = new ResponseCacheFilter(new ResponseCacheProperties(),
+			new ResponseCacheStore(1024 * 1024, null, "", Duration.ZERO),
+			new ResponseCompressor(new CompressionProperties()), WebClient.builder());
+	private final AtomicInteger backendCalls = new AtomicInteger();
+
+	@Test
+	void secondRequestIsServedFromCache() {
+		Route route = route(60_000, 0);
+
+		MockServerWebExchange first = exchange(route, null);
+		filter.filter(first, backend(null)).block();
+		MockServerWebExchange second = exchange(route, null);
+		filter.filter(second, backend(null)).block();
+
+		assertThat(backendCalls).hasValue(1);
+		assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+		assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+	}
+
+	@Test
+	void matchingIfNoneMatchIsAnsweredWithNotModified() {
+		Route route = route(60_000, 0);
+		filter.filter(exchange(route, null), backend(null)).block();
+		// The backend sent no ETag; cached entries carry a digest based one
+		MockServerWebExchange hit = exchange(route, null);
+		filter.filter(hit, backend(null)).block();
+		String etag = hit.getResponse().getHeaders().getETag();
+		assertThat(etag).isNotNull();
+
+		MockServerWebExchange conditional = exchange(route, etag);
+		filter.filter(conditional, backend(null)).block();
+
+		assertThat(backendCalls).hasValue(1);
+		assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	@Test
+	void expiredEntryIsRevalidatedWithBackend() throws Exception {
+		Route route = route(1, 0);
+		filter.filter(exchange(route, null), backend("\"v1\"")).block();
+		Thread.sleep(5);
+
+		MockServerWebExchange revalidated = exchange(route, null);
+		filter.filter(revalidated, backend("\"v1\"")).block();
+
+		assertThat(backendCalls).hasValue(2);
+		assertThat(filter.getRevalidatedCount()).isEqualTo(1);
+		assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(revalidated.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+	}
+
+	@Test
+	void corsHeadersOfTheBackendAreNotReplayedToOtherOrigins() {
+		Route route = route(60_000, 0);
+		HttpHeaders cors = new HttpHeaders();
+		cors.setAccessControlAllowOrigin("http://a.example");
+		cors.setVary(List.of(HttpHeaders.ORIGIN));
+		filter.filter(exchange(route, null), backend(null, cors)).block();
+
+		MockServerWebExchange other = exchange(route, null);
+		other.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD));
+		filter.filter(other, backend(null)).block();
+
+		assertThat(backendCalls).hasValue(1);
+		assertThat(other.getResponse().getHeaders().getAccessControlAllowOrigin()).isNull();
+		assertThat(other.getResponse().getHeaders().getVary())
+				.containsExactly(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpHeaders.ORIGIN);
+	}
+
+	@Test
+	void responsesVaryingOnUnkeyedHeadersOrNotFromTheBackendAreNotStored() {
+		Route route = route(60_000, 0);
+		HttpHeaders vary = new HttpHeaders();
+		vary.setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+		filter.filter(exchange(route, null), backend(null, vary)).block();
+		// e.g. a rate limiter or fallback answering inside the gateway
+		filter.filter(exchange(route, null), exchange -> {
+			backendCalls.incrementAndGet();
+			exchange.getResponse().setStatusCode(HttpStatus.OK);
+			return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+					.wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+		}).block();
+
+		filter.filter(exchange(route, null), backend(null)).block();
+
+		assertThat(backendCalls).hasValue(3);
+		assertThat(filter.getStoreCount()).isEqualTo(1);
+	}
+
+	@Test
+	void acceptEncodingSpellingsShareAnEntryWhileCookieRequestsBypassTheCache() {
+		Route route = route(60_000, 0);
+		filter.filter(exchange(route, HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"), backend(null)).block();
+
+		MockServerWebExchange sameCoding = exchange(route, HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8");
+		filter.filter(sameCoding, backend(null)).block();
+		MockServerWebExchange withCookie = exchange(route, HttpHeaders.COOKIE, "session=abc");
+		filter.filter(withCookie, backend(null)).block();
+
+		assertThat(backendCalls).hasValue(2);
+		assertThat(sameCoding.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER))
+				.isEqualTo("HIT");
+		assertThat(withCookie.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isNull();
+		assertThat(filter.getStoreCount()).isEqualTo(1);
+	}
+
+	private GatewayFilterChain backend(String etag) {
+		return backend(etag, new HttpHeaders());
+	}
+
+	/**
+	 * Stand-in for the proxied backend: answers 304 when If-None-Match carries its ETag,
+	 * and records the backend header names like NettyRoutingFilter
+	 */
+	private GatewayFilterChain backend(String etag, HttpHeaders extraHeaders) {
+		return exchange -> {
+			backendCalls.incrementAndGet();
+			var response = exchange.getResponse();
+			if (etag != null && etag.equals(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+				response.setStatusCode(HttpStatus.NOT_MODIFIED);
+				exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, Set.of());
+				return response.writeWith(Flux.<DataBuffer>empty());
+			}
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			if (etag != null) {
+				response.getHeaders().setETag(etag);
+			}
+			response.getHeaders().addAll(extraHeaders);
+			Set<String> names = new HashSet<>(List.of(HttpHeaders.CONTENT_TYPE));
+			names.addAll(extraHeaders.keySet());
+			if (etag != null) {
+				names.add(HttpHeaders.ETAG);
+			}
+			exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, names);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+		};
+	}
+
+	private static MockServerWebExchange exchange(Route route, String ifNoneMatch) {
+		return exchange(route, HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+	}
+
+	private static MockServerWebExchange exchange(Route route, String header, String value) {
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/common/codes");
+		if (value != null) {
+			request.header(header, value);
+		}
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+		return exchange;
+	}
+
+	private static Route route(long ttl, long staleWhileRevalidate) {
+		return Route.async()
+				.id("common-service")
+				.uri("http://common:8080")
+				.predicate(exchange -> true)
+				.metadata(Map.of(ResponseCacheFilter.TTL_METADATA, ttl,
+						ResponseCacheFilter.STALE_WHILE_REVALIDATE_METADATA, staleWhileRevalidate))
+				.build();
+	}
+}
@@ -0,0 +1,140 @@
+package site.aifixr.api.gateway.coalesce;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RequestCoalescingFilterTests {
+
+	private static final String CHART = "{\"success\":true,\"count\":100}";
+	private static final Route ROUTE = Route.async()
+			.id("crawler-service")
+			.uri("http://crawler-service:9001")
+			.predicate(exchange -> true)
+			.metadata(Map.of(RequestCoalescingFilter.COALESCE_METADATA, true,
+					RequestCoalescingFilter.PATHS_METADATA, "/api/crawler/bugsmusic"))
+			.build();
+
+	private final RequestCoalescingFilter filter = new RequestCoalescingFilter(new CoalescingProperties());
+	private final AtomicInteger backendCalls = new AtomicInteger();
+	private final Sinks.Empty<Void> crawlDone = Sinks.empty();
+
+	@Test
+	void identicalInFlightGetsShareOneBackendCall() {
+		MockServerWebExchange leader = exchange("/api/crawler/bugsmusic", "application/json");
+		MockServerWebExchange follower = exchange("/api/crawler/bugsmusic", "application/json");
+
+		filter.filter(leader, slowBackend(null)).subscribe();
+		filter.filter(follower, slowBackend(null)).subscribe();
+		crawlDone.tryEmitEmpty();
+
+		assertThat(backendCalls).hasValue(1);
+		assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(follower.getResponse().getHeaders().getFirst(RequestCoalescingFilter.COALESCED_HEADER))
+				.isEqualTo("true");
+		assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(CHART);
+		assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo(CHART);
+		assertThat(filter.getCoalescingRatio()).isEqualTo(0.5);
+		assertThat(filter.getInFlightCount()).isZero();
+	}
+
+	@Test
+	void differentRepresentationsAndUncoveredPathsAreNotShared() {
+		filter.filter(exchange("/api/crawler/bugsmusic", "application/json"), slowBackend(null)).subscribe();
+		filter.filter(exchange("/api/crawler/bugsmusic", "text/html"), slowBackend(null)).subscribe();
+		filter.filter(exchange("/api/crawler/", "application/json"), slowBackend(null)).subscribe();
+		filter.filter(exchange("/api/crawler/", "application/json"), slowBackend(null)).subscribe();
+		crawlDone.tryEmitEmpty();
+
+		assertThat(backendCalls).hasValue(4);
+		assertThat(filter.getCoalescedCount()).isZero();
+	}
+
+	@Test
+	void unshareableResponseMakesWaitersCallTheBackend() {
+		MockServerWebExchange follower = exchange("/api/crawler/bugsmusic", "application/json");
+
+		filter.filter(exchange("/api/crawler/bugsmusic", "application/json"), slowBackend("session=1")).subscribe();
+		filter.filter(follower, slowBackend("session=2")).subscribe();
+		crawlDone.tryEmitEmpty();
+
+		assertThat(backendCalls).hasValue(2);
+		assertThat(filter.getFallbackCount()).isEqualTo(1);
+		assertThat(follower.getResponse().getHeaders().getFirst(HttpHeaders.SET_COOKIE)).isEqualTo("session=2");
+	}
+
+	@Test
+	void rejectionOfTheLeaderIsNotShared() {
+		MockServerWebExchange follower = exchange("/api/crawler/bugsmusic", "application/json");
+		GatewayFilterChain rateLimited = exchange -> crawlDone.asMono().then(Mono.defer(() -> {
+			exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+			return exchange.getResponse().setComplete();
+		}));
+
+		filter.filter(exchange("/api/crawler/bugsmusic", "application/json"), rateLimited).subscribe();
+		filter.filter(follower, slowBackend(null)).subscribe();
+		crawlDone.tryEmitEmpty();
+
+		assertThat(backendCalls).hasValue(1);
+		assertThat(filter.getFallbackCount()).isEqualTo(1);
+		assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void corsHeadersOfTheLeaderAreNotShared() {
+		MockServerWebExchange leader = exchange("/api/crawler/bugsmusic", "application/json");
+		leader.getResponse().getHeaders().setAccessControlAllowOrigin("http://a.example");
+		MockServerWebExchange follower = exchange("/api/crawler/bugsmusic", "application/json");
+		follower.getResponse().getHeaders().setAccessControlAllowOrigin("http://b.example");
+
+		filter.filter(leader, slowBackend(null)).subscribe();
+		filter.filter(follower, slowBackend(null)).subscribe();
+		crawlDone.tryEmitEmpty();
+
+		assertThat(filter.getCoalescedCount()).isEqualTo(1);
+		assertThat(follower.getResponse().getHeaders().getAccessControlAllowOrigin()).isEqualTo("http://b.example");
+		assertThat(follower.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+	}
+
+	/**
+	 * Stand-in for a live crawl: answers once crawlDone completes,
+	 * recording the backend header names like NettyRoutingFilter
+	 */
+	private GatewayFilterChain slowBackend(String cookie) {
+		return exchange -> crawlDone.asMono().then(Mono.defer(() -> {
+			backendCalls.incrementAndGet();
+			var response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			if (cookie != null) {
+				response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+			}
+			exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, Set.of(HttpHeaders.CONTENT_TYPE,
+					HttpHeaders.SET_COOKIE));
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(CHART.getBytes(StandardCharsets.UTF_8))));
+		}));
+	}
+
+	private static MockServerWebExchange exchange(String path, String accept) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path)
+				.header(HttpHeaders.ACCEPT, accept));
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, ROUTE);
+		return exchange;
+	}
+}
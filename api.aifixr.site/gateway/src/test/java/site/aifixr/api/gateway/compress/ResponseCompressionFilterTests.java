@@ -0,0 +1,154 @@
+package site.aifixr.api.gateway.compress;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import site.aifixr.api.gateway.cache.ResponseCacheFilter;
+import site.aifixr.api.gateway.cache.ResponseCacheProperties;
+import site.aifixr.api.gateway.cache.ResponseCacheStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ResponseCompressionFilterTests {
+
+	private static final String CHUNK = "{\"company\":\"AIFIXR\",\"score\":42,\"grade\":\"A\"},".repeat(40);
+
+	private final ResponseCompressor compressor = new ResponseCompressor(new CompressionProperties());
+	private final ResponseCompressionFilter filter = new ResponseCompressionFilter(compressor);
+
+	@Test
+	void streamedJsonIsGzipEncoded() {
+		MockServerWebExchange exchange = exchange("gzip, deflate, br");
+		filter.filter(exchange, backend(MediaType.APPLICATION_JSON, -1)).block();
+
+		MockServerHttpResponse response = exchange.getResponse();
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(gunzip(body(response))).isEqualTo(CHUNK + CHUNK);
+		assertThat(compressor.getBytesIn()).isGreaterThan(compressor.getBytesOut());
+	}
+
+	@Test
+	void smallOrBinaryBodiesAreSentAsIs() {
+		MockServerWebExchange small = exchange("gzip");
+		filter.filter(small, backend(MediaType.APPLICATION_JSON, 100)).block();
+		MockServerWebExchange image = exchange("gzip");
+		filter.filter(image, backend(MediaType.IMAGE_PNG, -1)).block();
+		MockServerWebExchange identity = exchange("identity, gzip;q=0");
+		filter.filter(identity, backend(MediaType.APPLICATION_JSON, -1)).block();
+
+		assertThat(small.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(image.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(identity.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(compressor.getCompressedCount()).isZero();
+	}
+
+	@Test
+	void cacheHitReusesStoredGzipVariant() {
+		ResponseCacheFilter cache = new ResponseCacheFilter(new ResponseCacheProperties(),
+				new ResponseCacheStore(1024 * 1024, null, "", Duration.ZERO), compressor, WebClient.builder());
+		GatewayFilterChain backend = backend(MediaType.APPLICATION_JSON, -1);
+
+		MockServerWebExchange miss = exchange("gzip");
+		filter.filter(miss, e -> cache.filter(e, backend)).block();
+		MockServerWebExchange hit = exchange("gzip");
+		filter.filter(hit, e -> cache.filter(e, backend)).block();
+
+		assertThat(hit.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+		assertThat(hit.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gunzip(body(hit.getResponse()))).isEqualTo(CHUNK + CHUNK);
+		// Only the miss was compressed on the fly
+		assertThat(compressor.getCompressedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void acceptEncodingQualitiesAreHonoured() {
+		assertThat(ResponseCompressor.acceptsGzip(acceptEncoding("*;q=0, gzip"))).isTrue();
+		assertThat(ResponseCompressor.acceptsGzip(acceptEncoding("gzip;q=0, *"))).isFalse();
+		assertThat(ResponseCompressor.acceptsGzip(acceptEncoding("GZIP; Q=0"))).isFalse();
+		assertThat(ResponseCompressor.acceptsGzip(acceptEncoding("br, *;q=0.5"))).isTrue();
+		assertThat(ResponseCompressor.acceptsGzip(acceptEncoding("br, identity"))).isFalse();
+	}
+
+	@Test
+	void encoderEndedByCancelIgnoresLateChunks() {
+		GzipEncoder encoder = new GzipEncoder(6);
+		encoder.write(CHUNK.getBytes(StandardCharsets.UTF_8));
+		encoder.end();
+
+		assertThat(encoder.write(CHUNK.getBytes(StandardCharsets.UTF_8))).isEmpty();
+		assertThat(encoder.finish()).isEmpty();
+	}
+
+	private static HttpHeaders acceptEncoding(String value) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.ACCEPT_ENCODING, value);
+		return headers;
+	}
+
+	private static GatewayFilterChain backend(MediaType contentType, long contentLength) {
+		return exchange -> {
+			var response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(contentType);
+			if (contentLength >= 0) {
+				response.getHeaders().setContentLength(contentLength);
+			}
+			// Recorded by NettyRoutingFilter for proxied responses
+			exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, Set.copyOf(response.getHeaders().keySet()));
+			return response.writeWith(Flux.just(CHUNK, CHUNK)
+					.map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+		};
+	}
+
+	private static MockServerWebExchange exchange(String acceptEncoding) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/environment/esg")
+				.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+				.id("environment-service")
+				.uri("http://environment:8080")
+				.predicate(e -> true)
+				.metadata(Map.of(ResponseCacheFilter.TTL_METADATA, 60_000))
+				.build());
+		return exchange;
+	}
+
+	private static byte[] body(MockServerHttpResponse response) {
+		return DataBufferUtils.join(response.getBody())
+				.map(buffer -> {
+					byte[] bytes = new byte[buffer.readableByteCount()];
+					buffer.read(bytes);
+					DataBufferUtils.release(buffer);
+					return bytes;
+				})
+				.block();
+	}
+
+	private static String gunzip(byte[] gzip) {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package site.aifixr.api.gateway.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ConcurrencyLimitFilterTests {
+
+	private static final long MILLIS = 1_000_000L;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void requestsOverTheLimitGetFast503WithRetryAfter() {
+		ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+		properties.setInitialLimit(2);
+		properties.setMinLimit(1);
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, registry);
+		Route route = route(Map.of());
+		Sinks.Empty<Void> backend = Sinks.empty();
+
+		filter.filter(exchange(route), e -> backend.asMono()).subscribe();
+		filter.filter(exchange(route), e -> backend.asMono()).subscribe();
+		MockServerWebExchange rejected = exchange(route);
+		filter.filter(rejected, e -> Mono.error(new AssertionError("must not reach the backend"))).block();
+
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		assertThat(registry.get("gateway.concurrency.inflight").tag("route", "chatbot-service").gauge().value())
+				.isEqualTo(2);
+
+		backend.tryEmitEmpty();
+		assertThat(registry.get("gateway.concurrency.inflight").gauge().value()).isZero();
+		assertThat(registry.get("gateway.concurrency.requests").tag("result", "rejected").functionCounter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void limitGrowsWhileLatencyIsFlatAndShrinksWhenItRises() {
+		GradientLimiter limiter = new GradientLimiter(new ConcurrencyLimitProperties(), 200);
+		int initial = limiter.getLimit();
+
+		for (int i = 0; i < 50; i++) {
+			limiter.onSample(20 * MILLIS, limiter.getLimit(), false);
+		}
+		int grown = limiter.getLimit();
+		assertThat(grown).isGreaterThan(initial);
+
+		// Backend saturates: latency x10 while fully loaded
+		for (int i = 0; i < 50; i++) {
+			limiter.onSample(200 * MILLIS, limiter.getLimit(), false);
+		}
+		assertThat(limiter.getLimit()).isLessThan(grown / 2);
+	}
+
+	@Test
+	void overloadAnswersBackOffAndIdleCallsLeaveTheLimit() {
+		GradientLimiter limiter = new GradientLimiter(new ConcurrencyLimitProperties(), 200);
+
+		// Only 1 of 20 slots in use: the backend is not the bottleneck
+		for (int i = 0; i < 20; i++) {
+			limiter.onSample(20 * MILLIS, 1, false);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(20);
+
+		limiter.onSample(5 * MILLIS, 20, true);
+		assertThat(limiter.getLimit()).isEqualTo(18);
+
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(), registry);
+		assertThat(filter.limiter(route(Map.of(ConcurrencyLimitFilter.MAX_LIMIT_METADATA, 0)))).isNull();
+	}
+
+	private static Route route(Map<String, Object> metadata) {
+		return Route.async().id("chatbot-service").uri("http://chatbot-service:9002").predicate(e -> true)
+				.metadata(metadata).build();
+	}
+
+	private static MockServerWebExchange exchange(Route route) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/chatbot/"));
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+		return exchange;
+	}
+}
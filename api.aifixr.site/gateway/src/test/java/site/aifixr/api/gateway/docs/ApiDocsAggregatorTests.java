@@ -0,0 +1,105 @@
+package site.aifixr.api.gateway.docs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiDocsAggregatorTests {
+
+	private static final String USER_DOC = """
+			{"openapi":"3.0.1","paths":{"/user/me":{"get":{"tags":["User"],"operationId":"me",
+			"responses":{"200":{"content":{"application/json":{"schema":{"$ref":"#/components/schemas/UserDto"}}}}}}}},
+			"components":{"schemas":{"UserDto":{"type":"object"}},"securitySchemes":{"bearer":{"type":"http"}}}}
+			""";
+	private static final String OAUTH_DOC = """
+			{"openapi":"3.0.1","paths":{"/kakao/login":{"get":{"operationId":"login"}}},
+			"components":{"schemas":{"UserDto":{"type":"string"}}}}
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final ApiDocsAggregator aggregator = new ApiDocsAggregator(properties(), objectMapper, WebClient.builder());
+
+	@Test
+	void mergesPathsAndNamespacesComponentsPerService() throws Exception {
+		aggregator.update("user", USER_DOC.getBytes(StandardCharsets.UTF_8));
+		aggregator.update("oauth", OAUTH_DOC.getBytes(StandardCharsets.UTF_8));
+		aggregator.rebuild();
+
+		JsonNode merged = objectMapper.readTree(aggregator.getMerged().json());
+		JsonNode me = merged.at("/paths/~1api~1user~1me/get");
+		assertThat(me.at("/tags/0").asText()).isEqualTo("user - User");
+		assertThat(me.at("/operationId").asText()).isEqualTo("user_me");
+		assertThat(me.at("/responses/200/content/application~1json/schema/$ref").asText())
+				.isEqualTo("#/components/schemas/user.UserDto");
+		assertThat(merged.at("/paths/~1api~1oauth~1kakao~1login/get/tags/0").asText()).isEqualTo("oauth");
+		assertThat(merged.at("/components/schemas/user.UserDto/type").asText()).isEqualTo("object");
+		assertThat(merged.at("/components/schemas/oauth.UserDto/type").asText()).isEqualTo("string");
+		assertThat(merged.at("/components/securitySchemes/bearer").isObject()).isTrue();
+	}
+
+	@Test
+	void unchangedDocumentKeepsVersion() {
+		assertThat(aggregator.update("user", USER_DOC.getBytes(StandardCharsets.UTF_8))).isTrue();
+		aggregator.rebuild();
+		String version = aggregator.getMerged().version();
+
+		assertThat(aggregator.update("user", USER_DOC.getBytes(StandardCharsets.UTF_8))).isFalse();
+		assertThat(aggregator.update("user", OAUTH_DOC.getBytes(StandardCharsets.UTF_8))).isTrue();
+		aggregator.rebuild();
+		assertThat(aggregator.getMerged().version()).isNotEqualTo(version);
+	}
+
+	@Test
+	void servesPrecompressedDocumentAndNotModified() throws Exception {
+		aggregator.update("user", USER_DOC.getBytes(StandardCharsets.UTF_8));
+		aggregator.rebuild();
+		ApiDocument merged = aggregator.getMerged();
+
+		ResponseEntity<byte[]> gzip = ApiDocsController.serve(merged, MockServerWebExchange.from(
+				MockServerHttpRequest.get("/api-docs/aggregate").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br")));
+		assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+			assertThat(in.readAllBytes()).isEqualTo(merged.json());
+		}
+
+		ResponseEntity<byte[]> notModified = ApiDocsController.serve(merged, MockServerWebExchange.from(
+				MockServerHttpRequest.get("/api-docs/aggregate").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.ifNoneMatch(gzip.getHeaders().getETag())));
+		assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(notModified.getBody()).isNull();
+
+		// The gzip ETag does not validate the identity form
+		ResponseEntity<byte[]> identity = ApiDocsController.serve(merged, MockServerWebExchange.from(
+				MockServerHttpRequest.get("/api-docs/aggregate").ifNoneMatch(gzip.getHeaders().getETag())));
+		assertThat(identity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(identity.getHeaders().getETag()).isNotEqualTo(gzip.getHeaders().getETag());
+		assertThat(identity.getBody()).isEqualTo(merged.json());
+	}
+
+	private static ApiDocsProperties properties() {
+		ApiDocsProperties properties = new ApiDocsProperties();
+		properties.setServices(List.of(service("user", "/api"), service("oauth", "/api/oauth")));
+		return properties;
+	}
+
+	private static ApiDocsProperties.Service service(String name, String pathPrefix) {
+		ApiDocsProperties.Service service = new ApiDocsProperties.Service();
+		service.setName(name);
+		service.setUrl("http://" + name + "/v3/api-docs");
+		service.setPathPrefix(pathPrefix);
+		return service;
+	}
+}
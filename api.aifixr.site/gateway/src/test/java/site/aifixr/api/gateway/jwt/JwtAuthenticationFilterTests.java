@@ -0,0 +1,102 @@
+package site.aifixr.api.gateway.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTests {
+
+	private static final String SECRET = "test-secret-key-at-least-256-bits-long-for-hs256-algorithm";
+
+	private JwtAuthenticationFilter filter;
+	private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+	private final GatewayFilterChain chain = exchange -> {
+		forwarded.set(exchange);
+		return Mono.empty();
+	};
+
+	@BeforeEach
+	void setUp() {
+		JwtProperties properties = new JwtProperties();
+		properties.setSecret(SECRET);
+		properties.setProtectedPaths(List.of("/api/user/**"));
+		filter = new JwtAuthenticationFilter(properties);
+	}
+
+	@Test
+	void validTokenForwardsTrustedClaims() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/user/me")
+				.header("Authorization", "Bearer " + token("42", "user@aifixr.site"))
+				.header("X-User-Id", "spoofed"));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(forwarded.get()).isNotNull();
+		assertThat(forwarded.get().getRequest().getHeaders().get("X-User-Id")).containsExactly("42");
+		assertThat(forwarded.get().getRequest().getHeaders().getFirst("X-User-Email")).isEqualTo("user@aifixr.site");
+	}
+
+	@Test
+	void invalidTokenIsRejectedBeforeTheChain() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/user/me")
+				.header("Authorization", "Bearer not-a-jwt"));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(forwarded.get()).isNull();
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+	}
+
+	@Test
+	void refreshTokenIsRejected() {
+		String refreshToken = Jwts.builder()
+				.id("refresh-1")
+				.subject("42")
+				.claim("typ", "refresh")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/user/me")
+				.header("Authorization", "Bearer " + refreshToken));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(forwarded.get()).isNull();
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+		assertThat(filter.getCache().size()).isZero();
+	}
+
+	@Test
+	void unprotectedPathStripsSpoofedIdentityHeaders() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/crawler/danawa")
+				.header("X-User-Id", "spoofed"));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(forwarded.get().getRequest().getHeaders().containsKey("X-User-Id")).isFalse();
+	}
+
+	private static String token(String subject, String email) {
+		return Jwts.builder()
+				.subject(subject)
+				.claim("email", email)
+				.claim("typ", "access")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
@@ -0,0 +1,107 @@
+package site.aifixr.api.gateway.metrics;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class GatewayMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void upstreamLatencyIsRecordedPerRouteAndStatusSeries() {
+		UpstreamTimingFilter filter = new UpstreamTimingFilter(registry);
+		MockServerWebExchange exchange = exchange(route("social-service", List.of()));
+
+		filter.filter(exchange, e -> {
+			e.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+			return Mono.empty();
+		}).block();
+
+		Timer timer = registry.get("gateway.route.upstream").tag("route", "social-service").tag("outcome", "5xx")
+				.timer();
+		assertThat(timer.count()).isEqualTo(1);
+		assertThat(exchange.getAttributes()).containsKey(UpstreamTimingFilter.UPSTREAM_LATENCY_ATTR);
+	}
+
+	@Test
+	void routeFiltersAreTimedInPlaceAndCachedPerRoute() {
+		RouteFilterTimer timer = new RouteFilterTimer(registry);
+		AtomicInteger calls = new AtomicInteger();
+		GatewayFilter stripPrefix = new OrderedGatewayFilter(new GatewayFilter() {
+			@Override
+			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+				calls.incrementAndGet();
+				return chain.filter(exchange);
+			}
+
+			@Override
+			public String toString() {
+				return "[StripPrefix parts = 1]";
+			}
+		}, 3);
+		Route route = route("user-service", List.of(stripPrefix));
+
+		Route timed = timer.instrument(route);
+		assertThat(timer.instrument(route)).isSameAs(timed);
+		assertThat(timed.getMetadata()).isEqualTo(route.getMetadata());
+		assertThat(((Ordered) timed.getFilters().get(0)).getOrder()).isEqualTo(3);
+
+		timed.getFilters().get(0).filter(exchange(timed), e -> Mono.empty()).block();
+
+		assertThat(calls).hasValue(1);
+		assertThat(registry.get("gateway.filter.duration").tag("route", "user-service").tag("filter", "StripPrefix")
+				.timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void circuitBreakerTransitionsAreCounted() {
+		CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+		CircuitBreaker existing = circuitBreakers.circuitBreaker("userCircuitBreaker");
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("circuitBreakerRegistry", circuitBreakers);
+		new CircuitBreakerTransitionRecorder(registry, beans.getBeanProvider(CircuitBreakerRegistry.class));
+		CircuitBreaker added = circuitBreakers.circuitBreaker("socialCircuitBreaker");
+
+		existing.transitionToOpenState();
+		existing.transitionToHalfOpenState();
+		added.transitionToOpenState();
+
+		assertThat(registry.get("gateway.circuitbreaker.transitions").tag("name", "userCircuitBreaker")
+				.tag("to", "OPEN").counter().count()).isEqualTo(1);
+		assertThat(registry.get("gateway.circuitbreaker.transitions").tag("name", "userCircuitBreaker")
+				.tag("from", "OPEN").tag("to", "HALF_OPEN").counter().count()).isEqualTo(1);
+		assertThat(registry.get("gateway.circuitbreaker.transitions").tag("name", "socialCircuitBreaker")
+				.counter().count()).isEqualTo(1);
+	}
+
+	private static Route route(String id, List<GatewayFilter> filters) {
+		return Route.async().id(id).uri("http://" + id + ":8080").predicate(exchange -> true).filters(filters)
+				.build();
+	}
+
+	private static MockServerWebExchange exchange(Route route) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/user/me"));
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+		return exchange;
+	}
+}
@@ -0,0 +1,89 @@
+package site.aifixr.api.gateway.pool;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.ResolvableType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.AddressUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownstreamPoolTests {
+
+	private final DownstreamPoolProperties pools = pools();
+
+	@Test
+	void eachDownstreamGetsItsOwnPoolSize() {
+		ConnectionProvider provider = factory().buildConnectionProvider(new HttpClientProperties());
+		try {
+			Map<?, Integer> perHost = provider.maxConnectionsPerHost();
+			assertThat(perHost.get(AddressUtils.createUnresolved("crawler-service", 9001))).isEqualTo(20);
+			// Unset values fall back to the defaults
+			assertThat(perHost.get(AddressUtils.createUnresolved("user", 8080))).isEqualTo(200);
+		} finally {
+			provider.dispose();
+		}
+	}
+
+	@Test
+	void hostsNotListedShareTheDefaultPool() {
+		ConnectionProvider provider = factory().buildConnectionProvider(new HttpClientProperties());
+		try {
+			assertThat(provider.maxConnections()).isEqualTo(200);
+			assertThat(provider.maxConnectionsPerHost()).hasSize(2);
+		} finally {
+			provider.dispose();
+		}
+	}
+
+	@Test
+	void h2cIsUsedOnlyForMarkedDownstreams() {
+		HttpClient httpClient = HttpClient.create();
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		DownstreamRoutingFilter filter = new DownstreamRoutingFilter(httpClient,
+				beans.getBeanProvider(ResolvableType.forClassWithGenerics(List.class, HttpHeadersFilter.class)),
+				new HttpClientProperties(), pools);
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/user/me"));
+
+		HttpClient user = filter.getHttpClient(route("http://user:8080"), exchange);
+		HttpClient crawler = filter.getHttpClient(route("http://crawler-service:9001"), exchange);
+
+		assertThat(user.configuration().protocols()).contains(HttpProtocol.H2C, HttpProtocol.HTTP11);
+		assertThat(crawler).isSameAs(httpClient);
+	}
+
+	private DownstreamHttpClientFactory factory() {
+		return new DownstreamHttpClientFactory(new HttpClientProperties(), new ServerProperties(), null, List.of(),
+				pools);
+	}
+
+	private static DownstreamPoolProperties pools() {
+		DownstreamPoolProperties.Downstream user = new DownstreamPoolProperties.Downstream();
+		user.setHost("user");
+		user.setPort(8080);
+		user.setH2c(true);
+		DownstreamPoolProperties.Downstream crawler = new DownstreamPoolProperties.Downstream();
+		crawler.setHost("crawler-service");
+		crawler.setPort(9001);
+		crawler.setMaxConnections(20);
+		DownstreamPoolProperties properties = new DownstreamPoolProperties();
+		properties.setMetrics(false);
+		properties.setDownstreams(List.of(user, crawler));
+		return properties;
+	}
+
+	private static Route route(String uri) {
+		return Route.async().id("test").uri(uri).predicate(exchange -> true).build();
+	}
+}
@@ -0,0 +1,78 @@
+package site.aifixr.api.gateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HybridRateLimiterTests {
+
+	private static final String ROUTE = "user-service";
+
+	private ReactiveStringRedisTemplate redisTemplate;
+	private HybridRateLimiter rateLimiter;
+
+	@BeforeEach
+	void setUp() {
+		redisTemplate = mock(ReactiveStringRedisTemplate.class);
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setSyncEnabled(false);
+		rateLimiter = new HybridRateLimiter(properties, redisTemplate, null);
+
+		HybridRateLimiter.Config config = new HybridRateLimiter.Config();
+		config.setReplenishRate(1);
+		config.setBurstCapacity(3);
+		rateLimiter.getConfig().put(ROUTE, config);
+	}
+
+	@Test
+	void admitsBurstLocallyThenRejects() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(allowed("10.0.0.1")).isTrue();
+		}
+		assertThat(allowed("10.0.0.1")).isFalse();
+		assertThat(allowed("10.0.0.2")).isTrue();
+		verify(redisTemplate, never()).execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(), anyList());
+	}
+
+	@Test
+	void chargesQuotaUsedByOtherInstances() {
+		when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(), anyList()))
+				.thenReturn(Flux.just(List.of(3L)));
+
+		assertThat(allowed("10.0.0.1")).isTrue();
+		rateLimiter.sync().block();
+
+		// 1 local + 2 remote tokens used in this window
+		assertThat(allowed("10.0.0.1")).isFalse();
+	}
+
+	@Test
+	void failsOpenWhenRedisIsUnavailable() {
+		when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(), anyList()))
+				.thenReturn(Flux.error(new IllegalStateException("connection refused")));
+
+		assertThat(allowed("10.0.0.1")).isTrue();
+		rateLimiter.sync().block();
+
+		assertThat(rateLimiter.isDegraded()).isTrue();
+		assertThat(allowed("10.0.0.1")).isTrue();
+	}
+
+	private boolean allowed(String client) {
+		RateLimiter.Response response = rateLimiter.isAllowed(ROUTE, client).block();
+		return response != null && response.isAllowed();
+	}
+}
@@ -0,0 +1,111 @@
+package site.aifixr.api.gateway.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class BudgetedRetryFilterTests {
+
+	private final RetryBudgetProperties properties = properties();
+	private final BudgetedRetryFilter filter = new BudgetedRetryFilter(properties, new SimpleMeterRegistry());
+
+	@Test
+	void connectionResetIsRetriedAndPaidFromTheBudget() {
+		List<HttpStatus> answers = new ArrayList<>(List.of(HttpStatus.OK));
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/user/me").build());
+
+		filter.filter(exchange, backend(answers, new int[] {1}, null)).block();
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		RetryBudget budget = filter.budget("user-service");
+		assertThat(budget.getRetryCount()).isEqualTo(1);
+		// 10 initial - 1 retry + 0.1 for the success
+		assertThat(budget.getTokens()).isEqualTo(9.1);
+	}
+
+	@Test
+	void postIsRetriedOnlyWithIdempotencyKeyAndReplaysTheBody() {
+		List<String> bodies = new ArrayList<>();
+		MockServerWebExchange plain = exchange(MockServerHttpRequest.post("/api/user/orders").body("{\"id\":1}"));
+		filter.filter(plain, backend(new ArrayList<>(List.of(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.CREATED)),
+				new int[] {0}, bodies)).block();
+		MockServerWebExchange keyed = exchange(MockServerHttpRequest.post("/api/user/orders")
+				.header(BudgetedRetryFilter.IDEMPOTENCY_KEY_HEADER, "order-1")
+				.body("{\"id\":1}"));
+		filter.filter(keyed, backend(new ArrayList<>(List.of(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.CREATED)),
+				new int[] {0}, bodies)).block();
+
+		assertThat(plain.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(keyed.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(bodies).containsExactly("{\"id\":1}", "{\"id\":1}", "{\"id\":1}");
+	}
+
+	@Test
+	void emptyBudgetReturnsTheFailureWithoutRetrying() {
+		properties.setInitialTokens(1);
+		List<HttpStatus> answers = new ArrayList<>(List.of(HttpStatus.BAD_GATEWAY, HttpStatus.BAD_GATEWAY,
+				HttpStatus.BAD_GATEWAY, HttpStatus.OK));
+
+		MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/user/me").build());
+		filter.filter(first, backend(answers, new int[] {0}, null)).block();
+		MockServerWebExchange second = exchange(MockServerHttpRequest.get("/api/user/me").build());
+		filter.filter(second, backend(answers, new int[] {0}, null)).block();
+
+		// The first request spent the only token on a retry that failed again
+		assertThat(first.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+		assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+		RetryBudget budget = filter.budget("user-service");
+		assertThat(budget.getRetryCount()).isEqualTo(1);
+		assertThat(budget.getExhaustedCount()).isEqualTo(2);
+		assertThat(answers).containsExactly(HttpStatus.OK);
+	}
+
+	/**
+	 * Stand-in for the routing filter: fails with a connection reset resets[0] times, then answers in order
+	 */
+	private static GatewayFilterChain backend(List<HttpStatus> answers, int[] resets, List<String> bodies) {
+		return exchange -> {
+			if (resets[0] > 0) {
+				resets[0]--;
+				return Mono.error(new IOException("Connection reset by peer"));
+			}
+			Mono<Void> read = bodies == null ? Mono.empty() : DataBufferUtils.join(exchange.getRequest().getBody())
+					.doOnNext(buffer -> {
+						bodies.add(buffer.toString(StandardCharsets.UTF_8));
+						DataBufferUtils.release(buffer);
+					})
+					.then();
+			return read.then(Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(answers.remove(0))));
+		};
+	}
+
+	private static MockServerWebExchange exchange(MockServerHttpRequest request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+				.id("user-service")
+				.uri("http://user-service:8081")
+				.predicate(e -> true)
+				.build());
+		return exchange;
+	}
+
+	private static RetryBudgetProperties properties() {
+		RetryBudgetProperties properties = new RetryBudgetProperties();
+		properties.setFirstBackoff(0);
+		return properties;
+	}
+}
@@ -0,0 +1,63 @@
+package site.aifixr.api.gateway.route;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutePathIndexTests {
+
+	private final Route login = route("oauth-login");
+	private final Route oauth = route("oauth-service");
+	private final Route docs = route("user-api-docs");
+	private final Route custom = route("custom");
+
+	private final RoutePathIndex index = new RoutePathIndex(List.of(login, docs, oauth, custom), Map.of(
+			"oauth-login", List.of("/api/oauth/{provider:kakao|google|naver}/login", "/api/oauth/{provider}/auth-url"),
+			"user-api-docs", List.of("/api-docs/user"),
+			"oauth-service", List.of("/api/oauth/**")));
+
+	@Test
+	void returnsOnlyRoutesWhosePathsCanMatchInRouteOrder() {
+		assertThat(index.candidates(path("/api/oauth/kakao/login"))).containsExactly(login, oauth, custom);
+		assertThat(index.candidates(path("/api/oauth/kakao/callback"))).containsExactly(oauth, custom);
+		assertThat(index.candidates(path("/api-docs/user/"))).containsExactly(docs, custom);
+	}
+
+	@Test
+	void catchAllMatchesItsOwnPrefix() {
+		assertThat(index.candidates(path("/api/oauth"))).containsExactly(oauth, custom);
+		assertThat(index.candidates(path("/api"))).containsExactly(custom);
+	}
+
+	@Test
+	void emptyInnerSegmentFallsBackToFullScan() {
+		assertThat(index.candidates(path("/api//oauth/kakao/login"))).isNull();
+	}
+
+	@Test
+	void routeWhosePredicateThrowsIsSkipped() {
+		Route broken = Route.async().id("broken").uri("http://localhost").predicate(exchange -> {
+			throw new IllegalStateException("bad predicate");
+		}).build();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/oauth/kakao/login"));
+
+		Route matched = IndexedRoutePredicateHandlerMapping.firstMatch(List.of(broken, login, oauth), exchange).block();
+
+		assertThat(matched).isSameAs(login);
+	}
+
+	private static Route route(String id) {
+		return Route.async().id(id).uri("http://localhost").predicate(exchange -> true).build();
+	}
+
+	private static PathContainer path(String path) {
+		return PathContainer.parsePath(path);
+	}
+}
@@ -0,0 +1,130 @@
+package site.aifixr.api.gateway.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import site.aifixr.api.gateway.compress.CompressionProperties;
+import site.aifixr.api.gateway.compress.ResponseCompressionFilter;
+import site.aifixr.api.gateway.compress.ResponseCompressor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class StreamingResponseFilterTests {
+
+	private static final String TOKEN = "data: {\"token\":\"안녕하세요\"}\n\n".repeat(50);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final StreamingResponseFilter filter = new StreamingResponseFilter(new StreamingProperties(),
+			meterRegistry);
+
+	@Test
+	void eventStreamIsFlushedChunkByChunk() {
+		FlushCountingResponse response = new FlushCountingResponse();
+		ServerWebExchange exchange = exchange(Map.of(), response);
+
+		filter.filter(exchange, backend(MediaType.TEXT_EVENT_STREAM, Flux.just(TOKEN, TOKEN, TOKEN))).block();
+
+		assertThat(response.flushes).hasValue(3);
+		assertThat(response.body()).isEqualTo(TOKEN.repeat(3));
+		assertThat(meterRegistry.get("gateway.route.ttfb").tag("route", "chatbot-service").tag("mode", "stream")
+				.timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void silentStreamIsEndedAfterIdleTimeout() {
+		FlushCountingResponse response = new FlushCountingResponse();
+		ServerWebExchange exchange = exchange(Map.of(StreamingResponseFilter.IDLE_TIMEOUT_METADATA, 50), response);
+
+		filter.filter(exchange, backend(MediaType.TEXT_EVENT_STREAM, Flux.concat(Flux.just(TOKEN), Flux.never())))
+				.block(Duration.ofSeconds(5));
+
+		assertThat(response.body()).isEqualTo(TOKEN);
+		assertThat(meterRegistry.get("gateway.stream.idle.timeouts").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("gateway.stream.active").gauge().value()).isZero();
+	}
+
+	@Test
+	void streamingRouteIsNotCompressed() {
+		ResponseCompressionFilter compression = new ResponseCompressionFilter(
+				new ResponseCompressor(new CompressionProperties()));
+		FlushCountingResponse response = new FlushCountingResponse();
+		ServerWebExchange exchange = exchange(Map.of(StreamingResponseFilter.STREAMING_METADATA, true), response);
+
+		// Chunked text/plain would be gzip-encoded on any other route
+		GatewayFilterChain backend = backend(MediaType.TEXT_PLAIN, Flux.just(TOKEN, TOKEN));
+		filter.filter(exchange, e -> compression.filter(e, backend)).block();
+
+		assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(response.flushes).hasValue(2);
+		assertThat(response.body()).isEqualTo(TOKEN.repeat(2));
+	}
+
+	/**
+	 * Stand-in for NettyWriteResponseFilter: SSE / NDJSON are written with writeAndFlushWith, the rest with writeWith
+	 */
+	private static GatewayFilterChain backend(MediaType contentType, Flux<String> chunks) {
+		return exchange -> {
+			var response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(contentType);
+			Flux<DataBuffer> body = chunks.map(chunk -> response.bufferFactory()
+					.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+			if (StreamingResponseFilter.isStreamingType(contentType)) {
+				return response.writeAndFlushWith(body.map(Flux::just));
+			}
+			return response.writeWith(body);
+		};
+	}
+
+	private static ServerWebExchange exchange(Map<String, Object> metadata, ServerHttpResponse response) {
+		ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/chatbot/ask")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.mutate()
+				.response(response)
+				.build();
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+				.id("chatbot-service")
+				.uri("http://chatbot-service:9002")
+				.predicate(e -> true)
+				.metadata(metadata)
+				.build());
+		return exchange;
+	}
+
+	private static final class FlushCountingResponse extends ServerHttpResponseDecorator {
+		private final AtomicInteger flushes = new AtomicInteger();
+
+		private FlushCountingResponse() {
+			super(new MockServerHttpResponse());
+		}
+
+		private String body() {
+			return ((MockServerHttpResponse) getDelegate()).getBodyAsString().block();
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return super.writeAndFlushWith(Flux.from(body).doOnNext(chunk -> flushes.incrementAndGet()));
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package site.aifixr.api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import site.aifixr.api.oauthservice.jwt.JwtProperties;
+import site.aifixr.api.oauthservice.jwt.JwtTokenProvider;
+import site.aifixr.api.oauthservice.jwt.JwtVerifier;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenProvider 발급/검증 비용
+ * - validateTokenCached   : 검증 완료 토큰 캐시 hit (운영 기본값)
+ * - validateTokenUncached : 캐시 TTL 0으로 매번 HMAC 검증 + 파싱
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+	private static final String SECRET = "benchmark-secret-key-at-least-256-bits-long-for-hs256-algorithm";
+
+	private JwtTokenProvider cachedProvider;
+	private JwtTokenProvider uncachedProvider;
+	private Map<String, Object> claims;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		cachedProvider = provider(10000, 300000L);
+		uncachedProvider = provider(1, 0L);
+		claims = Map.of(
+				"email", "user@aifixr.site",
+				"name", "AIFIXR User",
+				"accountId", "7f1c2a8e-3d4b-3c5a-9e6f-0a1b2c3d4e5f");
+		token = cachedProvider.generateToken("1234567890", claims);
+		cachedProvider.validateToken(token);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return cachedProvider.generateToken("1234567890", claims);
+	}
+
+	@Benchmark
+	public String generateRefreshToken() {
+		return cachedProvider.generateRefreshToken("1234567890");
+	}
+
+	@Benchmark
+	public boolean validateTokenCached() {
+		return cachedProvider.validateToken(token);
+	}
+
+	@Benchmark
+	public boolean validateTokenUncached() {
+		return uncachedProvider.validateToken(token);
+	}
+
+	private static JwtTokenProvider provider(int cacheSize, long cacheTtl) {
+		JwtProperties properties = new JwtProperties();
+		properties.setSecret(SECRET);
+		properties.setVerifiedCacheSize(cacheSize);
+		properties.setVerifiedCacheTtl(cacheTtl);
+		return new JwtTokenProvider(properties, new JwtVerifier(properties));
+	}
+}
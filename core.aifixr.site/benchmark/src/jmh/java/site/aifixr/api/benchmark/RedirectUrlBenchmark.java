@@ -0,0 +1,98 @@
+package site.aifixr.api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import site.aifixr.api.oauthservice.google.GoogleController;
+import site.aifixr.api.oauthservice.google.GoogleService;
+import site.aifixr.api.oauthservice.jwt.JwtProperties;
+import site.aifixr.api.oauthservice.jwt.JwtTokenProvider;
+import site.aifixr.api.oauthservice.jwt.JwtVerifier;
+import site.aifixr.api.oauthservice.kakao.KakaoController;
+import site.aifixr.api.oauthservice.kakao.KakaoService;
+import site.aifixr.api.oauthservice.naver.NaverController;
+import site.aifixr.api.oauthservice.naver.NaverService;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 콜백 성공 시 프론트엔드 리다이렉트 URL 생성 비용 (토큰/사용자 정보 URL 인코딩 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RedirectUrlBenchmark {
+
+	private static final String FRONTEND_URL = "http://localhost:3000/oauth/callback";
+
+	private GoogleService.OAuthUserResponse googleResponse;
+	private KakaoService.OAuthUserResponse kakaoResponse;
+	private NaverService.OAuthUserResponse naverResponse;
+
+	@Setup
+	public void setUp() {
+		JwtProperties properties = new JwtProperties();
+		properties.setSecret("benchmark-secret-key-at-least-256-bits-long-for-hs256-algorithm");
+		JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(properties, new JwtVerifier(properties));
+		Map<String, Object> claims = Map.of("email", "user@aifixr.site", "name", "홍길동");
+		String accessToken = jwtTokenProvider.generateToken("1234567890", claims);
+		String refreshToken = jwtTokenProvider.generateRefreshToken("1234567890");
+
+		googleResponse = GoogleService.OAuthUserResponse.builder()
+				.accessToken(accessToken)
+				.refreshToken(refreshToken)
+				.user(GoogleService.OAuthUserResponse.UserInfo.builder()
+						.id("112233445566778899000")
+						.email("user@aifixr.site")
+						.name("홍길동")
+						.givenName("길동")
+						.familyName("홍")
+						.picture("https://lh3.googleusercontent.com/a/ACg8ocJ-example=s96-c")
+						.locale("ko")
+						.provider("google")
+						.build())
+				.build();
+		kakaoResponse = KakaoService.OAuthUserResponse.builder()
+				.accessToken(accessToken)
+				.refreshToken(refreshToken)
+				.user(KakaoService.OAuthUserResponse.UserInfo.builder()
+						.id("3456789012")
+						.email("user@aifixr.site")
+						.nickname("사용자")
+						.profileImage("http://k.kakaocdn.net/dn/example/img_640x640.jpg")
+						.provider("kakao")
+						.build())
+				.build();
+		naverResponse = NaverService.OAuthUserResponse.builder()
+				.accessToken(accessToken)
+				.refreshToken(refreshToken)
+				.user(NaverService.OAuthUserResponse.UserInfo.builder()
+						.id("32742776")
+						.email("user@aifixr.site")
+						.nickname("사용자")
+						.name("홍길동")
+						.provider("naver")
+						.build())
+				.build();
+	}
+
+	@Benchmark
+	public String googleRedirectUrl() {
+		return GoogleController.buildSuccessRedirectUrl(FRONTEND_URL, googleResponse);
+	}
+
+	@Benchmark
+	public String kakaoRedirectUrl() {
+		return KakaoController.buildSuccessRedirectUrl(FRONTEND_URL, kakaoResponse);
+	}
+
+	@Benchmark
+	public String naverRedirectUrl() {
+		return NaverController.buildSuccessRedirectUrl(FRONTEND_URL, naverResponse);
+	}
+}
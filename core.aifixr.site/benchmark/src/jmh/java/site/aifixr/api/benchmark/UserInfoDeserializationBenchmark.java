@@ -0,0 +1,78 @@
+package site.aifixr.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import site.aifixr.api.oauthservice.google.dto.GoogleUserInfo;
+import site.aifixr.api.oauthservice.kakao.dto.KakaoUserInfo;
+import site.aifixr.api.oauthservice.naver.dto.NaverUserInfo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로바이더 userinfo 응답 역직렬화 비용
+ * RestTemplate 메시지 컨버터와 같은 설정(Jackson2ObjectMapperBuilder)의 ObjectMapper를 사용한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserInfoDeserializationBenchmark {
+
+	private static final byte[] GOOGLE = """
+			{"id":"112233445566778899000","email":"user@aifixr.site","verified_email":true,
+			"name":"AIFIXR User","given_name":"User","family_name":"AIFIXR",
+			"picture":"https://lh3.googleusercontent.com/a/ACg8ocJ-example=s96-c","locale":"ko"}
+			""".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] KAKAO = """
+			{"id":3456789012,"connected_at":"2025-01-01T00:00:00Z",
+			"properties":{"nickname":"사용자","profile_image":"http://k.kakaocdn.net/dn/example/img_640x640.jpg"},
+			"kakao_account":{"profile_nickname_needs_agreement":false,"profile_image_needs_agreement":false,
+			"profile":{"nickname":"사용자","thumbnail_image_url":"http://k.kakaocdn.net/dn/example/img_110x110.jpg",
+			"profile_image_url":"http://k.kakaocdn.net/dn/example/img_640x640.jpg","is_default_image":false},
+			"has_email":true,"email_needs_agreement":false,"is_email_valid":true,"is_email_verified":true,
+			"email":"user@aifixr.site"}}
+			""".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] NAVER = """
+			{"resultcode":"00","message":"success",
+			"response":{"id":"32742776","nickname":"사용자","name":"홍길동","email":"user@aifixr.site",
+			"gender":"M","age":"30-39","birthday":"10-01","profile_image":"https://ssl.pstatic.net/static/pwe/address/img_profile.png"}}
+			""".getBytes(StandardCharsets.UTF_8);
+
+	private ObjectReader googleReader;
+	private ObjectReader kakaoReader;
+	private ObjectReader naverReader;
+
+	@Setup
+	public void setUp() {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		googleReader = objectMapper.readerFor(GoogleUserInfo.class);
+		kakaoReader = objectMapper.readerFor(KakaoUserInfo.class);
+		naverReader = objectMapper.readerFor(NaverUserInfo.class);
+	}
+
+	@Benchmark
+	public GoogleUserInfo googleUserInfo() throws IOException {
+		return googleReader.readValue(GOOGLE);
+	}
+
+	@Benchmark
+	public KakaoUserInfo kakaoUserInfo() throws IOException {
+		return kakaoReader.readValue(KAKAO);
+	}
+
+	@Benchmark
+	public NaverUserInfo naverUserInfo() throws IOException {
+		return naverReader.readValue(NAVER);
+	}
+}
@@ -0,0 +1,132 @@
+package site.aifixr.api.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 목표 처리율로 로그인 흐름을 발생시키는 open-loop 부하 발생기
+ * - 요청 시작 시점을 미리 정해 두고 응답을 기다리지 않고 다음 요청을 보낸다.
+ * - 한 흐름: GET /{provider}/login (state 발급 + state 쿠키) → GET /{provider}/callback?code&state (쿠키 포함)
+ */
+public class CallbackDriver {
+
+	private static final Pattern STATE = Pattern.compile("[?&]state=([^&\"]+)");
+
+	private final LoadTestOptions options;
+	private final LatencyReport report;
+	// 흐름 실행용 (HttpClient는 자체 executor를 사용하므로 종료 대기 중에도 응답을 받을 수 있다)
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final HttpClient client;
+
+	public CallbackDriver(LoadTestOptions options, LatencyReport report) {
+		this.options = options;
+		this.report = report;
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+	}
+
+	/**
+	 * 예열 + 측정 구간 동안 부하 발생 (예열 구간 결과는 기록하지 않음)
+	 */
+	public void run() throws InterruptedException {
+		List<String> providers = options.providers();
+		long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+		for (long i = 0; ; i++) {
+			long intended = start + i * intervalNanos;
+			if (intended >= end) {
+				break;
+			}
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			String provider = providers.get((int) (i % providers.size()));
+			boolean measured = intended >= measureFrom;
+			executor.execute(() -> runFlow(provider, intended, measured));
+		}
+
+		executor.shutdown();
+		if (!executor.awaitTermination(2, TimeUnit.MINUTES)) {
+			executor.shutdownNow();
+		}
+	}
+
+	private void runFlow(String provider, long intendedStart, boolean measured) {
+		String base = options.baseUrl() + "/" + provider;
+		try {
+			HttpResponse<String> login = client.send(get(base + "/login", null), HttpResponse.BodyHandlers.ofString());
+			if (login.statusCode() != 200) {
+				fail(provider, "login_http_" + login.statusCode(), intendedStart, measured);
+				return;
+			}
+			Matcher matcher = STATE.matcher(login.body());
+			String state = matcher.find() ? matcher.group(1) : null;
+
+			// state 쿠키를 브라우저처럼 콜백에 돌려준다 (state는 로그인을 시작한 브라우저에 묶여 있음)
+			String stateCookie = login.headers().firstValue("Set-Cookie")
+					.map(cookie -> cookie.split(";", 2)[0])
+					.orElse(null);
+
+			String callbackUrl = base + "/callback?code=lt-" + UUID.randomUUID()
+					+ (state != null ? "&state=" + URLEncoder.encode(state, StandardCharsets.UTF_8) : "");
+			long callbackStart = System.nanoTime();
+			HttpResponse<Void> callback = client.send(get(callbackUrl, stateCookie),
+					HttpResponse.BodyHandlers.discarding());
+			long finished = System.nanoTime();
+
+			String location = callback.headers().firstValue("Location").orElse("");
+			if (callback.statusCode() / 100 != 3) {
+				fail(provider, "callback_http_" + callback.statusCode(), intendedStart, measured);
+			} else if (location.contains("error=")) {
+				fail(provider, "error_redirect", intendedStart, measured);
+			} else if (measured) {
+				report.recordSuccess(provider, micros(finished - callbackStart), micros(finished - intendedStart));
+			}
+		} catch (IOException e) {
+			fail(provider, "io_" + e.getClass().getSimpleName(), intendedStart, measured);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void fail(String provider, String reason, long intendedStart, boolean measured) {
+		if (measured) {
+			report.recordFailure(provider, reason, micros(System.nanoTime() - intendedStart));
+		}
+	}
+
+	private static HttpRequest get(String url, String cookie) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+				.timeout(Duration.ofSeconds(60))
+				.GET();
+		if (cookie != null) {
+			builder.header("Cookie", cookie);
+		}
+		return builder.build();
+	}
+
+	private static long micros(long nanos) {
+		return Math.max(1L, TimeUnit.NANOSECONDS.toMicros(nanos));
+	}
+}
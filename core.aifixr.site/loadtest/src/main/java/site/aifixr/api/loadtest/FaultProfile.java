@@ -0,0 +1,25 @@
+package site.aifixr.api.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 스탠드인 엔드포인트의 지연/오류 주입 설정
+ *
+ * @param latencyMillis 기본 응답 지연
+ * @param jitterMillis  지연에 더해지는 ± 무작위 편차
+ * @param errorRate     500 응답 비율 (0.0 ~ 1.0)
+ */
+public record FaultProfile(long latencyMillis, long jitterMillis, double errorRate) {
+
+	public long sampleDelayMillis() {
+		if (jitterMillis <= 0) {
+			return Math.max(0L, latencyMillis);
+		}
+		long jitter = ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+		return Math.max(0L, latencyMillis + jitter);
+	}
+
+	public boolean shouldFail() {
+		return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+	}
+}
@@ -0,0 +1,123 @@
+package site.aifixr.api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 프로바이더별 처리량과 지연 시간 히스토그램 (마이크로초 단위 기록)
+ * - callback : 콜백 요청을 보낸 시점부터 응답까지
+ * - flow     : 예정된 시작 시점부터 로그인 URL 조회 + 콜백 완료까지 (coordinated omission 보정)
+ */
+public class LatencyReport {
+
+	private static final double MICROS_PER_MILLI = 1000.0;
+
+	private final Map<String, ProviderStats> stats = new LinkedHashMap<>();
+
+	public LatencyReport(List<String> providers) {
+		for (String provider : providers) {
+			stats.put(provider, new ProviderStats());
+		}
+	}
+
+	public void recordSuccess(String provider, long callbackMicros, long flowMicros) {
+		ProviderStats s = stats.get(provider);
+		s.callback.recordValue(callbackMicros);
+		s.flow.recordValue(flowMicros);
+		s.succeeded.increment();
+	}
+
+	public void recordFailure(String provider, String reason, long flowMicros) {
+		ProviderStats s = stats.get(provider);
+		s.flow.recordValue(flowMicros);
+		s.failures.computeIfAbsent(reason, r -> new LongAdder()).increment();
+	}
+
+	/**
+	 * 요약 출력 + JSON/히스토그램 파일 저장
+	 */
+	public void write(PrintStream out, Path outputDir, double measuredSeconds) throws IOException {
+		Files.createDirectories(outputDir);
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("measuredSeconds", measuredSeconds);
+
+		out.printf("%-8s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+				"provider", "ok", "failed", "ok/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+		Map<String, Object> providers = new LinkedHashMap<>();
+		for (Map.Entry<String, ProviderStats> entry : stats.entrySet()) {
+			String provider = entry.getKey();
+			ProviderStats s = entry.getValue();
+			Histogram callback = s.callback.getIntervalHistogram();
+			Histogram flow = s.flow.getIntervalHistogram();
+			long ok = s.succeeded.sum();
+			long failed = s.failures.values().stream().mapToLong(LongAdder::sum).sum();
+			double throughput = measuredSeconds > 0 ? ok / measuredSeconds : 0;
+
+			out.printf("%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+					provider, ok, failed, throughput,
+					millis(callback, 50), millis(callback, 90), millis(callback, 99), millis(callback, 99.9),
+					callback.getMaxValue() / MICROS_PER_MILLI);
+
+			Map<String, Object> failures = new LinkedHashMap<>();
+			s.failures.forEach((reason, count) -> failures.put(reason, count.sum()));
+
+			Map<String, Object> providerJson = new LinkedHashMap<>();
+			providerJson.put("succeeded", ok);
+			providerJson.put("failed", failed);
+			providerJson.put("throughputPerSecond", throughput);
+			providerJson.put("failures", failures);
+			providerJson.put("callbackLatencyMs", summary(callback));
+			providerJson.put("flowLatencyMs", summary(flow));
+			providers.put(provider, providerJson);
+
+			writeHistogram(outputDir.resolve(provider + "-callback.hgrm"), callback);
+			writeHistogram(outputDir.resolve(provider + "-flow.hgrm"), flow);
+		}
+		json.put("providers", providers);
+
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+				.writeValue(outputDir.resolve("results.json").toFile(), json);
+		out.println("Results written to " + outputDir.toAbsolutePath());
+	}
+
+	private static Map<String, Object> summary(Histogram histogram) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("count", histogram.getTotalCount());
+		summary.put("mean", histogram.getTotalCount() > 0 ? histogram.getMean() / MICROS_PER_MILLI : 0);
+		summary.put("p50", millis(histogram, 50));
+		summary.put("p90", millis(histogram, 90));
+		summary.put("p99", millis(histogram, 99));
+		summary.put("p99_9", millis(histogram, 99.9));
+		summary.put("max", histogram.getMaxValue() / MICROS_PER_MILLI);
+		return summary;
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+	}
+
+	private static void writeHistogram(Path file, Histogram histogram) throws IOException {
+		try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+			histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+		}
+	}
+
+	private static final class ProviderStats {
+		private final Recorder callback = new Recorder(3);
+		private final Recorder flow = new Recorder(3);
+		private final LongAdder succeeded = new LongAdder();
+		private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+	}
+}
@@ -0,0 +1,55 @@
+package site.aifixr.api.loadtest;
+
+import java.time.Duration;
+
+/**
+ * 로그인 흐름 부하 테스트
+ *
+ * <pre>
+ * ./gradlew :loadtest:loadTest -PloadTestArgs="--rate=100 --duration=60 --latency-ms=80 --error-rate=0.01"
+ * </pre>
+ *
+ * 1. 카카오/구글/네이버 토큰·사용자 정보 스탠드인 서버 시작
+ * 2. 스탠드인을 바라보는 oauthservice를 별도 JVM으로 실행 (--target 지정 시 생략하고 환경 변수만 출력)
+ * 3. 목표 처리율로 로그인 URL 조회 → 콜백 흐름 발생
+ * 4. 프로바이더별 처리량/지연 시간 히스토그램 출력 및 저장
+ */
+public class LoadTestMain {
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+
+		try (ProviderStandIn standIn = new ProviderStandIn(options.standInPort(), options.faults(), options.users())) {
+			standIn.start();
+			System.out.println("Provider stand-ins listening on " + standIn.baseUrl());
+
+			OAuthServiceProcess service = null;
+			if (options.target() == null) {
+				if (options.serviceJar() == null) {
+					throw new IllegalArgumentException("--service-jar or --target is required");
+				}
+				service = OAuthServiceProcess.start(options.serviceJar(), options.servicePort(), options.serviceJvmArgs(),
+						standIn.serviceArguments(), options.output().resolve("oauthservice.log"));
+				service.awaitReady(Duration.ofMinutes(2));
+				System.out.println("oauthservice started on " + options.baseUrl());
+			} else {
+				// 게이트웨이 경유 측정 시: 대상 oauthservice를 아래 환경 변수로 재시작해야 스탠드인을 사용한다.
+				System.out.println("Using running target " + options.baseUrl()
+						+ "; start oauthservice with these environment variables:");
+				standIn.serviceEnvironment().forEach((key, value) -> System.out.println("  " + key + "=" + value));
+			}
+
+			try {
+				LatencyReport report = new LatencyReport(options.providers());
+				System.out.printf("Driving %.1f logins/s for %ds (warm-up %ds) across %s%n",
+						options.rate(), options.durationSeconds(), options.warmupSeconds(), options.providers());
+				new CallbackDriver(options, report).run();
+				report.write(System.out, options.output(), options.durationSeconds());
+			} finally {
+				if (service != null) {
+					service.close();
+				}
+			}
+		}
+	}
+}
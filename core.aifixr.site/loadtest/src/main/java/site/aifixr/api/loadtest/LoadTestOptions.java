@@ -0,0 +1,96 @@
+package site.aifixr.api.loadtest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 옵션 (--key=value)
+ *
+ * <pre>
+ * --providers=kakao,google,naver   대상 프로바이더
+ * --rate=50                        초당 콜백 요청 수 (전체, 프로바이더별로 균등 분배)
+ * --duration=60 / --warmup=10      측정 시간 / 측정 전 예열 시간 (초)
+ * --latency-ms=80 --jitter-ms=30   스탠드인 응답 지연 / 편차
+ * --error-rate=0.01                스탠드인 500 응답 비율
+ * --kakao.latency-ms=120           프로바이더별 개별 설정 (latency-ms, jitter-ms, error-rate)
+ * --stand-in-port=18900            스탠드인 서버 포트
+ * --service-jar=...                직접 띄울 oauthservice bootJar (기본: Gradle loadTest 태스크가 전달)
+ * --service-port=18085             직접 띄운 oauthservice 포트
+ * --service-jvm-args=-Xmx512m,...  직접 띄운 oauthservice JVM 옵션 (쉼표로 구분)
+ * --target=http://localhost:8080/api/oauth
+ *                                  이미 실행 중인 oauthservice 또는 게이트웨이 경로로 요청 (프로세스를 띄우지 않음)
+ * --users=1000                     스탠드인이 돌려주는 사용자 수
+ * --output=build/loadtest          결과(JSON, HdrHistogram .hgrm) 저장 위치
+ * </pre>
+ */
+public record LoadTestOptions(
+		List<String> providers,
+		double rate,
+		long durationSeconds,
+		long warmupSeconds,
+		Map<String, FaultProfile> faults,
+		int standInPort,
+		Path serviceJar,
+		int servicePort,
+		List<String> serviceJvmArgs,
+		String target,
+		int users,
+		Path output) {
+
+	public static LoadTestOptions parse(String[] args) {
+		Map<String, String> values = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Unsupported argument: " + arg + " (expected --key=value)");
+			}
+			int separator = arg.indexOf('=');
+			values.put(arg.substring(2, separator), arg.substring(separator + 1));
+		}
+
+		List<String> providers = Arrays.stream(values.getOrDefault("providers", "kakao,google,naver").split(","))
+				.map(String::trim)
+				.filter(p -> !p.isEmpty())
+				.toList();
+
+		Map<String, FaultProfile> faults = new HashMap<>();
+		for (String provider : List.of("kakao", "google", "naver")) {
+			faults.put(provider, new FaultProfile(
+					Long.parseLong(value(values, provider, "latency-ms", "80")),
+					Long.parseLong(value(values, provider, "jitter-ms", "30")),
+					Double.parseDouble(value(values, provider, "error-rate", "0"))));
+		}
+
+		String serviceJar = values.get("service-jar");
+		return new LoadTestOptions(
+				providers,
+				Double.parseDouble(values.getOrDefault("rate", "50")),
+				Long.parseLong(values.getOrDefault("duration", "60")),
+				Long.parseLong(values.getOrDefault("warmup", "10")),
+				Map.copyOf(faults),
+				Integer.parseInt(values.getOrDefault("stand-in-port", "18900")),
+				serviceJar != null ? Path.of(serviceJar) : null,
+				Integer.parseInt(values.getOrDefault("service-port", "18085")),
+				Arrays.stream(values.getOrDefault("service-jvm-args", "").split(","))
+						.map(String::trim)
+						.filter(a -> !a.isEmpty())
+						.toList(),
+				values.get("target"),
+				Integer.parseInt(values.getOrDefault("users", "1000")),
+				Path.of(values.getOrDefault("output", "build/loadtest")));
+	}
+
+	public String baseUrl() {
+		return target != null ? stripTrailingSlash(target) : "http://localhost:" + servicePort;
+	}
+
+	private static String value(Map<String, String> values, String provider, String key, String defaultValue) {
+		return values.getOrDefault(provider + "." + key, values.getOrDefault(key, defaultValue));
+	}
+
+	private static String stripTrailingSlash(String url) {
+		return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+	}
+}
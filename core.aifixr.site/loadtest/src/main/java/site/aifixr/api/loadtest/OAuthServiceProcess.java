@@ -0,0 +1,94 @@
+package site.aifixr.api.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스탠드인을 바라보도록 설정한 oauthservice를 별도 JVM으로 실행
+ * 부하 발생기와 같은 JVM에서 돌리지 않아야 측정값이 서로 간섭하지 않는다.
+ */
+public class OAuthServiceProcess implements AutoCloseable {
+
+	private final Process process;
+	private final String baseUrl;
+
+	private OAuthServiceProcess(Process process, String baseUrl) {
+		this.process = process;
+		this.baseUrl = baseUrl;
+	}
+
+	public static OAuthServiceProcess start(Path serviceJar, int port, List<String> jvmArguments,
+			List<String> serviceArguments, Path logFile)
+			throws IOException {
+		if (!Files.isRegularFile(serviceJar)) {
+			throw new IllegalArgumentException("oauthservice jar not found: " + serviceJar);
+		}
+		Files.createDirectories(logFile.getParent());
+
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(jvmArguments);
+		command.add("-jar");
+		command.add(serviceJar.toString());
+		command.add("--server.port=" + port);
+		// DB 없이도 로그인 경로만 측정할 수 있도록 계정 기록은 끄고 로그는 INFO로 낮춘다.
+		command.add("--oauth.account.enabled=false");
+		command.add("--logging.level.site.aifixr.api.oauthservice=INFO");
+		command.addAll(serviceArguments);
+
+		Process process = new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(logFile.toFile())
+				.start();
+		return new OAuthServiceProcess(process, "http://localhost:" + port);
+	}
+
+	/**
+	 * 로그인 URL 엔드포인트가 응답할 때까지 대기
+	 */
+	public void awaitReady(Duration timeout) throws InterruptedException {
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+		HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + "/kakao/login"))
+				.timeout(Duration.ofSeconds(2))
+				.GET()
+				.build();
+		long deadline = System.nanoTime() + timeout.toNanos();
+		while (System.nanoTime() < deadline) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("oauthservice exited with code " + process.exitValue());
+			}
+			try {
+				client.send(probe, HttpResponse.BodyHandlers.discarding());
+				return;
+			} catch (IOException e) {
+				Thread.sleep(500);
+			}
+		}
+		throw new IllegalStateException("oauthservice did not become ready within " + timeout);
+	}
+
+	/**
+	 * 종료 대기 중 인터럽트되면 강제 종료하고 인터럽트 상태를 되돌린다.
+	 */
+	@Override
+	public void close() {
+		process.destroy();
+		try {
+			if (!process.waitFor(15, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		} catch (InterruptedException e) {
+			process.destroyForcibly();
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package site.aifixr.api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 카카오/구글/네이버 토큰·사용자 정보 엔드포인트 스탠드인
+ * - 모든 응답에 FaultProfile의 지연/오류를 주입
+ * - access_token에 사용자 번호를 담아 userinfo가 같은 사용자를 돌려준다.
+ * - 구글 토큰 응답에는 자체 RSA 키로 서명한 id_token을 포함 (JWKS는 /google/certs)
+ */
+public class ProviderStandIn implements AutoCloseable {
+
+	static final String GOOGLE_CLIENT_ID = "loadtest-google-client";
+	private static final String KEY_ID = "loadtest-key";
+
+	private final Map<String, FaultProfile> faults;
+	private final int users;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final KeyPair signingKey;
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	public ProviderStandIn(int port, Map<String, FaultProfile> faults, int users) throws IOException {
+		this.faults = faults;
+		this.users = Math.max(1, users);
+		this.signingKey = generateKeyPair();
+		this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+		server.setExecutor(executor);
+
+		server.createContext("/kakao/oauth/token", faulty("kakao", exchange -> tokenResponse("kakao", false)));
+		server.createContext("/kakao/v2/user/me", faulty("kakao", exchange -> kakaoUser(userIndex(exchange))));
+		server.createContext("/naver/oauth2.0/token", faulty("naver", exchange -> tokenResponse("naver", false)));
+		server.createContext("/naver/v1/nid/me", faulty("naver", exchange -> naverUser(userIndex(exchange))));
+		server.createContext("/google/token", faulty("google", exchange -> tokenResponse("google", true)));
+		server.createContext("/google/userinfo", faulty("google", exchange -> googleUser(userIndex(exchange))));
+		server.createContext("/google/certs", exchange -> respond(exchange, 200, jwks()));
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	public String baseUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * oauthservice 실행 인자 (--oauth.*=...)
+	 */
+	public List<String> serviceArguments() {
+		List<String> arguments = new ArrayList<>();
+		serviceProperties().forEach((key, value) -> arguments.add("--" + key + "=" + value));
+		return arguments;
+	}
+
+	/**
+	 * 이미 실행 중인 oauthservice를 스탠드인으로 향하게 하는 환경 변수 (Spring relaxed binding)
+	 */
+	public Map<String, String> serviceEnvironment() {
+		Map<String, String> environment = new LinkedHashMap<>();
+		serviceProperties().forEach((key, value) ->
+				environment.put(key.replace("-", "").replace('.', '_').toUpperCase(), value));
+		return environment;
+	}
+
+	private Map<String, String> serviceProperties() {
+		String base = baseUrl();
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("oauth.kakao.client-id", "loadtest-kakao-client");
+		properties.put("oauth.kakao.client-secret", "loadtest");
+		properties.put("oauth.kakao.token-uri", base + "/kakao/oauth/token");
+		properties.put("oauth.kakao.user-info-uri", base + "/kakao/v2/user/me");
+		properties.put("oauth.naver.client-id", "loadtest-naver-client");
+		properties.put("oauth.naver.client-secret", "loadtest");
+		properties.put("oauth.naver.token-uri", base + "/naver/oauth2.0/token");
+		properties.put("oauth.naver.user-info-uri", base + "/naver/v1/nid/me");
+		properties.put("oauth.google.client-id", GOOGLE_CLIENT_ID);
+		properties.put("oauth.google.client-secret", "loadtest");
+		properties.put("oauth.google.token-uri", base + "/google/token");
+		properties.put("oauth.google.user-info-uri", base + "/google/userinfo");
+		properties.put("oauth.google.jwks-uri", base + "/google/certs");
+		return properties;
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.close();
+	}
+
+	private HttpHandler faulty(String provider, Responder responder) {
+		FaultProfile fault = faults.get(provider);
+		return exchange -> {
+			try (InputStream body = exchange.getRequestBody()) {
+				body.readAllBytes();
+			}
+			try {
+				Thread.sleep(fault.sampleDelayMillis());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (fault.shouldFail()) {
+				respond(exchange, 500, "{\"error\":\"server_error\",\"error_description\":\"injected fault\"}");
+				return;
+			}
+			respond(exchange, 200, responder.respond(exchange));
+		};
+	}
+
+	private String tokenResponse(String provider, boolean withIdToken) throws IOException {
+		int user = ThreadLocalRandom.current().nextInt(users);
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("access_token", "at-" + provider + "-" + user);
+		body.put("token_type", "bearer");
+		body.put("refresh_token", "rt-" + provider + "-" + user);
+		body.put("expires_in", 3600);
+		if (withIdToken) {
+			body.put("scope", "openid profile email");
+			body.put("id_token", idToken(user));
+		}
+		return objectMapper.writeValueAsString(body);
+	}
+
+	private String idToken(int user) {
+		long now = System.currentTimeMillis();
+		return Jwts.builder()
+				.header().keyId(KEY_ID).and()
+				.issuer("https://accounts.google.com")
+				.audience().add(GOOGLE_CLIENT_ID).and()
+				.subject(googleId(user))
+				.claim("email", "google-user-" + user + "@loadtest.aifixr.site")
+				.claim("email_verified", true)
+				.claim("name", "Google User " + user)
+				.issuedAt(new Date(now))
+				.expiration(new Date(now + 3_600_000L))
+				.signWith(signingKey.getPrivate())
+				.compact();
+	}
+
+	private String kakaoUser(int user) throws IOException {
+		return objectMapper.writeValueAsString(Map.of(
+				"id", 3_000_000_000L + user,
+				"connected_at", "2025-01-01T00:00:00Z",
+				"kakao_account", Map.of(
+						"has_email", true,
+						"email", "kakao-user-" + user + "@loadtest.aifixr.site",
+						"profile", Map.of(
+								"nickname", "카카오 사용자 " + user,
+								"profile_image_url", "http://k.kakaocdn.net/dn/loadtest/img_640x640.jpg"))));
+	}
+
+	private String naverUser(int user) throws IOException {
+		return objectMapper.writeValueAsString(Map.of(
+				"resultcode", "00",
+				"message", "success",
+				"response", Map.of(
+						"id", "naver-" + user,
+						"email", "naver-user-" + user + "@loadtest.aifixr.site",
+						"nickname", "네이버 사용자 " + user,
+						"name", "사용자" + user)));
+	}
+
+	private String googleUser(int user) throws IOException {
+		return objectMapper.writeValueAsString(Map.of(
+				"id", googleId(user),
+				"email", "google-user-" + user + "@loadtest.aifixr.site",
+				"verified_email", true,
+				"name", "Google User " + user));
+	}
+
+	private String jwks() throws IOException {
+		return objectMapper.writeValueAsString(Map.of("keys", List.of(
+				Jwks.builder().key((RSAPublicKey) signingKey.getPublic()).id(KEY_ID).build())));
+	}
+
+	private static String googleId(int user) {
+		return String.valueOf(100_000_000_000_000_000L + user);
+	}
+
+	private int userIndex(HttpExchange exchange) {
+		String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+		if (authorization != null) {
+			int separator = authorization.lastIndexOf('-');
+			try {
+				return Integer.parseInt(authorization.substring(separator + 1));
+			} catch (NumberFormatException e) {
+				// 알 수 없는 토큰이면 임의 사용자
+			}
+		}
+		return ThreadLocalRandom.current().nextInt(users);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static KeyPair generateKeyPair() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(2048);
+			return generator.generateKeyPair();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("RSA is not available", e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Responder {
+		String respond(HttpExchange exchange) throws IOException;
+	}
+}
@@ -2,8 +2,10 @@ package site.aifixr.api.oauthservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class OauthServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,63 @@
+package site.aifixr.api.oauthservice.account;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import site.aifixr.api.oauthservice.jwt.JwtTokenProvider;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/account")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountController {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AccountService accountService;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    /**
+     * 다른 프로바이더 계정 연결
+     * POST /account/link  Authorization: Bearer {현재 계정 토큰}  {"linkToken": "..."}
+     * linkToken은 연결할 프로바이더로 새로 로그인해 받은 Access Token (두 식별자를 모두 소유했음을 증명)
+     */
+    @PostMapping("/link")
+    public ResponseEntity<Map<String, String>> link(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) Map<String, String> body) {
+        Optional<Claims> current = jwtTokenProvider.resolveClaims(bearerToken(authorization));
+        Optional<Claims> linked = jwtTokenProvider.resolveClaims(body != null ? body.get("linkToken") : null);
+        if (current.isEmpty() || linked.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        String accountId = current.get().get("accountId", String.class);
+        String provider = linked.get().get("provider", String.class);
+        String providerId = linked.get().getSubject();
+        if (accountId == null || provider == null || providerId == null) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Tokens do not carry an account or provider"));
+        }
+
+        if (!accountService.link(accountId, provider, providerId,
+                linked.get().get("email", String.class), linked.get().get("name", String.class))) {
+            log.warn("Account link for {} dropped: account buffer is full", provider);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Account linking is temporarily unavailable"));
+        }
+        return ResponseEntity.ok(Map.of("accountId", accountId, "provider", provider));
+    }
+
+    private static String bearerToken(String authorization) {
+        return authorization != null && authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length())
+                : null;
+    }
+}
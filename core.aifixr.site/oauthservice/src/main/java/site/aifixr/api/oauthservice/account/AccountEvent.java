@@ -0,0 +1,29 @@
+package site.aifixr.api.oauthservice.account;
+
+/**
+ * write-behind 버퍼에 쌓이는 계정 이벤트
+ *
+ * @param type        LOGIN: 로그인 기록, LINK: 다른 계정으로 연결
+ * @param provider    kakao / google / naver
+ * @param providerId  프로바이더의 사용자 ID
+ * @param accountId   내부 계정 ID
+ * @param occurredAt  발생 시각 (epoch 밀리초)
+ */
+public record AccountEvent(
+        Type type,
+        String provider,
+        String providerId,
+        String accountId,
+        String email,
+        String nickname,
+        String profileImage,
+        long occurredAt) {
+
+    public enum Type {
+        LOGIN, LINK
+    }
+
+    public String identityKey() {
+        return AccountService.identityKey(provider, providerId);
+    }
+}
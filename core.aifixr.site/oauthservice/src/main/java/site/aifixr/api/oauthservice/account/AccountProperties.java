@@ -0,0 +1,23 @@
+package site.aifixr.api.oauthservice.account;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "oauth.account")
+@Getter
+@Setter
+public class AccountProperties {
+    private boolean enabled = true; // false면 계정 저장 없이 결정적 ID만 사용
+    private int bufferCapacity = 10000; // write-behind 버퍼 최대 이벤트 수
+    private int batchSize = 200; // 한 번에 flush할 최대 이벤트 수
+    private long flushInterval = 500L; // flush 주기 (밀리초)
+    private long retryBackoff = 5000L; // flush 실패 후 재시도 대기 (밀리초)
+    private int cacheSize = 50000; // (provider, providerId) → accountId 캐시 최대 개수
+    private long lookupTimeout = 200L; // 백그라운드 DB 조회 쿼리 타임아웃 (밀리초, 초 단위로 올림)
+    private int lookupConcurrency = 2; // 동시에 실행하는 DB 조회 수 (커넥션 풀보다 작게)
+    private int lookupQueueCapacity = 200; // 조회 대기열 최대 길이 (가득 차면 조회를 건너뛰고 기본 ID 사용)
+    private boolean initializeSchema = true; // 테이블 자동 생성
+}
@@ -0,0 +1,212 @@
+package site.aifixr.api.oauthservice.account;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (provider, providerId) → 내부 계정 매핑
+ * - 조회: 캐시 → (miss) provider 기반 결정적 UUID를 바로 반환하고, DB 조회는 백그라운드에서 캐시를 채운다
+ * - 기록: 로그인/계정 연결 이벤트를 AccountWriter 버퍼에 넣고 바로 반환
+ * 로그인 지연 시간이 DB 상태에 묶이지 않도록 로그인 경로에서는 DB를 기다리지 않는다.
+ * 결정적 UUID와 다른 값은 연결된 식별자뿐이므로 기동 시 연결 목록을 캐시에 미리 올려 둔다.
+ * 백그라운드 조회는 크기가 고정된 전용 스레드에서 JDBC 쿼리 타임아웃을 걸고 실행하며, 대기열이 가득 차면 건너뛴다
+ * (커넥션 풀 Neon maximum-pool-size: 5를 잠식하지 않도록).
+ */
+@Service
+@Slf4j
+public class AccountService {
+    private static final String SCHEMA = "db/oauth_account.sql";
+    private static final String SELECT_ACCOUNT_ID =
+            "SELECT account_id FROM oauth_identity WHERE provider = ? AND provider_id = ?";
+    private static final String SELECT_LINKED_IDENTITIES =
+            "SELECT provider, provider_id, account_id FROM oauth_identity WHERE linked_at IS NOT NULL "
+                    + "ORDER BY linked_at DESC LIMIT ?";
+
+    private final AccountProperties accountProperties;
+    private final AccountWriter accountWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ThreadPoolExecutor lookupExecutor;
+    private final IdentityCache identityCache;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public AccountService(AccountProperties accountProperties, AccountWriter accountWriter,
+                          JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.accountProperties = accountProperties;
+        this.accountWriter = accountWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        int concurrency = Math.max(1, accountProperties.getLookupConcurrency());
+        // 대기열까지 가득 차면 RejectedExecutionException → 이번 조회는 건너뜀
+        this.lookupExecutor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, accountProperties.getLookupQueueCapacity())),
+                Thread.ofPlatform().daemon().name("account-lookup-", 0).factory());
+        this.identityCache = new IdentityCache(accountProperties.getCacheSize());
+    }
+
+    /**
+     * 테이블 생성 후 연결된 식별자를 백그라운드로 캐시에 적재
+     */
+    @PostConstruct
+    public void start() {
+        if (!accountProperties.isEnabled()) {
+            return;
+        }
+        initializeSchema();
+        try {
+            lookupExecutor.execute(this::warmLinkedIdentities);
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipped linked identity warm-up: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 테이블 생성 (DB 연결 실패 시에도 애플리케이션 기동은 계속한다)
+     */
+    private void initializeSchema() {
+        if (!accountProperties.isInitializeSchema()) {
+            return;
+        }
+        try {
+            DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)), dataSource);
+        } catch (Exception e) {
+            log.warn("Failed to initialize account schema: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    /**
+     * 로그인 기록 후 내부 계정 ID 반환 (DB를 기다리지 않음)
+     */
+    public String recordLogin(String provider, String providerId, String email, String nickname, String profileImage) {
+        String accountId = resolveAccountId(provider, providerId);
+        accountWriter.enqueue(new AccountEvent(AccountEvent.Type.LOGIN, provider, providerId, accountId,
+                email, nickname, profileImage, System.currentTimeMillis()));
+        return accountId;
+    }
+
+    /**
+     * 다른 프로바이더 식별자를 기존 계정에 연결
+     *
+     * @return 버퍼가 가득 차서 기록하지 못했으면 false (캐시도 바꾸지 않음)
+     */
+    public boolean link(String accountId, String provider, String providerId, String email, String nickname) {
+        if (!accountWriter.enqueue(new AccountEvent(AccountEvent.Type.LINK, provider, providerId, accountId,
+                email, nickname, null, System.currentTimeMillis()))) {
+            return false;
+        }
+        identityCache.put(identityKey(provider, providerId), accountId);
+        return true;
+    }
+
+    /**
+     * 내부 계정 ID 조회
+     * 캐시 miss면 결정적 UUID를 반환하고 백그라운드 조회로 캐시를 채운다.
+     */
+    public String resolveAccountId(String provider, String providerId) {
+        String key = identityKey(provider, providerId);
+        String cached = identityCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (!accountProperties.isEnabled()) {
+            String accountId = defaultAccountId(provider, providerId);
+            identityCache.put(key, accountId);
+            return accountId;
+        }
+        if (refreshing.add(key)) {
+            try {
+                lookupExecutor.execute(() -> {
+                    try {
+                        refresh(provider, providerId);
+                    } finally {
+                        refreshing.remove(key);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key);
+                log.debug("Skipped account lookup for {}: lookup queue is full", provider);
+            }
+        }
+        return defaultAccountId(provider, providerId);
+    }
+
+    public IdentityCache getIdentityCache() {
+        return identityCache;
+    }
+
+    /**
+     * 신규 식별자의 계정 ID (재시작/DB 장애와 무관하게 항상 같은 값)
+     */
+    public static String defaultAccountId(String provider, String providerId) {
+        return UUID.nameUUIDFromBytes(identityKey(provider, providerId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    static String identityKey(String provider, String providerId) {
+        return provider + ":" + providerId;
+    }
+
+    /**
+     * DB 조회 결과로 캐시 채우기 (등록되지 않은 식별자는 기본 ID)
+     * 조회 중에 link()가 먼저 캐시에 넣은 값은 덮어쓰지 않는다.
+     */
+    void refresh(String provider, String providerId) {
+        try {
+            List<String> accountIds = jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_ACCOUNT_ID);
+                statement.setQueryTimeout(queryTimeoutSeconds());
+                statement.setString(1, provider);
+                statement.setString(2, providerId);
+                return statement;
+            }, (rs, rowNum) -> rs.getString(1));
+            identityCache.putIfAbsent(identityKey(provider, providerId),
+                    accountIds.isEmpty() ? defaultAccountId(provider, providerId) : accountIds.get(0));
+        } catch (Exception e) {
+            log.warn("Account lookup for {} failed: {}", provider, e.getMessage());
+        }
+    }
+
+    /**
+     * 최근 연결된 식별자를 캐시 크기만큼 적재
+     */
+    void warmLinkedIdentities() {
+        try {
+            jdbcTemplate.query(SELECT_LINKED_IDENTITIES, (RowCallbackHandler) rs -> identityCache.putIfAbsent(
+                    identityKey(rs.getString(1), rs.getString(2)), rs.getString(3)),
+                    accountProperties.getCacheSize());
+        } catch (Exception e) {
+            log.warn("Failed to load linked identities: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * JDBC 쿼리 타임아웃은 초 단위라 lookup-timeout을 올림
+     */
+    private int queryTimeoutSeconds() {
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(accountProperties.getLookupTimeout() + 999));
+    }
+}
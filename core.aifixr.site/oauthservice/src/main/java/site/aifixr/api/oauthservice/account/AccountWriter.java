@@ -0,0 +1,224 @@
+package site.aifixr.api.oauthservice.account;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 계정 이벤트 write-behind 기록기
+ * - 로그인 스레드는 버퍼(ArrayBlockingQueue)에 넣고 바로 반환 (가득 차면 버리고 카운트)
+ * - 백그라운드 스레드가 flushInterval마다 모아서 JDBC batch upsert
+ * - 같은 배치 안의 중복 이벤트는 (유형, provider, providerId)별 마지막 것만 기록
+ * - DB 커넥션은 flush 한 번에 하나만 사용하므로 작은 풀(Neon maximum-pool-size: 5)도 잠식하지 않는다.
+ */
+@Component
+@Slf4j
+public class AccountWriter {
+    private static final String UPSERT_ACCOUNT =
+            "INSERT INTO oauth_account (id, email, nickname, created_at, last_login_at) VALUES (?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (id) DO UPDATE SET "
+                    + "email = COALESCE(EXCLUDED.email, oauth_account.email), "
+                    + "nickname = COALESCE(EXCLUDED.nickname, oauth_account.nickname), "
+                    + "last_login_at = GREATEST(EXCLUDED.last_login_at, oauth_account.last_login_at)";
+    private static final String INSERT_IDENTITY =
+            "INSERT INTO oauth_identity (provider, provider_id, account_id, email, nickname, profile_image, "
+                    + "created_at, last_login_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) ";
+    // 로그인은 기존 연결(account_id)을 바꾸지 않는다.
+    private static final String UPSERT_IDENTITY_LOGIN = INSERT_IDENTITY
+            + "ON CONFLICT (provider, provider_id) DO UPDATE SET "
+            + "email = COALESCE(EXCLUDED.email, oauth_identity.email), "
+            + "nickname = COALESCE(EXCLUDED.nickname, oauth_identity.nickname), "
+            + "profile_image = COALESCE(EXCLUDED.profile_image, oauth_identity.profile_image), "
+            + "last_login_at = GREATEST(EXCLUDED.last_login_at, oauth_identity.last_login_at)";
+    // 연결은 account_id를 바꾸고 linked_at을 남긴다 (기동 시 캐시 적재 대상)
+    private static final String UPSERT_IDENTITY_LINK =
+            "INSERT INTO oauth_identity (provider, provider_id, account_id, email, nickname, profile_image, "
+                    + "created_at, last_login_at, linked_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (provider, provider_id) DO UPDATE SET "
+                    + "account_id = EXCLUDED.account_id, linked_at = EXCLUDED.linked_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountProperties accountProperties;
+    private final BlockingQueue<AccountEvent> buffer;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AccountWriter(JdbcTemplate jdbcTemplate, AccountProperties accountProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accountProperties = accountProperties;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, accountProperties.getBufferCapacity()));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!accountProperties.isEnabled()) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("account-writer").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(accountProperties.getFlushInterval() * 4);
+        }
+        // 종료 전 남은 이벤트를 한 번 더 기록 (실패하면 버린다)
+        List<AccountEvent> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize()) {
+            flush(remaining.subList(from, Math.min(remaining.size(), from + batchSize())));
+        }
+    }
+
+    /**
+     * 이벤트 적재 (대기 없음)
+     *
+     * @return 버퍼가 가득 차서 버렸으면 false
+     */
+    public boolean enqueue(AccountEvent event) {
+        if (!accountProperties.isEnabled()) {
+            return false;
+        }
+        if (buffer.offer(event)) {
+            enqueued.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public int getBufferSize() {
+        return buffer.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFlushedCount() {
+        return flushed.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    private void run() {
+        List<AccountEvent> batch = new ArrayList<>(batchSize());
+        while (running) {
+            try {
+                AccountEvent first = buffer.poll(accountProperties.getFlushInterval(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 첫 이벤트 이후 flushInterval 동안 더 모아서 배치 크기를 키운다.
+                Thread.sleep(accountProperties.getFlushInterval());
+                buffer.drainTo(batch, batchSize() - 1);
+                if (!flush(batch)) {
+                    requeue(batch);
+                    batch.clear();
+                    Thread.sleep(accountProperties.getRetryBackoff());
+                }
+            } catch (InterruptedException e) {
+                // 아직 기록하지 못한 이벤트는 버퍼로 되돌려 stop()에서 flush
+                requeue(batch);
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 배치 기록: 계정 → 로그인 식별자 → 연결 순서로 upsert
+     *
+     * @return 성공 여부
+     */
+    boolean flush(List<AccountEvent> events) {
+        if (events.isEmpty()) {
+            return true;
+        }
+        Map<String, AccountEvent> logins = new LinkedHashMap<>();
+        Map<String, AccountEvent> links = new LinkedHashMap<>();
+        Map<String, AccountEvent> accounts = new LinkedHashMap<>();
+        for (AccountEvent event : events) {
+            if (event.type() == AccountEvent.Type.LINK) {
+                links.put(event.identityKey(), event);
+            } else {
+                logins.put(event.identityKey(), event);
+                accounts.put(event.accountId(), event);
+            }
+        }
+
+        try {
+            if (!accounts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_ACCOUNT, accounts.values().stream()
+                        .map(e -> new Object[]{e.accountId(), e.email(), e.nickname(),
+                                new Timestamp(e.occurredAt()), new Timestamp(e.occurredAt())})
+                        .toList());
+            }
+            if (!logins.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_IDENTITY_LOGIN, identityRows(logins));
+            }
+            if (!links.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_IDENTITY_LINK, links.values().stream()
+                        .map(e -> new Object[]{e.provider(), e.providerId(), e.accountId(), e.email(), e.nickname(),
+                                e.profileImage(), new Timestamp(e.occurredAt()), new Timestamp(e.occurredAt()),
+                                new Timestamp(e.occurredAt())})
+                        .toList());
+            }
+            flushed.add(events.size());
+            return true;
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Failed to flush {} account events: {}", events.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static List<Object[]> identityRows(Map<String, AccountEvent> events) {
+        return events.values().stream()
+                .map(e -> new Object[]{e.provider(), e.providerId(), e.accountId(), e.email(), e.nickname(),
+                        e.profileImage(), new Timestamp(e.occurredAt()), new Timestamp(e.occurredAt())})
+                .toList();
+    }
+
+    private void requeue(List<AccountEvent> events) {
+        for (AccountEvent event : events) {
+            if (!buffer.offer(event)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private int batchSize() {
+        return Math.max(1, accountProperties.getBatchSize());
+    }
+}
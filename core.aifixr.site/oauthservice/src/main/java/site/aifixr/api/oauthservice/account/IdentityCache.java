@@ -0,0 +1,80 @@
+package site.aifixr.api.oauthservice.account;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 최근 조회한 (provider, providerId) → accountId 캐시
+ * 용량 초과 시 한 스레드만 일부(10%)를 제거한다.
+ */
+public class IdentityCache {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, String> entries;
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public IdentityCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new ConcurrentHashMap<>(Math.min(this.maxEntries, 1024));
+    }
+
+    public String get(String identityKey) {
+        String accountId = entries.get(identityKey);
+        if (accountId == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return accountId;
+    }
+
+    public void put(String identityKey, String accountId) {
+        if (entries.size() >= maxEntries && !entries.containsKey(identityKey)) {
+            evict();
+        }
+        entries.put(identityKey, accountId);
+    }
+
+    /**
+     * 이미 있는 값은 유지 (백그라운드 조회가 최근 연결을 덮어쓰지 않도록)
+     */
+    public void putIfAbsent(String identityKey, String accountId) {
+        if (entries.size() >= maxEntries && !entries.containsKey(identityKey)) {
+            evict();
+        }
+        entries.putIfAbsent(identityKey, accountId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int overflow = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+            Iterator<String> it = entries.keySet().iterator();
+            while (overflow-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
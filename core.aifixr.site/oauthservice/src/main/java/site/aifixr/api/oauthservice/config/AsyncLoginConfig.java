@@ -0,0 +1,21 @@
+package site.aifixr.api.oauthservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 로그인 파이프라인 실행기
+ * - 프로바이더 호출(토큰 교환 → 사용자 정보 조회)을 가상 스레드에서 실행
+ * - 콜백 컨트롤러는 CompletableFuture를 반환하므로 대기 중에는 Tomcat 워커를 점유하지 않는다.
+ */
+@Configuration
+public class AsyncLoginConfig {
+
+	@Bean(destroyMethod = "close")
+	public ExecutorService oauthLoginExecutor() {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("oauth-login-", 0).factory());
+	}
+}
@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "oauth.google")
 @Getter
@@ -16,4 +19,13 @@ public class GoogleConfig {
     private String tokenUri;
     private String userInfoUri;
     private String authorizeUri;
+    private OAuthHttpClientProperties http = new OAuthHttpClientProperties();
+    private OAuthResilienceProperties resilience = new OAuthResilienceProperties();
+
+    // OpenID Connect: id_token을 로컬에서 검증하여 userinfo 호출 생략
+    private boolean openidEnabled = true;
+    private String jwksUri = "https://www.googleapis.com/oauth2/v3/certs";
+    private List<String> issuers = new ArrayList<>(List.of("https://accounts.google.com", "accounts.google.com"));
+    private long jwksRefreshInterval = 3600000L; // JWKS 주기적 갱신 1시간 (밀리초)
+    private long jwksMinRefreshInterval = 60000L; // 모르는 kid로 인한 강제 갱신 최소 간격 1분 (밀리초)
 }
@@ -16,4 +16,6 @@ public class KakaoConfig {
     private String tokenUri;
     private String userInfoUri;
     private String authorizeUri;
+    private OAuthHttpClientProperties http = new OAuthHttpClientProperties();
+    private OAuthResilienceProperties resilience = new OAuthResilienceProperties();
 }
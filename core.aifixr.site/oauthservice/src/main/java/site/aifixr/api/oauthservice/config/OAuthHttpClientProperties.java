@@ -0,0 +1,20 @@
+package site.aifixr.api.oauthservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 프로바이더별 HTTP 커넥션 풀 설정
+ * oauth.{provider}.http.* 로 바인딩된다.
+ */
+@Getter
+@Setter
+public class OAuthHttpClientProperties {
+    private int maxConnections = 50; // 프로바이더 전체 최대 연결 수
+    private int maxConnectionsPerRoute = 25; // 호스트별 최대 연결 수 (token / userinfo 호스트가 다름)
+    private int connectTimeout = 5000; // 5초
+    private int readTimeout = 20000; // 20초
+    private int connectionRequestTimeout = 2000; // 풀에서 연결을 얻기까지 대기 시간
+    private long idleTimeout = 30000L; // 유휴 연결 정리 기준 (밀리초)
+    private long connectionTtl = 300000L; // 연결 최대 수명 5분 (밀리초)
+}
@@ -0,0 +1,29 @@
+package site.aifixr.api.oauthservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 프로바이더별 격리/타임아웃/헤징 설정
+ * oauth.{provider}.resilience.* 로 바인딩된다.
+ */
+@Getter
+@Setter
+public class OAuthResilienceProperties {
+    // Bulkhead: 프로바이더 호출 동시 실행 상한
+    private int maxConcurrentCalls = 50;
+    private long maxWait = 100L; // 슬롯 대기 최대 시간 (밀리초), 초과 시 즉시 실패
+
+    // 적응형 타임아웃: 엔드포인트별 최근 응답 시간 p99 × multiplier (min ~ max 범위)
+    private boolean adaptiveTimeout = true;
+    private double timeoutMultiplier = 2.0;
+    private long minTimeout = 1000L; // 밀리초
+    private long maxTimeout = 20000L; // 밀리초 (표본이 부족할 때도 이 값을 사용)
+    private int minSamples = 50; // 적응을 시작하기 위한 최소 표본 수
+    private int windowSize = 512; // 최근 응답 시간 표본 수
+
+    // 헤징: userinfo GET이 hedgeDelay 안에 끝나지 않으면 같은 요청을 한 번 더 보내 먼저 온 응답 사용
+    private boolean hedgeEnabled = false;
+    private long hedgeDelay = 0L; // 밀리초, 0이면 엔드포인트 p95 사용
+    private long minHedgeDelay = 50L; // 밀리초
+}
@@ -0,0 +1,45 @@
+package site.aifixr.api.oauthservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import site.aifixr.api.oauthservice.resilience.ProviderGuard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 프로바이더별 Bulkhead / 적응형 타임아웃 / 헤징
+ * - 커넥션 풀(RestTemplateConfig)과 마찬가지로 프로바이더마다 따로 두어 장애가 번지지 않게 한다.
+ * - 적응형 타임아웃은 RestTemplate 요청 컨텍스트로 적용되므로 JWKS 조회에도 함께 적용된다.
+ */
+@Configuration
+public class ProviderResilienceConfig {
+
+	@Bean
+	public ProviderGuard googleProviderGuard(GoogleConfig googleConfig, ExecutorService oauthLoginExecutor) {
+		Map<String, String> endpoints = endpoints(googleConfig.getTokenUri(), googleConfig.getUserInfoUri());
+		endpoints.put("jwks", googleConfig.getJwksUri());
+		return new ProviderGuard("google", googleConfig.getResilience(), googleConfig.getHttp(), endpoints,
+				oauthLoginExecutor);
+	}
+
+	@Bean
+	public ProviderGuard kakaoProviderGuard(KakaoConfig kakaoConfig, ExecutorService oauthLoginExecutor) {
+		return new ProviderGuard("kakao", kakaoConfig.getResilience(), kakaoConfig.getHttp(),
+				endpoints(kakaoConfig.getTokenUri(), kakaoConfig.getUserInfoUri()), oauthLoginExecutor);
+	}
+
+	@Bean
+	public ProviderGuard naverProviderGuard(NaverConfig naverConfig, ExecutorService oauthLoginExecutor) {
+		return new ProviderGuard("naver", naverConfig.getResilience(), naverConfig.getHttp(),
+				endpoints(naverConfig.getTokenUri(), naverConfig.getUserInfoUri()), oauthLoginExecutor);
+	}
+
+	private static Map<String, String> endpoints(String tokenUri, String userInfoUri) {
+		Map<String, String> endpoints = new LinkedHashMap<>();
+		endpoints.put("token", tokenUri);
+		endpoints.put("userinfo", userInfoUri);
+		return endpoints;
+	}
+}
@@ -1,20 +1,104 @@
 package site.aifixr.api.oauthservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import site.aifixr.api.oauthservice.resilience.ProviderGuard;
 
+/**
+ * 프로바이더별 커넥션 풀 + RestTemplate
+ * - 구글/카카오/네이버가 각자 풀을 사용하므로 한 프로바이더가 느려져도 다른 프로바이더 연결을 점유하지 않는다.
+ * - keep-alive 연결을 재사용하여 로그인마다 발생하던 TLS 핸드셰이크를 없앤다.
+ * - 풀 상태는 httpcomponents.httpclient.pool.* 메트릭(httpclient=google|kakao|naver)으로 노출
+ */
 @Configuration
 public class RestTemplateConfig {
 
 	@Bean
-	public RestTemplate restTemplate() {
-		SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-		factory.setConnectTimeout(5000); // 5초
-		factory.setReadTimeout(20000); // 20초 (구글 API 호출에 충분한 시간)
-		
+	public CloseableHttpClient googleHttpClient(GoogleConfig googleConfig, ObjectProvider<MeterRegistry> meterRegistry) {
+		return createHttpClient("google", googleConfig.getHttp(), meterRegistry);
+	}
+
+	@Bean
+	public CloseableHttpClient kakaoHttpClient(KakaoConfig kakaoConfig, ObjectProvider<MeterRegistry> meterRegistry) {
+		return createHttpClient("kakao", kakaoConfig.getHttp(), meterRegistry);
+	}
+
+	@Bean
+	public CloseableHttpClient naverHttpClient(NaverConfig naverConfig, ObjectProvider<MeterRegistry> meterRegistry) {
+		return createHttpClient("naver", naverConfig.getHttp(), meterRegistry);
+	}
+
+	@Bean
+	public RestTemplate googleRestTemplate(@Qualifier("googleHttpClient") CloseableHttpClient httpClient,
+			GoogleConfig googleConfig, ProviderGuard googleProviderGuard) {
+		return createRestTemplate(httpClient, googleConfig.getHttp(), googleProviderGuard);
+	}
+
+	@Bean
+	public RestTemplate kakaoRestTemplate(@Qualifier("kakaoHttpClient") CloseableHttpClient httpClient,
+			KakaoConfig kakaoConfig, ProviderGuard kakaoProviderGuard) {
+		return createRestTemplate(httpClient, kakaoConfig.getHttp(), kakaoProviderGuard);
+	}
+
+	@Bean
+	public RestTemplate naverRestTemplate(@Qualifier("naverHttpClient") CloseableHttpClient httpClient,
+			NaverConfig naverConfig, ProviderGuard naverProviderGuard) {
+		return createRestTemplate(httpClient, naverConfig.getHttp(), naverProviderGuard);
+	}
+
+	private static CloseableHttpClient createHttpClient(String provider, OAuthHttpClientProperties http,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(http.getMaxConnections())
+				.setMaxConnPerRoute(http.getMaxConnectionsPerRoute())
+				// 최근 사용한 연결부터 재사용 → 오래 놀던 연결은 idle 정리 대상이 된다
+				.setConnPoolPolicy(PoolReusePolicy.LIFO)
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(Timeout.ofMilliseconds(http.getConnectTimeout()))
+						.setSocketTimeout(Timeout.ofMilliseconds(http.getReadTimeout()))
+						.setTimeToLive(TimeValue.ofMilliseconds(http.getConnectionTtl()))
+						.setValidateAfterInactivity(TimeValue.ofSeconds(2))
+						.build())
+				.build();
+
+		meterRegistry.ifAvailable(registry ->
+				new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, provider).bindTo(registry));
+
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectionRequestTimeout(Timeout.ofMilliseconds(http.getConnectionRequestTimeout()))
+						.setResponseTimeout(Timeout.ofMilliseconds(http.getReadTimeout()))
+						.build())
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.ofMilliseconds(http.getIdleTimeout()))
+				.disableCookieManagement()
+				.setUserAgent("aifixr-oauth-service")
+				.build();
+	}
+
+	private static RestTemplate createRestTemplate(CloseableHttpClient httpClient, OAuthHttpClientProperties http,
+			ProviderGuard guard) {
+		HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+		factory.setConnectionRequestTimeout(http.getConnectionRequestTimeout());
+		factory.setReadTimeout(http.getReadTimeout());
+		// 요청마다 엔드포인트의 현재 적응형 타임아웃을 응답 타임아웃으로 사용
+		factory.setHttpContextFactory(guard::httpContext);
 		return new RestTemplate(factory);
 	}
 }
-
@@ -2,25 +2,35 @@ package site.aifixr.api.oauthservice.google;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 import site.aifixr.api.oauthservice.config.GoogleConfig;
+import site.aifixr.api.oauthservice.metrics.LoginMetrics;
+import site.aifixr.api.oauthservice.state.OAuthStateService;
 import site.aifixr.api.oauthservice.google.GoogleService.OAuthUserResponse;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/google")
 @RequiredArgsConstructor
 @Slf4j
 public class GoogleController {
+    private static final String PROVIDER = "google";
+    private static final String STATE_COOKIE = OAuthStateService.COOKIE_PREFIX + PROVIDER;
+    private static final String FRONTEND_URL = "http://localhost:3000/oauth/google/callback";
+
     private final GoogleService googleService;
     private final GoogleConfig googleConfig;
+    private final LoginMetrics loginMetrics;
+    private final OAuthStateService oauthStateService;
 
     /**
      * 구글 로그인 URL 생성
@@ -46,19 +56,19 @@ public class GoogleController {
                     googleConfig.getClientId().substring(0, Math.min(4, googleConfig.getClientId().length())) + "...",
                     googleConfig.getRedirectUri());
 
-            // State 파라미터 생성 (CSRF 방지)
-            String state = UUID.randomUUID().toString();
+            // State 파라미터 생성 및 저장 (CSRF 방지, 콜백에서 한 번만 소비)
+            // 같은 값을 HttpOnly 쿠키로 내려 state를 이 브라우저에 묶는다.
+            String state = oauthStateService.issue(PROVIDER);
 
-            // URL 인코딩 적용
-            String encodedRedirectUri = URLEncoder.encode(googleConfig.getRedirectUri(), StandardCharsets.UTF_8);
-            String encodedScope = URLEncoder.encode("profile email", StandardCharsets.UTF_8);
+            // OpenID Connect 모드: openid scope로 id_token을 함께 받아 userinfo 호출을 생략
+            String scope = googleConfig.isOpenidEnabled() ? "openid profile email" : "profile email";
 
             String loginUrl = UriComponentsBuilder
                     .fromUriString(googleConfig.getAuthorizeUri())
                     .queryParam("client_id", googleConfig.getClientId())
                     .queryParam("redirect_uri", googleConfig.getRedirectUri())
                     .queryParam("response_type", "code")
-                    .queryParam("scope", "profile email")
+                    .queryParam("scope", scope)
                     .queryParam("state", state)
                     .queryParam("access_type", "offline")
                     .queryParam("prompt", "consent")
@@ -66,7 +76,9 @@ public class GoogleController {
                     .toUriString();
 
             log.info("Generated Google login URL: {}", loginUrl.replaceAll("client_id=[^&]+", "client_id=***"));
-            return ResponseEntity.ok(Map.of("authUrl", loginUrl));
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, oauthStateService.bindingCookie(PROVIDER, state).toString())
+                    .body(Map.of("authUrl", loginUrl));
         } catch (Exception e) {
             log.error("Error generating Google login URL", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -78,102 +90,113 @@ public class GoogleController {
      * 구글 로그인 콜백 처리
      * GET /google/callback?code=AUTHORIZATION_CODE&state=STATE
      * 토큰을 생성한 후 프론트엔드로 리다이렉트
+     * 프로바이더 호출은 비동기로 처리되며, 완료될 때까지 Tomcat 워커를 점유하지 않는다.
      */
     @GetMapping("/callback")
-    public ResponseEntity<?> googleCallback(
+    public CompletableFuture<ResponseEntity<?>> googleCallback(
             @RequestParam(required = false) String code,
             @RequestParam(required = false) String state,
+            @CookieValue(name = STATE_COOKIE, required = false) String boundState,
             @RequestParam(required = false) String error) {
-        String frontendUrl = "http://localhost:3000/oauth/google/callback";
-
         if (error != null) {
             log.error("Google callback: error parameter received: {}", error);
-            String redirectUrl = UriComponentsBuilder.fromUriString(frontendUrl)
-                    .queryParam("error", URLEncoder.encode(error, StandardCharsets.UTF_8))
-                    .build()
-                    .toUriString();
-            return ResponseEntity.status(HttpStatus.FOUND)
-                    .header("Location", redirectUrl)
-                    .build();
+            return CompletableFuture.completedFuture(redirect(buildErrorRedirectUrl(FRONTEND_URL, error)));
         }
 
         // code 파라미터 검증
         if (code == null || code.isEmpty()) {
             log.error("Google callback: code parameter is missing");
-            String redirectUrl = UriComponentsBuilder.fromUriString(frontendUrl)
-                    .queryParam("error", URLEncoder.encode("인증 코드가 없습니다.", StandardCharsets.UTF_8))
-                    .build()
-                    .toUriString();
-            return ResponseEntity.status(HttpStatus.FOUND)
-                    .header("Location", redirectUrl)
-                    .build();
+            return CompletableFuture.completedFuture(redirect(buildErrorRedirectUrl(FRONTEND_URL, "인증 코드가 없습니다.")));
         }
 
-        try {
-            log.info("Processing Google login with code: {}", code.substring(0, Math.min(10, code.length())) + "...");
+        // state 검증 (발급한 적 없거나, 이 브라우저에 발급되지 않았거나, 이미 사용/만료된 state는 거부)
+        if (!oauthStateService.verify(PROVIDER, state, boundState)) {
+            log.warn("Google callback: invalid or expired state parameter");
+            return CompletableFuture.completedFuture(redirect(buildErrorRedirectUrl(FRONTEND_URL, "유효하지 않은 로그인 요청입니다. 다시 시도해 주세요.")));
+        }
 
-            OAuthUserResponse response = googleService.processGoogleLogin(code, state);
-            OAuthUserResponse.UserInfo userInfo = response.getUser();
+        log.info("Processing Google login with code: {}", code.substring(0, Math.min(10, code.length())) + "...");
+
+        return googleService.processGoogleLoginAsync(code, state)
+                .<ResponseEntity<?>>thenApply(response -> {
+                    if (response == null || response.getAccessToken() == null) {
+                        throw new RuntimeException("Failed to generate tokens");
+                    }
+                    log.info("Successfully processed login, redirecting to frontend");
+                    String redirectUrl = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_REDIRECT,
+                            () -> buildSuccessRedirectUrl(FRONTEND_URL, response));
+                    return redirect(redirectUrl);
+                })
+                .exceptionally(throwable -> {
+                    Throwable e = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause()
+                            : throwable;
+                    log.error("Google login failed with error: {}", e.getMessage(), e);
+                    // 에러 발생 시 프론트엔드로 리다이렉트하면서 에러 메시지 전달
+                    String errorMessage = "로그인 처리 중 오류가 발생했습니다: " + e.getMessage();
+                    if (errorMessage.length() > 200) {
+                        errorMessage = errorMessage.substring(0, 200);
+                    }
+                    log.info("Redirecting to frontend with error: {}", errorMessage);
+                    return redirect(buildErrorRedirectUrl(FRONTEND_URL, errorMessage));
+                });
+    }
 
-            if (response == null || response.getAccessToken() == null) {
-                throw new RuntimeException("Failed to generate tokens");
+    /**
+     * 로그인 성공 리다이렉트 URL 생성
+     * 토큰과 사용자 정보를 URL 파라미터로 전달
+     */
+    public static String buildSuccessRedirectUrl(String frontendUrl, OAuthUserResponse response) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(frontendUrl)
+                .queryParam("accessToken", URLEncoder.encode(response.getAccessToken(), StandardCharsets.UTF_8))
+                .queryParam("refreshToken", URLEncoder.encode(response.getRefreshToken(), StandardCharsets.UTF_8));
+
+        // 사용자 정보를 개별 파라미터로 전달
+        OAuthUserResponse.UserInfo userInfo = response.getUser();
+        if (userInfo != null) {
+            if (userInfo.getId() != null) {
+                builder.queryParam("userId", URLEncoder.encode(userInfo.getId(), StandardCharsets.UTF_8));
             }
-
-            // 프론트엔드로 리다이렉트하면서 토큰과 사용자 정보를 URL 파라미터로 전달
-            UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(frontendUrl)
-                    .queryParam("accessToken", URLEncoder.encode(response.getAccessToken(), StandardCharsets.UTF_8))
-                    .queryParam("refreshToken", URLEncoder.encode(response.getRefreshToken(), StandardCharsets.UTF_8));
-
-            // 사용자 정보를 개별 파라미터로 전달
-            if (userInfo != null) {
-                if (userInfo.getId() != null) {
-                    builder.queryParam("userId", URLEncoder.encode(userInfo.getId(), StandardCharsets.UTF_8));
-                }
-                if (userInfo.getEmail() != null) {
-                    builder.queryParam("email", URLEncoder.encode(userInfo.getEmail(), StandardCharsets.UTF_8));
-                }
-                if (userInfo.getName() != null) {
-                    builder.queryParam("name", URLEncoder.encode(userInfo.getName(), StandardCharsets.UTF_8));
-                }
-                if (userInfo.getGivenName() != null) {
-                    builder.queryParam("givenName", URLEncoder.encode(userInfo.getGivenName(), StandardCharsets.UTF_8));
-                }
-                if (userInfo.getFamilyName() != null) {
-                    builder.queryParam("familyName",
-                            URLEncoder.encode(userInfo.getFamilyName(), StandardCharsets.UTF_8));
-                }
-                if (userInfo.getPicture() != null) {
-                    builder.queryParam("picture", URLEncoder.encode(userInfo.getPicture(), StandardCharsets.UTF_8));
-                }
-                if (userInfo.getLocale() != null) {
-                    builder.queryParam("locale", URLEncoder.encode(userInfo.getLocale(), StandardCharsets.UTF_8));
-                }
-                if (userInfo.getProvider() != null) {
-                    builder.queryParam("provider", URLEncoder.encode(userInfo.getProvider(), StandardCharsets.UTF_8));
-                }
+            if (userInfo.getEmail() != null) {
+                builder.queryParam("email", URLEncoder.encode(userInfo.getEmail(), StandardCharsets.UTF_8));
             }
-
-            String redirectUrl = builder.build().toUriString();
-
-            log.info("Successfully processed login, redirecting to frontend");
-            return ResponseEntity.status(HttpStatus.FOUND)
-                    .header("Location", redirectUrl)
-                    .build();
-        } catch (Exception e) {
-            log.error("Google login failed with error: {}", e.getMessage(), e);
-            // 에러 발생 시 프론트엔드로 리다이렉트하면서 에러 메시지 전달
-            String errorMessage = "로그인 처리 중 오류가 발생했습니다: " + e.getMessage();
-            if (errorMessage.length() > 200) {
-                errorMessage = errorMessage.substring(0, 200);
+            if (userInfo.getName() != null) {
+                builder.queryParam("name", URLEncoder.encode(userInfo.getName(), StandardCharsets.UTF_8));
+            }
+            if (userInfo.getGivenName() != null) {
+                builder.queryParam("givenName", URLEncoder.encode(userInfo.getGivenName(), StandardCharsets.UTF_8));
+            }
+            if (userInfo.getFamilyName() != null) {
+                builder.queryParam("familyName",
+                        URLEncoder.encode(userInfo.getFamilyName(), StandardCharsets.UTF_8));
+            }
+            if (userInfo.getPicture() != null) {
+                builder.queryParam("picture", URLEncoder.encode(userInfo.getPicture(), StandardCharsets.UTF_8));
+            }
+            if (userInfo.getLocale() != null) {
+                builder.queryParam("locale", URLEncoder.encode(userInfo.getLocale(), StandardCharsets.UTF_8));
+            }
+            if (userInfo.getProvider() != null) {
+                builder.queryParam("provider", URLEncoder.encode(userInfo.getProvider(), StandardCharsets.UTF_8));
             }
-            String redirectUrl = UriComponentsBuilder.fromUriString(frontendUrl)
-                    .queryParam("error", URLEncoder.encode(errorMessage, StandardCharsets.UTF_8))
-                    .build()
-                    .toUriString();
-            log.info("Redirecting to frontend with error: {}", errorMessage);
-            return ResponseEntity.status(HttpStatus.FOUND)
-                    .header("Location", redirectUrl)
-                    .build();
         }
+
+        return builder.build().toUriString();
+    }
+
+    /**
+     * 로그인 실패 리다이렉트 URL 생성
+     */
+    public static String buildErrorRedirectUrl(String frontendUrl, String errorMessage) {
+        return UriComponentsBuilder.fromUriString(frontendUrl)
+                .queryParam("error", URLEncoder.encode(errorMessage, StandardCharsets.UTF_8))
+                .build()
+                .toUriString();
+    }
+
+    private static ResponseEntity<?> redirect(String redirectUrl) {
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .header("Location", redirectUrl)
+                .build();
     }
 }
@@ -0,0 +1,175 @@
+package site.aifixr.api.oauthservice.google;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import site.aifixr.api.oauthservice.config.GoogleConfig;
+import site.aifixr.api.oauthservice.google.dto.GoogleUserInfo;
+
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 구글 OpenID Connect id_token 로컬 검증기
+ * - 서명 키(JWKS)는 캐시해 두고 주기적으로 갱신
+ * - 모르는 kid가 오면 최소 간격(jwksMinRefreshInterval)을 지켜 즉시 갱신
+ * - 검증에 실패하면 Optional.empty()를 반환하고, 호출 측은 userinfo 엔드포인트로 대체한다.
+ */
+@Component
+@Slf4j
+public class GoogleIdTokenVerifier {
+    private final GoogleConfig googleConfig;
+    private final RestTemplate googleRestTemplate;
+    private final JwtParser parser;
+    // 가상 스레드에서 I/O 중 carrier 고정(pinning)을 피하기 위해 synchronized 대신 사용
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Map<String, Key> keys = Map.of();
+    private volatile long lastRefreshAt = 0L;
+
+    public GoogleIdTokenVerifier(GoogleConfig googleConfig, RestTemplate googleRestTemplate) {
+        this.googleConfig = googleConfig;
+        this.googleRestTemplate = googleRestTemplate;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return findKey(header.getKeyId());
+                    }
+                })
+                .clockSkewSeconds(60)
+                .build();
+    }
+
+    /**
+     * id_token 검증 후 userinfo 응답과 같은 형태로 변환
+     */
+    public Optional<GoogleUserInfo> verify(String idToken) {
+        if (idToken == null || idToken.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(idToken).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Google id_token verification failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        if (!googleConfig.getIssuers().contains(claims.getIssuer())) {
+            log.warn("Google id_token has unexpected issuer: {}", claims.getIssuer());
+            return Optional.empty();
+        }
+        if (claims.getAudience() == null || !claims.getAudience().contains(googleConfig.getClientId())) {
+            log.warn("Google id_token audience does not match client_id");
+            return Optional.empty();
+        }
+
+        GoogleUserInfo userInfo = new GoogleUserInfo();
+        userInfo.setId(claims.getSubject());
+        userInfo.setEmail(claims.get("email", String.class));
+        userInfo.setVerifiedEmail(claims.get("email_verified", Boolean.class));
+        userInfo.setName(claims.get("name", String.class));
+        userInfo.setGivenName(claims.get("given_name", String.class));
+        userInfo.setFamilyName(claims.get("family_name", String.class));
+        userInfo.setPicture(claims.get("picture", String.class));
+        userInfo.setLocale(claims.get("locale", String.class));
+        return Optional.of(userInfo);
+    }
+
+    /**
+     * JWKS 주기적 갱신 (시작 직후 1회 실행하여 첫 로그인 전에 키를 준비)
+     */
+    @Scheduled(fixedDelayString = "${oauth.google.jwks-refresh-interval:3600000}")
+    public void scheduledRefresh() {
+        if (!googleConfig.isOpenidEnabled()) {
+            return;
+        }
+        try {
+            refreshKeys();
+        } catch (Exception e) {
+            log.warn("Failed to refresh Google JWKS from {}: {}", googleConfig.getJwksUri(), e.getMessage());
+        }
+    }
+
+    /**
+     * JWKS 조회 후 kid → 공개키 맵 교체
+     */
+    public void refreshKeys() {
+        refreshLock.lock();
+        try {
+            String json = googleRestTemplate.getForObject(googleConfig.getJwksUri(), String.class);
+            if (json == null) {
+                throw new IllegalStateException("Empty JWKS response");
+            }
+
+            JwkSet jwkSet = Jwks.setParser().build().parse(json);
+            Map<String, Key> refreshed = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet.getKeys()) {
+                if (jwk.getId() != null && (jwk.get("use") == null || "sig".equals(jwk.get("use")))) {
+                    refreshed.put(jwk.getId(), jwk.toKey());
+                }
+            }
+            keys = Map.copyOf(refreshed);
+            lastRefreshAt = System.currentTimeMillis();
+            log.debug("Loaded {} Google signing keys", refreshed.size());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    int keyCount() {
+        return keys.size();
+    }
+
+    private Key findKey(String keyId) {
+        Key key = keyId != null ? keys.get(keyId) : null;
+        if (key == null) {
+            key = refreshForUnknownKey(keyId);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown Google signing key: " + keyId);
+        }
+        return key;
+    }
+
+    /**
+     * 키 롤오버 대응: 모르는 kid면 최소 간격을 지켜 즉시 갱신 (동시 요청은 한 번만 조회)
+     */
+    private Key refreshForUnknownKey(String keyId) {
+        refreshLock.lock();
+        try {
+            Key key = keyId != null ? keys.get(keyId) : null;
+            if (key != null) {
+                return key;
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastRefreshAt < googleConfig.getJwksMinRefreshInterval()) {
+                return null;
+            }
+            lastRefreshAt = now;
+            try {
+                refreshKeys();
+            } catch (Exception e) {
+                log.warn("Failed to refresh Google JWKS for unknown kid {}: {}", keyId, e.getMessage());
+            }
+            return keyId != null ? keys.get(keyId) : null;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+}
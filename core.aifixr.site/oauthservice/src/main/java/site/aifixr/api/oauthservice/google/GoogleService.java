@@ -11,25 +11,40 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
+import site.aifixr.api.oauthservice.account.AccountService;
 import site.aifixr.api.oauthservice.config.GoogleConfig;
 import site.aifixr.api.oauthservice.google.dto.GoogleTokenResponse;
 import site.aifixr.api.oauthservice.google.dto.GoogleUserInfo;
 import site.aifixr.api.oauthservice.jwt.JwtTokenProvider;
+import site.aifixr.api.oauthservice.metrics.LoginMetrics;
+import site.aifixr.api.oauthservice.refresh.RefreshTokenService;
+import site.aifixr.api.oauthservice.resilience.ProviderGuard;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GoogleService {
+    private static final String PROVIDER = "google";
+
     private final GoogleConfig googleConfig;
-    private final RestTemplate restTemplate;
+    private final RestTemplate googleRestTemplate;
+    private final ProviderGuard googleProviderGuard;
+    private final ExecutorService oauthLoginExecutor;
+    private final LoginMetrics loginMetrics;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final AccountService accountService;
+    private final GoogleIdTokenVerifier googleIdTokenVerifier;
 
     /**
      * Authorization Code로 Access Token 요청
@@ -52,10 +67,12 @@ public class GoogleService {
             if (tokenUri == null) {
                 throw new IllegalStateException("Google token URI is not configured");
             }
-            ResponseEntity<GoogleTokenResponse> response = restTemplate.postForEntity(
-                    tokenUri,
-                    request,
-                    GoogleTokenResponse.class);
+            // 토큰 교환은 authorization code를 소비하므로 헤징하지 않는다
+            ResponseEntity<GoogleTokenResponse> response = googleProviderGuard.call(tokenUri,
+                    () -> googleRestTemplate.postForEntity(
+                            tokenUri,
+                            request,
+                            GoogleTokenResponse.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return response.getBody();
@@ -90,11 +107,12 @@ public class GoogleService {
 
         try {
             HttpMethod method = Objects.requireNonNull(HttpMethod.GET);
-            ResponseEntity<GoogleUserInfo> response = restTemplate.exchange(
-                    userInfoUri,
-                    method,
-                    request,
-                    GoogleUserInfo.class);
+            ResponseEntity<GoogleUserInfo> response = googleProviderGuard.callHedged(userInfoUri,
+                    () -> googleRestTemplate.exchange(
+                            userInfoUri,
+                            method,
+                            request,
+                            GoogleUserInfo.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return response.getBody();
@@ -108,15 +126,42 @@ public class GoogleService {
         }
     }
 
+    /**
+     * 사용자 정보 확보
+     * OpenID Connect 모드에서는 id_token을 로컬 검증하여 userinfo 왕복을 생략한다.
+     */
+    private GoogleUserInfo resolveUserInfo(GoogleTokenResponse tokenResponse) {
+        if (googleConfig.isOpenidEnabled() && tokenResponse.getIdToken() != null) {
+            Optional<GoogleUserInfo> verified = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_ID_TOKEN,
+                    () -> googleIdTokenVerifier.verify(tokenResponse.getIdToken()));
+            if (verified.isPresent()) {
+                return verified.get();
+            }
+            log.info("Falling back to Google userinfo endpoint");
+        }
+        return loginMetrics.record(PROVIDER, LoginMetrics.STAGE_USER_INFO,
+                () -> getUserInfo(tokenResponse.getAccessToken()));
+    }
+
+    /**
+     * 구글 로그인 처리 (비동기)
+     * 프로바이더 호출은 가상 스레드에서 수행되므로 호출한 요청 스레드는 바로 반환된다.
+     */
+    public CompletableFuture<OAuthUserResponse> processGoogleLoginAsync(String code, String state) {
+        return loginMetrics.track(PROVIDER,
+                () -> CompletableFuture.supplyAsync(() -> processGoogleLogin(code, state), oauthLoginExecutor));
+    }
+
     /**
      * 구글 로그인 처리 (메인 로직)
      */
     public OAuthUserResponse processGoogleLogin(String code, String state) {
         // 1. Access Token 획득
-        GoogleTokenResponse tokenResponse = getAccessToken(code, state);
+        GoogleTokenResponse tokenResponse = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_TOKEN_EXCHANGE,
+                () -> getAccessToken(code, state));
 
-        // 2. 사용자 정보 조회
-        GoogleUserInfo userInfo = getUserInfo(tokenResponse.getAccessToken());
+        // 2. 사용자 정보 조회 (id_token 로컬 검증 우선, 실패 시 userinfo 엔드포인트)
+        GoogleUserInfo userInfo = resolveUserInfo(tokenResponse);
 
         // 3. 구글 사용자 정보 추출
         String googleId = userInfo.getId();
@@ -127,8 +172,14 @@ public class GoogleService {
         String picture = userInfo.getPicture();
         String locale = userInfo.getLocale();
 
-        // 4. JWT 토큰 생성
+        // 4. 내부 계정 ID 조회 + 로그인 기록 (DB 기록은 백그라운드 배치)
+        String accountId = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_ACCOUNT,
+                () -> accountService.recordLogin(PROVIDER, googleId, email, name, picture));
+
+        // 5. JWT 토큰 생성
         Map<String, Object> claims = new HashMap<>();
+        claims.put("accountId", accountId);
+        claims.put("provider", PROVIDER);
         if (email != null) {
             claims.put("email", email);
         }
@@ -136,10 +187,12 @@ public class GoogleService {
             claims.put("name", name);
         }
         claims.put("googleId", googleId);
-        String jwtAccessToken = jwtTokenProvider.generateToken(googleId, claims);
-        String jwtRefreshToken = jwtTokenProvider.generateRefreshToken(googleId);
+        String jwtAccessToken = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_JWT_SIGN,
+                () -> jwtTokenProvider.generateToken(googleId, claims));
+        String jwtRefreshToken = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_JWT_SIGN,
+                () -> refreshTokenService.issue(googleId, claims));
 
-        // 5. 응답 생성
+        // 6. 응답 생성
         return OAuthUserResponse.builder()
                 .accessToken(jwtAccessToken)
                 .refreshToken(jwtRefreshToken)
@@ -151,7 +204,7 @@ public class GoogleService {
                         .familyName(familyName)
                         .picture(picture)
                         .locale(locale)
-                        .provider("google")
+                        .provider(PROVIDER)
                         .build())
                 .build();
     }
@@ -19,6 +19,9 @@ public class GoogleTokenResponse {
 	@JsonProperty("scope")
 	private String scope;
 
+	@JsonProperty("id_token")
+	private String idToken;
+
 	// Getters and Setters
 	public String getAccessToken() {
 		return accessToken;
@@ -59,5 +62,13 @@ public class GoogleTokenResponse {
 	public void setScope(String scope) {
 		this.scope = scope;
 	}
+
+	public String getIdToken() {
+		return idToken;
+	}
+
+	public void setIdToken(String idToken) {
+		this.idToken = idToken;
+	}
 }
 
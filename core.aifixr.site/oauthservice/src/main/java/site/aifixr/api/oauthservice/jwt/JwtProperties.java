@@ -15,4 +15,6 @@ public class JwtProperties {
     private Long refreshExpiration = 2592000000L; // 30일 (밀리초)
     private Long accessTokenExpiration = 3600000L; // 1시간 (밀리초)
     private Long refreshTokenExpiration = 604800000L; // 7일 (밀리초)
+    private int verifiedCacheSize = 10000; // 검증 완료 토큰 캐시 최대 개수
+    private long verifiedCacheTtl = 300000L; // 검증 완료 토큰 캐시 최대 보관 시간 5분 (밀리초)
 }
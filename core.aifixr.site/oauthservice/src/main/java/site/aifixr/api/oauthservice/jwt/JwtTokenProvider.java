@@ -10,20 +10,24 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
 	private final JwtProperties jwtProperties;
+	private final JwtVerifier jwtVerifier;
 	private SecretKey secretKey;
 
-	public JwtTokenProvider(JwtProperties jwtProperties) {
+	public JwtTokenProvider(JwtProperties jwtProperties, JwtVerifier jwtVerifier) {
 		this.jwtProperties = jwtProperties;
+		this.jwtVerifier = jwtVerifier;
 		this.secretKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
 	}
 
 	/**
-	 * JWT 토큰 생성
+	 * JWT(Access Token) 생성
 	 */
 	public String generateToken(String subject, Map<String, Object> claims) {
 		Date now = new Date();
@@ -32,6 +36,8 @@ public class JwtTokenProvider {
 		// Claims에 subject 포함
 		Map<String, Object> finalClaims = claims != null ? new HashMap<>(claims) : new HashMap<>();
 		finalClaims.put("sub", subject);
+		// 호출자가 넘긴 클레임으로 용도를 바꿀 수 없도록 마지막에 넣는다
+		finalClaims.put(JwtVerifier.TOKEN_TYPE_CLAIM, JwtVerifier.ACCESS_TOKEN);
 
 		return Jwts.builder()
 				.subject(subject)
@@ -46,11 +52,21 @@ public class JwtTokenProvider {
 	 * Refresh Token 생성
 	 */
 	public String generateRefreshToken(String subject) {
+		return generateRefreshToken(subject, UUID.randomUUID().toString());
+	}
+
+	/**
+	 * Refresh Token 생성 (jti 지정)
+	 * 같은 초에 발급된 토큰도 서로 다른 값이 되도록 jti를 포함한다.
+	 */
+	public String generateRefreshToken(String subject, String tokenId) {
 		Date now = new Date();
 		Date expiryDate = new Date(now.getTime() + jwtProperties.getRefreshExpiration());
 
 		return Jwts.builder()
+				.id(tokenId)
 				.subject(subject)
+				.claim(JwtVerifier.TOKEN_TYPE_CLAIM, JwtVerifier.REFRESH_TOKEN)
 				.issuedAt(now)
 				.expiration(expiryDate)
 				.signWith(secretKey)
@@ -69,22 +85,30 @@ public class JwtTokenProvider {
 	 * JWT 토큰에서 Claims 추출
 	 */
 	public Claims getClaimsFromToken(String token) {
-		return Jwts.parser()
-				.verifyWith(secretKey)
-				.build()
-				.parseSignedClaims(token)
-				.getPayload();
+		return jwtVerifier.verify(token);
+	}
+
+	/**
+	 * JWT 토큰 검증과 Claims 추출을 한 번에 수행 (유효하지 않으면 empty)
+	 */
+	public Optional<Claims> resolveClaims(String token) {
+		return jwtVerifier.tryVerify(token);
+	}
+
+	/**
+	 * Refresh Token 검증과 Claims 추출 (Access Token 등 다른 용도의 토큰이면 empty)
+	 */
+	public Optional<Claims> resolveRefreshClaims(String token) {
+		return jwtVerifier.tryVerify(token, JwtVerifier.REFRESH_TOKEN);
 	}
 
 	/**
 	 * JWT 토큰 유효성 검증
+	 * 검증 결과는 캐시되므로 이후 getClaimsFromToken 호출은 다시 파싱하지 않는다.
 	 */
 	public boolean validateToken(String token) {
 		try {
-			Jwts.parser()
-					.verifyWith(secretKey)
-					.build()
-					.parseSignedClaims(token);
+			jwtVerifier.verify(token);
 			return true;
 		} catch (Exception e) {
 			return false;
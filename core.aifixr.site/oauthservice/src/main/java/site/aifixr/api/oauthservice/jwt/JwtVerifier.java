@@ -0,0 +1,95 @@
+package site.aifixr.api.oauthservice.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * JWT 검증 엔진
+ * - JwtParser는 생성 시 한 번만 빌드 (스레드 안전)
+ * - 한 번 검증된 토큰은 VerifiedTokenCache에서 재사용하여 HMAC/Base64/JSON 처리를 생략
+ * - Access/Refresh Token은 같은 키로 서명되므로 typ 클레임으로 용도를 구분한다
+ */
+@Component
+public class JwtVerifier {
+
+	public static final String TOKEN_TYPE_CLAIM = "typ";
+	public static final String ACCESS_TOKEN = "access";
+	public static final String REFRESH_TOKEN = "refresh";
+
+	private final JwtParser parser;
+	private final VerifiedTokenCache cache;
+
+	public JwtVerifier(JwtProperties jwtProperties) {
+		SecretKey secretKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+		this.parser = Jwts.parser()
+				.verifyWith(secretKey)
+				.build();
+		this.cache = new VerifiedTokenCache(
+				jwtProperties.getVerifiedCacheSize(),
+				jwtProperties.getVerifiedCacheTtl());
+	}
+
+	/**
+	 * Access Token 검증 후 Claims 반환
+	 *
+	 * @throws JwtException 서명이 틀리거나 만료되었거나 Access Token이 아닌 경우
+	 */
+	public Claims verify(String token) {
+		return verify(token, ACCESS_TOKEN);
+	}
+
+	/**
+	 * 토큰 검증 후 Claims 반환 (typ 클레임이 tokenType과 같아야 함)
+	 * 캐시에 없을 때만 서명 검증/파싱을 수행한다.
+	 *
+	 * @throws JwtException 서명이 틀리거나 만료되었거나 용도가 다른 경우
+	 */
+	public Claims verify(String token, String tokenType) {
+		if (token == null || token.isEmpty()) {
+			throw new IllegalArgumentException("Token cannot be empty");
+		}
+
+		String digest = VerifiedTokenCache.digest(token);
+		Claims claims = cache.get(digest);
+		if (claims == null) {
+			claims = parser.parseSignedClaims(token).getPayload();
+			cache.put(digest, claims);
+		}
+
+		if (!tokenType.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+			throw new UnsupportedJwtException("Token is not a " + tokenType + " token");
+		}
+		return claims;
+	}
+
+	/**
+	 * Access Token 검증 실패 시 예외 대신 Optional.empty() 반환
+	 */
+	public Optional<Claims> tryVerify(String token) {
+		return tryVerify(token, ACCESS_TOKEN);
+	}
+
+	/**
+	 * 검증 실패 시 예외 대신 Optional.empty() 반환
+	 */
+	public Optional<Claims> tryVerify(String token, String tokenType) {
+		try {
+			return Optional.of(verify(token, tokenType));
+		} catch (JwtException | IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+
+	public VerifiedTokenCache getCache() {
+		return cache;
+	}
+}
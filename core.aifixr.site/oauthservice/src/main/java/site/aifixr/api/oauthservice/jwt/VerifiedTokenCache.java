@@ -0,0 +1,131 @@
+package site.aifixr.api.oauthservice.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 검증이 끝난 JWT의 Claims 캐시
+ * - 키: 토큰 원문이 아닌 SHA-256 digest
+ * - 만료: 토큰의 exp와 최대 TTL 중 빠른 시점
+ * - 용량 초과 시 만료 항목을 먼저 정리하고, 그래도 가득 차면 일부를 제거
+ */
+public class VerifiedTokenCache {
+
+	private final int maxEntries;
+	private final long maxTtlMillis;
+	private final ConcurrentHashMap<String, Entry> entries;
+	private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public VerifiedTokenCache(int maxEntries, long maxTtlMillis) {
+		this.maxEntries = Math.max(1, maxEntries);
+		this.maxTtlMillis = Math.max(0L, maxTtlMillis);
+		this.entries = new ConcurrentHashMap<>(Math.min(this.maxEntries, 1024));
+	}
+
+	/**
+	 * 캐시 조회 (만료된 항목은 miss로 처리하고 제거)
+	 */
+	public Claims get(String digest) {
+		Entry entry = entries.get(digest);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		if (entry.expiresAt <= System.currentTimeMillis()) {
+			entries.remove(digest, entry);
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.claims;
+	}
+
+	/**
+	 * 검증된 Claims 저장
+	 */
+	public void put(String digest, Claims claims) {
+		long now = System.currentTimeMillis();
+		long expiresAt = now + maxTtlMillis;
+		Date expiration = claims.getExpiration();
+		if (expiration != null) {
+			expiresAt = Math.min(expiresAt, expiration.getTime());
+		}
+		if (expiresAt <= now) {
+			return;
+		}
+		if (entries.size() >= maxEntries) {
+			evict(now);
+		}
+		entries.put(digest, new Entry(claims, expiresAt));
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * 토큰 digest 계산 (Base64URL, padding 없음)
+	 */
+	public static String digest(String token) {
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private void evict(long now) {
+		// 동시에 여러 스레드가 정리하지 않도록 한 스레드만 수행 (나머지는 잠시 용량을 넘겨도 무방)
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			int before = entries.size();
+			entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+			int overflow = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+			Iterator<String> it = entries.keySet().iterator();
+			while (overflow-- > 0 && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+			evictions.add(Math.max(0, before - entries.size()));
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	private record Entry(Claims claims, long expiresAt) {
+	}
+}
@@ -11,22 +11,35 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import site.aifixr.api.oauthservice.account.AccountService;
 import site.aifixr.api.oauthservice.config.KakaoConfig;
 import site.aifixr.api.oauthservice.jwt.JwtTokenProvider;
+import site.aifixr.api.oauthservice.metrics.LoginMetrics;
+import site.aifixr.api.oauthservice.refresh.RefreshTokenService;
+import site.aifixr.api.oauthservice.resilience.ProviderGuard;
 import site.aifixr.api.oauthservice.kakao.dto.KakaoTokenResponse;
 import site.aifixr.api.oauthservice.kakao.dto.KakaoUserInfo;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KakaoService {
+    private static final String PROVIDER = "kakao";
+
     private final KakaoConfig kakaoConfig;
-    private final RestTemplate restTemplate;
+    private final RestTemplate kakaoRestTemplate;
+    private final ProviderGuard kakaoProviderGuard;
+    private final ExecutorService oauthLoginExecutor;
+    private final LoginMetrics loginMetrics;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final AccountService accountService;
 
     /**
      * Authorization Code로 Access Token 요청
@@ -49,10 +62,12 @@ public class KakaoService {
             if (tokenUri == null) {
                 throw new IllegalStateException("Kakao token URI is not configured");
             }
-            ResponseEntity<KakaoTokenResponse> response = restTemplate.postForEntity(
-                    tokenUri,
-                    request,
-                    KakaoTokenResponse.class);
+            // 토큰 교환은 authorization code를 소비하므로 헤징하지 않는다
+            ResponseEntity<KakaoTokenResponse> response = kakaoProviderGuard.call(tokenUri,
+                    () -> kakaoRestTemplate.postForEntity(
+                            tokenUri,
+                            request,
+                            KakaoTokenResponse.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return response.getBody();
@@ -87,11 +102,12 @@ public class KakaoService {
 
         try {
             HttpMethod method = Objects.requireNonNull(HttpMethod.GET);
-            ResponseEntity<KakaoUserInfo> response = restTemplate.exchange(
-                    userInfoUri,
-                    method,
-                    request,
-                    KakaoUserInfo.class);
+            ResponseEntity<KakaoUserInfo> response = kakaoProviderGuard.callHedged(userInfoUri,
+                    () -> kakaoRestTemplate.exchange(
+                            userInfoUri,
+                            method,
+                            request,
+                            KakaoUserInfo.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return response.getBody();
@@ -105,15 +121,26 @@ public class KakaoService {
         }
     }
 
+    /**
+     * 카카오 로그인 처리 (비동기)
+     * 프로바이더 호출은 가상 스레드에서 수행되므로 호출한 요청 스레드는 바로 반환된다.
+     */
+    public CompletableFuture<OAuthUserResponse> processKakaoLoginAsync(String code) {
+        return loginMetrics.track(PROVIDER,
+                () -> CompletableFuture.supplyAsync(() -> processKakaoLogin(code), oauthLoginExecutor));
+    }
+
     /**
      * 카카오 로그인 처리 (메인 로직)
      */
     public OAuthUserResponse processKakaoLogin(String code) {
         // 1. Access Token 획득
-        KakaoTokenResponse tokenResponse = getAccessToken(code);
+        KakaoTokenResponse tokenResponse = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_TOKEN_EXCHANGE,
+                () -> getAccessToken(code));
 
         // 2. 사용자 정보 조회
-        KakaoUserInfo userInfo = getUserInfo(tokenResponse.getAccessToken());
+        KakaoUserInfo userInfo = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_USER_INFO,
+                () -> getUserInfo(tokenResponse.getAccessToken()));
 
         // 3. 카카오 사용자 정보 추출
         String kakaoId = userInfo.getId().toString();
@@ -129,15 +156,23 @@ public class KakaoService {
                         ? userInfo.getKakaoAccount().getProfile().getProfileImageUrl()
                         : null;
 
-        // 4. JWT 토큰 생성 (카카오 ID를 String으로 사용)
+        // 4. 내부 계정 ID 조회 + 로그인 기록 (DB 기록은 백그라운드 배치)
+        String accountId = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_ACCOUNT,
+                () -> accountService.recordLogin(PROVIDER, kakaoId, email, nickname, profileImage));
+
+        // 5. JWT 토큰 생성 (카카오 ID를 String으로 사용)
         Map<String, Object> claims = new HashMap<>();
+        claims.put("accountId", accountId);
+        claims.put("provider", PROVIDER);
         if (email != null) {
             claims.put("email", email);
         }
-        String jwtAccessToken = jwtTokenProvider.generateToken(kakaoId, claims);
-        String jwtRefreshToken = jwtTokenProvider.generateRefreshToken(kakaoId);
+        String jwtAccessToken = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_JWT_SIGN,
+                () -> jwtTokenProvider.generateToken(kakaoId, claims));
+        String jwtRefreshToken = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_JWT_SIGN,
+                () -> refreshTokenService.issue(kakaoId, claims));
 
-        // 5. 응답 생성
+        // 6. 응답 생성
         return OAuthUserResponse.builder()
                 .accessToken(jwtAccessToken)
                 .refreshToken(jwtRefreshToken)
@@ -146,7 +181,7 @@ public class KakaoService {
                         .email(email)
                         .nickname(nickname)
                         .profileImage(profileImage)
-                        .provider("kakao")
+                        .provider(PROVIDER)
                         .build())
                 .build();
     }
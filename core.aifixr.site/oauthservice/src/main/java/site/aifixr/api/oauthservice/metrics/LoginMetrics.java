@@ -0,0 +1,147 @@
+package site.aifixr.api.oauthservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import site.aifixr.api.oauthservice.resilience.BulkheadFullException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * OAuth 로그인 단계별 메트릭
+ * - oauth.login.stage  : 단계별 지연 시간 (provider, stage, outcome) + 백분위 히스토그램
+ * - oauth.login        : 콜백 전체 지연 시간 (provider, outcome)
+ * - oauth.login.errors : 실패 유형별 카운터 (provider, stage, type)
+ * - oauth.login.inflight : 처리 중인 로그인 수 (provider)
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginMetrics {
+    public static final String STAGE_TOKEN_EXCHANGE = "token_exchange";
+    public static final String STAGE_USER_INFO = "userinfo";
+    public static final String STAGE_ID_TOKEN = "id_token_verify";
+    public static final String STAGE_ACCOUNT = "account_resolve";
+    public static final String STAGE_JWT_SIGN = "jwt_sign";
+    public static final String STAGE_REDIRECT = "redirect_build";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 한 단계의 실행 시간을 기록하고, 실패 시 유형별 에러 카운터를 증가시킨다.
+     */
+    public <T> T record(String provider, String stage, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = action.get();
+            sample.stop(stageTimer(provider, stage, "success"));
+            return result;
+        } catch (RuntimeException e) {
+            sample.stop(stageTimer(provider, stage, "error"));
+            recordError(provider, stage, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 비동기 로그인 파이프라인 전체를 추적 (in-flight 게이지 + 전체 지연 시간)
+     */
+    public <T> CompletableFuture<T> track(String provider, Supplier<CompletableFuture<T>> pipeline) {
+        AtomicInteger counter = inFlight(provider);
+        counter.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        CompletableFuture<T> future;
+        try {
+            future = pipeline.get();
+        } catch (RuntimeException e) {
+            counter.decrementAndGet();
+            sample.stop(loginTimer(provider, "error"));
+            throw e;
+        }
+        return future.whenComplete((result, error) -> {
+            counter.decrementAndGet();
+            sample.stop(loginTimer(provider, error == null ? "success" : "error"));
+        });
+    }
+
+    public void recordError(String provider, String stage, Throwable error) {
+        Counter.builder("oauth.login.errors")
+                .description("OAuth login failures by stage and failure type")
+                .tag("provider", provider)
+                .tag("stage", stage)
+                .tag("type", classify(error))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 실패 유형 분류 (서비스에서 RuntimeException으로 감싸므로 cause 체인을 따라간다)
+     */
+    static String classify(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof BulkheadFullException) {
+                return "bulkhead";
+            }
+            if (t instanceof HttpStatusCodeException http) {
+                return http.getStatusCode().is4xxClientError() ? "http_4xx" : "http_5xx";
+            }
+            if (t instanceof SocketTimeoutException || t instanceof TimeoutException) {
+                return "timeout";
+            }
+            if (t instanceof ConnectException || t instanceof UnknownHostException) {
+                return "connect";
+            }
+            if (t instanceof ResourceAccessException) {
+                return "io";
+            }
+            if (t instanceof IllegalStateException) {
+                return "config";
+            }
+        }
+        return "other";
+    }
+
+    private AtomicInteger inFlight(String provider) {
+        return inFlight.computeIfAbsent(provider, p -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("oauth.login.inflight", counter, AtomicInteger::get)
+                    .description("OAuth logins currently being processed")
+                    .tag("provider", p)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    private Timer stageTimer(String provider, String stage, String outcome) {
+        return Timer.builder("oauth.login.stage")
+                .description("Latency of each OAuth login stage")
+                .tag("provider", provider)
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer loginTimer(String provider, String outcome) {
+        return Timer.builder("oauth.login")
+                .description("End-to-end OAuth callback processing latency")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,118 @@
+package site.aifixr.api.oauthservice.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import site.aifixr.api.oauthservice.account.AccountService;
+import site.aifixr.api.oauthservice.account.AccountWriter;
+import site.aifixr.api.oauthservice.account.IdentityCache;
+import site.aifixr.api.oauthservice.jwt.JwtVerifier;
+import site.aifixr.api.oauthservice.jwt.VerifiedTokenCache;
+import site.aifixr.api.oauthservice.resilience.ProviderGuard;
+import site.aifixr.api.oauthservice.state.OAuthStateStore;
+
+/**
+ * 로그인 외 보조 메트릭 바인딩
+ */
+@Configuration
+public class OAuthMetricsConfig {
+
+	/**
+	 * 검증 완료 토큰 캐시 hit/miss (jwt.verified.cache.*)
+	 */
+	@Bean
+	public MeterBinder jwtVerifiedCacheMetrics(JwtVerifier jwtVerifier) {
+		VerifiedTokenCache cache = jwtVerifier.getCache();
+		return registry -> {
+			FunctionCounter.builder("jwt.verified.cache.requests", cache, VerifiedTokenCache::getHitCount)
+					.tag("result", "hit")
+					.register(registry);
+			FunctionCounter.builder("jwt.verified.cache.requests", cache, VerifiedTokenCache::getMissCount)
+					.tag("result", "miss")
+					.register(registry);
+			FunctionCounter.builder("jwt.verified.cache.evictions", cache, VerifiedTokenCache::getEvictionCount)
+					.register(registry);
+			Gauge.builder("jwt.verified.cache.size", cache, VerifiedTokenCache::size)
+					.register(registry);
+		};
+	}
+
+	/**
+	 * 계정 write-behind 버퍼와 식별자 캐시 (oauth.account.*)
+	 */
+	@Bean
+	public MeterBinder accountMetrics(AccountWriter accountWriter, AccountService accountService) {
+		IdentityCache cache = accountService.getIdentityCache();
+		return registry -> {
+			Gauge.builder("oauth.account.buffer.size", accountWriter, AccountWriter::getBufferSize)
+					.register(registry);
+			FunctionCounter.builder("oauth.account.events", accountWriter, AccountWriter::getEnqueuedCount)
+					.tag("result", "enqueued")
+					.register(registry);
+			FunctionCounter.builder("oauth.account.events", accountWriter, AccountWriter::getDroppedCount)
+					.tag("result", "dropped")
+					.register(registry);
+			FunctionCounter.builder("oauth.account.events", accountWriter, AccountWriter::getFlushedCount)
+					.tag("result", "flushed")
+					.register(registry);
+			FunctionCounter.builder("oauth.account.flush.failures", accountWriter, AccountWriter::getFailureCount)
+					.register(registry);
+			FunctionCounter.builder("oauth.account.cache.requests", cache, IdentityCache::getHitCount)
+					.tag("result", "hit")
+					.register(registry);
+			FunctionCounter.builder("oauth.account.cache.requests", cache, IdentityCache::getMissCount)
+					.tag("result", "miss")
+					.register(registry);
+			Gauge.builder("oauth.account.cache.size", cache, IdentityCache::size)
+					.register(registry);
+		};
+	}
+
+	/**
+	 * 소비 대기 중/만료된 state 수 (oauth.state.outstanding, oauth.state.expired)
+	 */
+	@Bean
+	public MeterBinder oauthStateMetrics(OAuthStateStore oauthStateStore) {
+		return registry -> {
+			Gauge.builder("oauth.state.outstanding", oauthStateStore, OAuthStateStore::outstanding)
+					.register(registry);
+			FunctionCounter.builder("oauth.state.expired", oauthStateStore, OAuthStateStore::expiredCount)
+					.register(registry);
+		};
+	}
+
+	/**
+	 * 프로바이더별 Bulkhead / 헤징 / 적응형 타임아웃 (oauth.provider.*)
+	 */
+	@Bean
+	public MeterBinder providerGuardMetrics(ObjectProvider<ProviderGuard> providerGuards) {
+		return registry -> providerGuards.orderedStream().forEach(guard -> {
+			String provider = guard.getProvider();
+			Gauge.builder("oauth.provider.bulkhead.available", guard, ProviderGuard::getAvailablePermits)
+					.tag("provider", provider)
+					.register(registry);
+			FunctionCounter.builder("oauth.provider.bulkhead.rejected", guard, ProviderGuard::getRejectedCount)
+					.tag("provider", provider)
+					.register(registry);
+			FunctionCounter.builder("oauth.provider.hedge", guard, ProviderGuard::getHedgeCount)
+					.tag("provider", provider)
+					.tag("result", "issued")
+					.register(registry);
+			FunctionCounter.builder("oauth.provider.hedge", guard, ProviderGuard::getHedgeWinCount)
+					.tag("provider", provider)
+					.tag("result", "won")
+					.register(registry);
+			for (String endpoint : guard.getEndpoints()) {
+				Gauge.builder("oauth.provider.timeout", guard, g -> g.timeout(endpoint))
+						.description("Current adaptive response timeout")
+						.baseUnit("milliseconds")
+						.tag("provider", provider)
+						.tag("endpoint", endpoint)
+						.register(registry);
+			}
+		});
+	}
+}
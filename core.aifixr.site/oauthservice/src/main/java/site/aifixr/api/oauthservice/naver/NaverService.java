@@ -11,22 +11,35 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import site.aifixr.api.oauthservice.account.AccountService;
 import site.aifixr.api.oauthservice.config.NaverConfig;
 import site.aifixr.api.oauthservice.jwt.JwtTokenProvider;
+import site.aifixr.api.oauthservice.metrics.LoginMetrics;
+import site.aifixr.api.oauthservice.refresh.RefreshTokenService;
+import site.aifixr.api.oauthservice.resilience.ProviderGuard;
 import site.aifixr.api.oauthservice.naver.dto.NaverTokenResponse;
 import site.aifixr.api.oauthservice.naver.dto.NaverUserInfo;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NaverService {
+    private static final String PROVIDER = "naver";
+
     private final NaverConfig naverConfig;
-    private final RestTemplate restTemplate;
+    private final RestTemplate naverRestTemplate;
+    private final ProviderGuard naverProviderGuard;
+    private final ExecutorService oauthLoginExecutor;
+    private final LoginMetrics loginMetrics;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final AccountService accountService;
 
     /**
      * Authorization Code로 Access Token 요청
@@ -50,10 +63,12 @@ public class NaverService {
             if (tokenUri == null) {
                 throw new IllegalStateException("Naver token URI is not configured");
             }
-            ResponseEntity<NaverTokenResponse> response = restTemplate.postForEntity(
-                    tokenUri,
-                    request,
-                    NaverTokenResponse.class);
+            // 토큰 교환은 authorization code를 소비하므로 헤징하지 않는다
+            ResponseEntity<NaverTokenResponse> response = naverProviderGuard.call(tokenUri,
+                    () -> naverRestTemplate.postForEntity(
+                            tokenUri,
+                            request,
+                            NaverTokenResponse.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 NaverTokenResponse body = response.getBody();
@@ -94,11 +109,12 @@ public class NaverService {
 
         try {
             HttpMethod method = Objects.requireNonNull(HttpMethod.GET);
-            ResponseEntity<NaverUserInfo> response = restTemplate.exchange(
-                    userInfoUri,
-                    method,
-                    request,
-                    NaverUserInfo.class);
+            ResponseEntity<NaverUserInfo> response = naverProviderGuard.callHedged(userInfoUri,
+                    () -> naverRestTemplate.exchange(
+                            userInfoUri,
+                            method,
+                            request,
+                            NaverUserInfo.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return response.getBody();
@@ -112,15 +128,26 @@ public class NaverService {
         }
     }
 
+    /**
+     * 네이버 로그인 처리 (비동기)
+     * 프로바이더 호출은 가상 스레드에서 수행되므로 호출한 요청 스레드는 바로 반환된다.
+     */
+    public CompletableFuture<OAuthUserResponse> processNaverLoginAsync(String code, String state) {
+        return loginMetrics.track(PROVIDER,
+                () -> CompletableFuture.supplyAsync(() -> processNaverLogin(code, state), oauthLoginExecutor));
+    }
+
     /**
      * 네이버 로그인 처리 (메인 로직)
      */
     public OAuthUserResponse processNaverLogin(String code, String state) {
         // 1. Access Token 획득
-        NaverTokenResponse tokenResponse = getAccessToken(code, state);
+        NaverTokenResponse tokenResponse = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_TOKEN_EXCHANGE,
+                () -> getAccessToken(code, state));
 
         // 2. 사용자 정보 조회
-        NaverUserInfo userInfo = getUserInfo(tokenResponse.getAccessToken());
+        NaverUserInfo userInfo = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_USER_INFO,
+                () -> getUserInfo(tokenResponse.getAccessToken()));
 
         // 3. 네이버 사용자 정보 추출
         String naverId = userInfo.getId();
@@ -128,18 +155,26 @@ public class NaverService {
         String nickname = userInfo.getNickname();
         String name = userInfo.getName();
 
-        // 4. JWT 토큰 생성
+        // 4. 내부 계정 ID 조회 + 로그인 기록 (DB 기록은 백그라운드 배치)
+        String accountId = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_ACCOUNT,
+                () -> accountService.recordLogin(PROVIDER, naverId, email, nickname, null));
+
+        // 5. JWT 토큰 생성
         Map<String, Object> claims = new HashMap<>();
+        claims.put("accountId", accountId);
+        claims.put("provider", PROVIDER);
         if (email != null) {
             claims.put("email", email);
         }
         if (name != null) {
             claims.put("name", name);
         }
-        String jwtAccessToken = jwtTokenProvider.generateToken(naverId, claims);
-        String jwtRefreshToken = jwtTokenProvider.generateRefreshToken(naverId);
+        String jwtAccessToken = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_JWT_SIGN,
+                () -> jwtTokenProvider.generateToken(naverId, claims));
+        String jwtRefreshToken = loginMetrics.record(PROVIDER, LoginMetrics.STAGE_JWT_SIGN,
+                () -> refreshTokenService.issue(naverId, claims));
 
-        // 5. 응답 생성
+        // 6. 응답 생성
         return OAuthUserResponse.builder()
                 .accessToken(jwtAccessToken)
                 .refreshToken(jwtRefreshToken)
@@ -148,7 +183,7 @@ public class NaverService {
                         .email(email)
                         .nickname(nickname)
                         .name(name)
-                        .provider("naver")
+                        .provider(PROVIDER)
                         .build())
                 .build();
     }
@@ -0,0 +1,55 @@
+package site.aifixr.api.oauthservice.refresh;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메모리 기반 Refresh Token 저장소 (기본값)
+ * 인스턴스 재시작 시 토큰이 사라지므로 여러 인스턴스 운영 시에는 jdbc 저장소를 사용한다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "oauth.refresh", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Map<String, RefreshTokenRecord> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(RefreshTokenRecord record) {
+        entries.put(record.tokenHash(), record);
+    }
+
+    @Override
+    public Optional<RefreshTokenRecord> find(String tokenHash) {
+        return Optional.ofNullable(entries.get(tokenHash));
+    }
+
+    @Override
+    public boolean markUsed(String tokenHash) {
+        RefreshTokenRecord current = entries.get(tokenHash);
+        if (current == null || current.used()) {
+            return false;
+        }
+        // 동시에 같은 토큰으로 회전을 요청하면 한 요청만 성공한다.
+        return entries.replace(tokenHash, current, current.markUsed());
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        entries.values().removeIf(record -> record.familyId().equals(familyId));
+    }
+
+    @Override
+    public int purgeExpired(long now) {
+        int before = entries.size();
+        entries.values().removeIf(record -> record.isExpired(now));
+        return Math.max(0, before - entries.size());
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
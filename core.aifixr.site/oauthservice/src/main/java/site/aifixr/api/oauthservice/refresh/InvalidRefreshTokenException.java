@@ -0,0 +1,11 @@
+package site.aifixr.api.oauthservice.refresh;
+
+/**
+ * Refresh Token이 유효하지 않을 때 (서명/만료 실패, 미등록, 재사용)
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
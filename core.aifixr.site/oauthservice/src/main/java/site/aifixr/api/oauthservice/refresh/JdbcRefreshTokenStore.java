@@ -0,0 +1,121 @@
+package site.aifixr.api.oauthservice.refresh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * PostgreSQL 기반 Refresh Token 저장소 (oauth.refresh.store=jdbc)
+ * 토큰 해시를 기본 키로 사용하므로 조회/사용 처리는 인덱스 한 번으로 끝난다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "oauth.refresh", name = "store", havingValue = "jdbc")
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcRefreshTokenStore implements RefreshTokenStore {
+    private static final String SCHEMA = "db/oauth_refresh_token.sql";
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final RefreshTokenProperties refreshTokenProperties;
+
+    private final RowMapper<RefreshTokenRecord> rowMapper = (rs, rowNum) -> new RefreshTokenRecord(
+            rs.getString("token_hash"),
+            rs.getString("family_id"),
+            rs.getString("subject"),
+            readClaims(rs.getString("claims")),
+            rs.getTimestamp("expires_at").getTime(),
+            rs.getBoolean("used"));
+
+    /**
+     * 테이블 생성 (DB 연결 실패 시에도 애플리케이션 기동은 계속한다)
+     */
+    @PostConstruct
+    public void initializeSchema() {
+        if (!refreshTokenProperties.isInitializeSchema()) {
+            return;
+        }
+        try {
+            DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)), dataSource);
+        } catch (Exception e) {
+            log.warn("Failed to initialize refresh token schema: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void save(RefreshTokenRecord record) {
+        jdbcTemplate.update(
+                "INSERT INTO oauth_refresh_token (token_hash, family_id, subject, claims, expires_at, used) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                record.tokenHash(),
+                record.familyId(),
+                record.subject(),
+                writeClaims(record.claims()),
+                new Timestamp(record.expiresAt()),
+                record.used());
+    }
+
+    @Override
+    public Optional<RefreshTokenRecord> find(String tokenHash) {
+        return jdbcTemplate.query(
+                "SELECT token_hash, family_id, subject, claims, expires_at, used "
+                        + "FROM oauth_refresh_token WHERE token_hash = ?",
+                rowMapper,
+                tokenHash).stream().findFirst();
+    }
+
+    @Override
+    public boolean markUsed(String tokenHash) {
+        // 조건부 UPDATE로 동시 회전 요청 중 한 건만 성공
+        return jdbcTemplate.update(
+                "UPDATE oauth_refresh_token SET used = TRUE WHERE token_hash = ? AND used = FALSE",
+                tokenHash) == 1;
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        jdbcTemplate.update("DELETE FROM oauth_refresh_token WHERE family_id = ?", familyId);
+    }
+
+    @Override
+    public int purgeExpired(long now) {
+        return jdbcTemplate.update("DELETE FROM oauth_refresh_token WHERE expires_at <= ?", new Timestamp(now));
+    }
+
+    private String writeClaims(Map<String, Object> claims) {
+        try {
+            return objectMapper.writeValueAsString(claims);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize refresh token claims", e);
+        }
+    }
+
+    private Map<String, Object> readClaims(String json) {
+        if (json == null || json.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, CLAIMS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to deserialize refresh token claims", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package site.aifixr.api.oauthservice.refresh;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/token")
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenController {
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * Access Token 재발급 (Refresh Token 회전)
+     * POST /token/refresh  {"refreshToken": "..."}
+     * 외부 프로바이더를 거치지 않고 새 토큰 쌍을 발급한다.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@RequestBody(required = false) Map<String, String> body) {
+        try {
+            RefreshTokenService.TokenPair tokens = refreshTokenService.rotate(refreshToken(body));
+            return ResponseEntity.ok(Map.of(
+                    "accessToken", tokens.accessToken(),
+                    "refreshToken", tokens.refreshToken()));
+        } catch (InvalidRefreshTokenException e) {
+            log.debug("Refresh token rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * 로그아웃: Refresh Token 계열 폐기
+     * POST /token/revoke  {"refreshToken": "..."}
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revoke(@RequestBody(required = false) Map<String, String> body) {
+        refreshTokenService.revoke(refreshToken(body));
+        return ResponseEntity.noContent().build();
+    }
+
+    private static String refreshToken(Map<String, String> body) {
+        return body != null ? body.get("refreshToken") : null;
+    }
+}
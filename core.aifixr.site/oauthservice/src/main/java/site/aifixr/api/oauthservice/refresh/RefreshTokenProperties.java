@@ -0,0 +1,16 @@
+package site.aifixr.api.oauthservice.refresh;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "oauth.refresh")
+@Getter
+@Setter
+public class RefreshTokenProperties {
+    private String store = "memory"; // memory | jdbc
+    private long purgeInterval = 600000L; // 만료 토큰 정리 주기 10분 (밀리초)
+    private boolean initializeSchema = true; // jdbc 저장소 테이블 자동 생성
+}
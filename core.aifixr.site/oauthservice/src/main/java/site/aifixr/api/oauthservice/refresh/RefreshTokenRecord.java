@@ -0,0 +1,35 @@
+package site.aifixr.api.oauthservice.refresh;
+
+import java.util.Map;
+
+/**
+ * 저장소에 보관되는 Refresh Token 정보
+ * 토큰 원문은 저장하지 않고 SHA-256 해시(tokenHash)로만 조회한다.
+ *
+ * @param tokenHash 토큰 SHA-256 해시 (Base64URL)
+ * @param familyId  최초 로그인 시 생성되어 회전(rotation) 내내 유지되는 토큰 계열 ID
+ * @param subject   사용자 ID (JWT sub)
+ * @param claims    Access Token 재발급 시 사용할 추가 클레임
+ * @param expiresAt 만료 시각 (epoch 밀리초)
+ * @param used      이미 회전에 사용되었는지 여부
+ */
+public record RefreshTokenRecord(
+        String tokenHash,
+        String familyId,
+        String subject,
+        Map<String, Object> claims,
+        long expiresAt,
+        boolean used) {
+
+    public RefreshTokenRecord {
+        claims = claims != null ? Map.copyOf(claims) : Map.of();
+    }
+
+    public RefreshTokenRecord markUsed() {
+        return new RefreshTokenRecord(tokenHash, familyId, subject, claims, expiresAt, true);
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
@@ -0,0 +1,120 @@
+package site.aifixr.api.oauthservice.refresh;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import site.aifixr.api.oauthservice.jwt.JwtProperties;
+import site.aifixr.api.oauthservice.jwt.JwtTokenProvider;
+import site.aifixr.api.oauthservice.jwt.VerifiedTokenCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Refresh Token 발급/회전 서비스
+ * - 발급 시 토큰 해시만 저장소에 기록
+ * - 회전(rotate) 시 기존 토큰을 사용 처리하고 같은 계열(family)로 새 토큰 쌍을 발급
+ * - 이미 사용된 토큰이 다시 오면 탈취로 간주하고 계열 전체를 폐기 (재사용 감지)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+    private final JwtProperties jwtProperties;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenStore refreshTokenStore;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 로그인 직후 새 토큰 계열로 Refresh Token 발급
+     */
+    public String issue(String subject, Map<String, Object> claims) {
+        return issueInFamily(UUID.randomUUID().toString(), subject, claims);
+    }
+
+    /**
+     * Refresh Token 회전: 새 Access Token + Refresh Token 발급
+     *
+     * @throws InvalidRefreshTokenException 토큰이 유효하지 않거나 재사용된 경우
+     */
+    public TokenPair rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw invalid("missing", "Refresh token is required");
+        }
+
+        Claims verified = jwtTokenProvider.resolveRefreshClaims(refreshToken)
+                .orElseThrow(() -> invalid("invalid", "Refresh token is invalid or expired"));
+
+        String tokenHash = VerifiedTokenCache.digest(refreshToken);
+        RefreshTokenRecord record = refreshTokenStore.find(tokenHash)
+                .orElseThrow(() -> invalid("unknown", "Refresh token is not recognized"));
+
+        if (!record.subject().equals(verified.getSubject()) || record.isExpired(System.currentTimeMillis())) {
+            throw invalid("invalid", "Refresh token is invalid or expired");
+        }
+
+        if (!refreshTokenStore.markUsed(tokenHash)) {
+            log.warn("Refresh token reuse detected for subject {}, revoking family {}",
+                    record.subject(), record.familyId());
+            refreshTokenStore.revokeFamily(record.familyId());
+            throw invalid("reuse", "Refresh token has already been used");
+        }
+
+        String accessToken = jwtTokenProvider.generateToken(record.subject(), new HashMap<>(record.claims()));
+        String nextRefreshToken = issueInFamily(record.familyId(), record.subject(), record.claims());
+        count("rotated");
+        return new TokenPair(accessToken, nextRefreshToken);
+    }
+
+    /**
+     * 로그아웃: 토큰이 속한 계열 전체 폐기
+     */
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return;
+        }
+        refreshTokenStore.find(VerifiedTokenCache.digest(refreshToken))
+                .ifPresent(record -> refreshTokenStore.revokeFamily(record.familyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${oauth.refresh.purge-interval:600000}")
+    public void purgeExpired() {
+        try {
+            int purged = refreshTokenStore.purgeExpired(System.currentTimeMillis());
+            if (purged > 0) {
+                log.debug("Purged {} expired refresh tokens", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge expired refresh tokens: {}", e.getMessage());
+        }
+    }
+
+    private String issueInFamily(String familyId, String subject, Map<String, Object> claims) {
+        String refreshToken = jwtTokenProvider.generateRefreshToken(subject, UUID.randomUUID().toString());
+        long expiresAt = System.currentTimeMillis() + jwtProperties.getRefreshExpiration();
+        refreshTokenStore.save(new RefreshTokenRecord(
+                VerifiedTokenCache.digest(refreshToken), familyId, subject, claims, expiresAt, false));
+        return refreshToken;
+    }
+
+    private InvalidRefreshTokenException invalid(String outcome, String message) {
+        count(outcome);
+        return new InvalidRefreshTokenException(message);
+    }
+
+    private void count(String outcome) {
+        Counter.builder("oauth.refresh")
+                .description("Refresh token rotations by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public record TokenPair(String accessToken, String refreshToken) {
+    }
+}
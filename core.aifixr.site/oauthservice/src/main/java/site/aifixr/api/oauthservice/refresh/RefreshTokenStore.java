@@ -0,0 +1,34 @@
+package site.aifixr.api.oauthservice.refresh;
+
+import java.util.Optional;
+
+/**
+ * Refresh Token 저장소
+ * - memory : 단일 인스턴스용 기본 구현 (InMemoryRefreshTokenStore)
+ * - jdbc   : 여러 인스턴스가 공유하는 PostgreSQL 구현 (JdbcRefreshTokenStore)
+ */
+public interface RefreshTokenStore {
+
+    void save(RefreshTokenRecord record);
+
+    Optional<RefreshTokenRecord> find(String tokenHash);
+
+    /**
+     * 미사용 토큰을 사용 처리 (원자적)
+     *
+     * @return 이번 호출로 사용 처리되었으면 true, 이미 사용되었거나 없으면 false
+     */
+    boolean markUsed(String tokenHash);
+
+    /**
+     * 토큰 계열 전체 폐기 (재사용 감지 또는 로그아웃)
+     */
+    void revokeFamily(String familyId);
+
+    /**
+     * 만료된 토큰 정리
+     *
+     * @return 삭제된 건수
+     */
+    int purgeExpired(long now);
+}
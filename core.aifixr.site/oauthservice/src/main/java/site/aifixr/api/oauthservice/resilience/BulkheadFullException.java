@@ -0,0 +1,11 @@
+package site.aifixr.api.oauthservice.resilience;
+
+/**
+ * 프로바이더 동시 호출 상한 초과
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String provider) {
+        super("Too many concurrent calls to " + provider);
+    }
+}
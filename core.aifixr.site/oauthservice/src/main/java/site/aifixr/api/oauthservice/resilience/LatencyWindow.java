@@ -0,0 +1,62 @@
+package site.aifixr.api.oauthservice.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 최근 N개 응답 시간 표본 (링 버퍼)
+ * 기록은 잠금 없이 수행하고, 백분위는 최대 refreshInterval마다 한 번만 다시 계산한다.
+ */
+public class LatencyWindow {
+    private static final long REFRESH_INTERVAL_MILLIS = 1000L;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+
+    private volatile long[] sorted = new long[0];
+    private volatile long sortedAt = 0L;
+    private volatile long sortedCount = 0L;
+
+    public LatencyWindow(int size) {
+        this.samples = new AtomicLongArray(Math.max(1, size));
+    }
+
+    public void record(long millis) {
+        long index = count.getAndIncrement();
+        samples.set((int) (index % samples.length()), Math.max(0L, millis));
+    }
+
+    public long sampleCount() {
+        return Math.min(count.get(), samples.length());
+    }
+
+    /**
+     * 백분위 (표본이 없으면 -1)
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = snapshot();
+        if (snapshot.length == 0) {
+            return -1L;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * snapshot.length) - 1;
+        return snapshot[Math.min(snapshot.length - 1, Math.max(0, index))];
+    }
+
+    private long[] snapshot() {
+        long now = System.currentTimeMillis();
+        long total = count.get();
+        if (total != sortedCount && now - sortedAt >= REFRESH_INTERVAL_MILLIS || sorted.length == 0 && total > 0) {
+            int size = (int) Math.min(total, samples.length());
+            long[] copy = new long[size];
+            for (int i = 0; i < size; i++) {
+                copy[i] = samples.get(i);
+            }
+            Arrays.sort(copy);
+            sorted = copy;
+            sortedAt = now;
+            sortedCount = total;
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,253 @@
+package site.aifixr.api.oauthservice.resilience;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpMethod;
+import site.aifixr.api.oauthservice.config.OAuthHttpClientProperties;
+import site.aifixr.api.oauthservice.config.OAuthResilienceProperties;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 프로바이더 한 곳에 대한 호출 보호
+ * - Bulkhead: 동시 호출 수를 Semaphore로 제한 (한 프로바이더 장애가 다른 프로바이더 로그인을 막지 않도록)
+ * - 적응형 타임아웃: 엔드포인트별 최근 p99 × multiplier 를 요청별 응답 타임아웃으로 적용
+ * - 헤징: 멱등 GET이 hedgeDelay 안에 끝나지 않으면 한 번 더 요청하고 먼저 성공한 응답 사용
+ */
+public class ProviderGuard {
+    private static final String OTHER_ENDPOINT = "other";
+
+    private final String provider;
+    private final OAuthResilienceProperties properties;
+    private final OAuthHttpClientProperties http;
+    private final ExecutorService executor;
+    private final Semaphore bulkhead;
+    private final Map<String, String> endpointNames = new LinkedHashMap<>();
+    private final Map<String, LatencyWindow> windows = new LinkedHashMap<>();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * @param endpoints 엔드포인트 이름 → URI (예: token → https://kauth.kakao.com/oauth/token)
+     */
+    public ProviderGuard(String provider, OAuthResilienceProperties properties, OAuthHttpClientProperties http,
+                         Map<String, String> endpoints, ExecutorService executor) {
+        this.provider = provider;
+        this.properties = properties;
+        this.http = http;
+        this.executor = executor;
+        this.bulkhead = new Semaphore(Math.max(1, properties.getMaxConcurrentCalls()));
+        endpoints.forEach((name, uri) -> {
+            if (uri != null && !uri.isEmpty()) {
+                endpointNames.put(key(URI.create(uri)), name);
+                windows.put(name, new LatencyWindow(properties.getWindowSize()));
+            }
+        });
+        windows.put(OTHER_ENDPOINT, new LatencyWindow(properties.getWindowSize()));
+    }
+
+    /**
+     * Bulkhead 안에서 호출하고 응답 시간을 기록
+     *
+     * @throws BulkheadFullException maxWait 안에 슬롯을 얻지 못한 경우
+     */
+    public <T> T call(String uri, Supplier<T> action) {
+        acquire();
+        try {
+            return timed(uri, action);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * 헤징 호출 (멱등 GET 전용). 헤징이 꺼져 있으면 call과 같다.
+     * 두 번째 요청은 Bulkhead에 여유가 있을 때만 보내므로 과부하 시 부하를 키우지 않는다.
+     */
+    public <T> T callHedged(String uri, Supplier<T> action) {
+        if (!properties.isHedgeEnabled()) {
+            return call(uri, action);
+        }
+
+        acquire();
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        attempts.add(completion.submit(withPermit(uri, action)));
+        try {
+            Future<T> done = completion.poll(hedgeDelay(uri), TimeUnit.MILLISECONDS);
+            if (done == null && bulkhead.tryAcquire()) {
+                hedges.increment();
+                attempts.add(completion.submit(withPermit(uri, action)));
+            }
+
+            ExecutionException lastFailure = null;
+            for (int i = 0; i < attempts.size(); i++) {
+                Future<T> completed = (i == 0 && done != null) ? done : completion.take();
+                try {
+                    T result = completed.get();
+                    if (completed != attempts.get(0)) {
+                        hedgeWins.increment();
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    lastFailure = e;
+                }
+            }
+            throw unwrap(lastFailure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while calling " + provider, e);
+        } finally {
+            // 늦은 쪽 요청은 중단 (가상 스레드 인터럽트 시 소켓이 닫히고 연결은 풀에서 폐기된다)
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * RestTemplate 요청별 컨텍스트: 엔드포인트의 현재 적응형 타임아웃을 응답 타임아웃으로 적용
+     */
+    public HttpContext httpContext(HttpMethod method, URI uri) {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(http.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.ofMilliseconds(timeout(endpointName(uri))))
+                .build());
+        return context;
+    }
+
+    /**
+     * 엔드포인트의 현재 응답 타임아웃 (밀리초)
+     */
+    public long timeout(String endpoint) {
+        long max = properties.getMaxTimeout();
+        LatencyWindow window = windows.get(endpoint);
+        if (!properties.isAdaptiveTimeout() || window == null || window.sampleCount() < properties.getMinSamples()) {
+            return max;
+        }
+        long adaptive = (long) (window.percentile(99) * properties.getTimeoutMultiplier());
+        return Math.min(max, Math.max(properties.getMinTimeout(), adaptive));
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public List<String> getEndpoints() {
+        return List.copyOf(windows.keySet());
+    }
+
+    public int getAvailablePermits() {
+        return bulkhead.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * 헤징 요청을 보내기까지 기다릴 시간: 고정값이 없으면 엔드포인트 p95 (표본이 부족하면 헤징하지 않는 것과 같다)
+     */
+    long hedgeDelay(String uri) {
+        if (properties.getHedgeDelay() > 0) {
+            return properties.getHedgeDelay();
+        }
+        String endpoint = endpointName(URI.create(uri));
+        LatencyWindow window = windows.get(endpoint);
+        if (window.sampleCount() < properties.getMinSamples()) {
+            return timeout(endpoint);
+        }
+        return Math.max(properties.getMinHedgeDelay(), window.percentile(95));
+    }
+
+    /**
+     * 이미 얻은 Bulkhead 슬롯을 작업이 끝날 때 반환
+     */
+    private <T> Callable<T> withPermit(String uri, Supplier<T> action) {
+        return () -> {
+            try {
+                return timed(uri, action);
+            } finally {
+                bulkhead.release();
+            }
+        };
+    }
+
+    private void acquire() {
+        try {
+            if (!bulkhead.tryAcquire(properties.getMaxWait(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new BulkheadFullException(provider);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(provider);
+        }
+    }
+
+    private <T> T timed(String uri, Supplier<T> action) {
+        LatencyWindow window = windows.get(endpointName(URI.create(uri)));
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return result;
+        } catch (RuntimeException e) {
+            // 타임아웃도 표본에 넣어야 지연이 실제로 늘었을 때 타임아웃이 따라 늘어난다.
+            if (isTimeout(e)) {
+                window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            throw e;
+        }
+    }
+
+    private String endpointName(URI uri) {
+        return endpointNames.getOrDefault(key(uri), OTHER_ENDPOINT);
+    }
+
+    private static String key(URI uri) {
+        return uri.getHost() + uri.getPath();
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e != null ? e.getCause() : null;
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new RuntimeException(cause);
+    }
+}
@@ -0,0 +1,177 @@
+package site.aifixr.api.oauthservice.state;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 메모리 기반 state 저장소 (기본값)
+ * - 저장: state 해시로 고른 stripe의 HashMap (stripe별 잠금으로 경합 분산)
+ * - 소비: stripe 잠금 안에서 remove 한 번 (O(1), 한 번만 성공)
+ * - 만료: 만료 시각이 속한 타이머 휠 칸에 키를 넣어 두고, tick마다 지난 칸만 비운다.
+ *   전체 스캔이 없으므로 만료 비용은 만료되는 state 수에만 비례한다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "oauth.state", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOAuthStateStore implements OAuthStateStore {
+
+    private final Stripe[] stripes;
+    private final ConcurrentLinkedQueue<String>[] wheel;
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final AtomicBoolean advancing = new AtomicBoolean(false);
+
+    private final LongAdder outstanding = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    private volatile long currentTick;
+
+    @Autowired
+    public InMemoryOAuthStateStore(OAuthStateProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    InMemoryOAuthStateStore(OAuthStateProperties properties, LongSupplier clock) {
+        this.clock = clock;
+        this.tickMillis = Math.max(1L, properties.getTickInterval());
+
+        this.stripes = new Stripe[Math.max(1, properties.getStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        // 한 바퀴가 ttl보다 길어야 아직 만료되지 않은 키를 먼저 만나지 않는다.
+        int slots = (int) (Math.max(1L, properties.getTtl()) / tickMillis) + 2;
+        this.wheel = (ConcurrentLinkedQueue<String>[]) new ConcurrentLinkedQueue<?>[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = clock.getAsLong() / tickMillis;
+    }
+
+    @Override
+    public void save(String state, String provider, long ttlMillis) {
+        long expiresAt = clock.getAsLong() + ttlMillis;
+        Stripe stripe = stripeFor(state);
+        stripe.lock.lock();
+        try {
+            if (stripe.entries.put(state, new Entry(provider, expiresAt)) == null) {
+                outstanding.increment();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        schedule(state, expiresAt);
+    }
+
+    @Override
+    public boolean consume(String state, String provider) {
+        long now = clock.getAsLong();
+        Stripe stripe = stripeFor(state);
+        Entry entry;
+        stripe.lock.lock();
+        try {
+            entry = stripe.entries.remove(state);
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (entry == null) {
+            return false;
+        }
+        outstanding.decrement();
+        if (entry.expiresAt() <= now) {
+            expired.increment();
+            return false;
+        }
+        return entry.provider().equals(provider);
+    }
+
+    @Override
+    public long outstanding() {
+        return outstanding.sum();
+    }
+
+    @Override
+    public long expiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * 타이머 휠 진행: 지난 칸의 state 중 만료된 것을 제거
+     */
+    @Scheduled(fixedRateString = "${oauth.state.tick-interval:1000}")
+    public void advance() {
+        if (!advancing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = clock.getAsLong();
+            long targetTick = now / tickMillis;
+            // 오래 멈춰 있었다면 한 바퀴만 돌면 충분하다.
+            long tick = Math.max(currentTick, targetTick - wheel.length);
+            while (tick < targetTick) {
+                tick++;
+                drain(wheel[(int) (tick % wheel.length)], now);
+            }
+            currentTick = targetTick;
+        } finally {
+            advancing.set(false);
+        }
+    }
+
+    private void drain(ConcurrentLinkedQueue<String> slot, long now) {
+        int pending = slot.size();
+        String state;
+        while (pending-- > 0 && (state = slot.poll()) != null) {
+            Stripe stripe = stripeFor(state);
+            Entry entry;
+            stripe.lock.lock();
+            try {
+                entry = stripe.entries.get(state);
+                if (entry != null && entry.expiresAt() <= now) {
+                    stripe.entries.remove(state);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            if (entry == null) {
+                continue; // 이미 소비됨
+            }
+            if (entry.expiresAt() <= now) {
+                outstanding.decrement();
+                expired.increment();
+            } else {
+                schedule(state, entry.expiresAt()); // 같은 state가 다시 저장된 경우
+            }
+        }
+    }
+
+    private void schedule(String state, long expiresAt) {
+        long tick = Math.floorDiv(expiresAt + tickMillis - 1, tickMillis);
+        wheel[(int) (tick % wheel.length)].add(state);
+    }
+
+    private Stripe stripeFor(String state) {
+        int h = state.hashCode();
+        h ^= (h >>> 16);
+        return stripes[Math.floorMod(h, stripes.length)];
+    }
+
+    private record Entry(String provider, long expiresAt) {
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new HashMap<>();
+    }
+}
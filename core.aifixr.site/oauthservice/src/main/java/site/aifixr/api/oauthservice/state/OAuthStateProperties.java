@@ -0,0 +1,20 @@
+package site.aifixr.api.oauthservice.state;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "oauth.state")
+@Getter
+@Setter
+public class OAuthStateProperties {
+    private String store = "memory"; // memory | redis
+    private long ttl = 600000L; // state 유효 시간 10분 (밀리초)
+    private long tickInterval = 1000L; // 만료 타이머 휠 한 칸 (밀리초)
+    private long sweepInterval = 60000L; // Redis 저장소 만료 대기 항목 정리 주기 (밀리초)
+    private int stripes = 16; // 메모리 저장소 잠금 분할 수
+    private String redisKeyPrefix = "oauth:state:";
+    private boolean cookieSecure = true; // state 쿠키 Secure 속성 (https가 아닌 로컬 환경만 false)
+}
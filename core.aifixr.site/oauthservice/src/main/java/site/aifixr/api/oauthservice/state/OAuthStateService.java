@@ -0,0 +1,89 @@
+package site.aifixr.api.oauthservice.state;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 로그인 URL의 state 발급과 콜백의 state 검증 (CSRF 방지)
+ * - 발급한 state를 HttpOnly 쿠키(oauth_state_{provider})로도 내려 로그인을 시작한 브라우저에 묶는다.
+ *   다른 사람이 /login으로 받은 state를 피해자의 콜백에 끼워 넣어도 쿠키가 없으므로 거부된다.
+ * - 콜백은 모든 프로바이더에서 state 파라미터 = 쿠키 값이고, 저장소에서 한 번만 소비될 때만 통과한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OAuthStateService {
+    public static final String COOKIE_PREFIX = "oauth_state_";
+
+    private final OAuthStateStore oauthStateStore;
+    private final OAuthStateProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 새 state 발급 및 저장
+     */
+    public String issue(String provider) {
+        String state = UUID.randomUUID().toString();
+        oauthStateStore.save(state, provider, properties.getTtl());
+        count(provider, "issued");
+        return state;
+    }
+
+    /**
+     * state를 발급한 브라우저에 묶는 쿠키 (콜백은 프로바이더에서 돌아오는 top-level GET이므로 SameSite=Lax로 충분)
+     */
+    public ResponseCookie bindingCookie(String provider, String state) {
+        return ResponseCookie.from(COOKIE_PREFIX + provider, state)
+                .httpOnly(true)
+                .secure(properties.isCookieSecure())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(Duration.ofMillis(properties.getTtl()))
+                .build();
+    }
+
+    /**
+     * 콜백 state 검증 (한 번 소비되면 다시 사용할 수 없다)
+     *
+     * @param boundState 브라우저가 보낸 state 쿠키 값
+     */
+    public boolean verify(String provider, String state, String boundState) {
+        if (state == null || state.isEmpty()) {
+            count(provider, "missing");
+            return false;
+        }
+        if (boundState == null || !MessageDigest.isEqual(
+                state.getBytes(StandardCharsets.UTF_8), boundState.getBytes(StandardCharsets.UTF_8))) {
+            count(provider, "unbound");
+            return false;
+        }
+
+        boolean valid;
+        try {
+            valid = oauthStateStore.consume(state, provider);
+        } catch (Exception e) {
+            log.error("Failed to verify OAuth state for {}: {}", provider, e.getMessage());
+            valid = false;
+        }
+        count(provider, valid ? "valid" : "invalid");
+        return valid;
+    }
+
+    private void count(String provider, String result) {
+        Counter.builder("oauth.state")
+                .description("OAuth state issue/verification results")
+                .tag("provider", provider)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,31 @@
+package site.aifixr.api.oauthservice.state;
+
+/**
+ * OAuth state(nonce) 저장소
+ * - memory : 분할 잠금 + 타이머 휠 만료 (InMemoryOAuthStateStore)
+ * - redis  : 여러 인스턴스가 state를 공유 (RedisOAuthStateStore)
+ */
+public interface OAuthStateStore {
+
+    /**
+     * state 등록 (ttl 이후 자동 만료)
+     */
+    void save(String state, String provider, long ttlMillis);
+
+    /**
+     * state 소비 (한 번만 성공)
+     *
+     * @return 등록된 state이고 provider가 같으며 만료 전이면 true
+     */
+    boolean consume(String state, String provider);
+
+    /**
+     * 아직 소비/만료되지 않은 state 수
+     */
+    long outstanding();
+
+    /**
+     * 소비되지 않고 만료된 state 누적 수
+     */
+    long expiredCount();
+}
@@ -0,0 +1,79 @@
+package site.aifixr.api.oauthservice.state;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Redis 기반 state 저장소 (oauth.state.store=redis)
+ * - 저장: SET key provider PX ttl (만료는 Redis가 처리) + 대기 목록(ZSET, score = 만료 시각)에 추가
+ * - 소비: GETDEL 한 번으로 조회와 삭제를 원자적으로 수행, 대기 목록에서 제거
+ * - 정리: sweep-interval마다 대기 목록에서 만료 시각이 지난 항목을 ZREMRANGEBYSCORE로 걷어 내 만료 카운터(INCRBY)에 더한다.
+ *   여러 인스턴스가 동시에 걷어도 항목마다 한 번만 제거되므로 중복 집계되지 않는다.
+ * - 메트릭은 읽기만 한다 (ZCOUNT, GET). 스크레이프 여부와 관계없이 대기 목록이 커지지 않고 값도 인스턴스마다 같다.
+ * 로그인 URL을 만든 인스턴스와 콜백을 받는 인스턴스가 달라도 검증된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "oauth.state", name = "store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisOAuthStateStore implements OAuthStateStore {
+    private static final String PENDING_KEY = "pending";
+    private static final String EXPIRED_KEY = "expired";
+
+    private final StringRedisTemplate redisTemplate;
+    private final OAuthStateProperties properties;
+
+    @Override
+    public void save(String state, String provider, long ttlMillis) {
+        redisTemplate.opsForValue().set(key(state), provider, Duration.ofMillis(ttlMillis));
+        redisTemplate.opsForZSet().add(key(PENDING_KEY), state, System.currentTimeMillis() + ttlMillis);
+    }
+
+    @Override
+    public boolean consume(String state, String provider) {
+        String stored = redisTemplate.opsForValue().getAndDelete(key(state));
+        if (stored != null) {
+            redisTemplate.opsForZSet().remove(key(PENDING_KEY), state);
+        }
+        return provider.equals(stored);
+    }
+
+    @Override
+    public long outstanding() {
+        Long count = redisTemplate.opsForZSet()
+                .count(key(PENDING_KEY), System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public long expiredCount() {
+        String expired = redisTemplate.opsForValue().get(key(EXPIRED_KEY));
+        return expired != null ? Long.parseLong(expired) : 0L;
+    }
+
+    /**
+     * 만료된 대기 항목 정리 (소비되지 않고 만료된 수를 만료 카운터에 더한다)
+     */
+    @Scheduled(fixedDelayString = "${oauth.state.sweep-interval:60000}")
+    public void sweep() {
+        try {
+            Long removed = redisTemplate.opsForZSet()
+                    .removeRangeByScore(key(PENDING_KEY), Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+            if (removed != null && removed > 0) {
+                redisTemplate.opsForValue().increment(key(EXPIRED_KEY), removed);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to sweep expired OAuth states: {}", e.getMessage());
+        }
+    }
+
+    private String key(String state) {
+        return properties.getRedisKeyPrefix() + state;
+    }
+}
@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS oauth_account (
+    id VARCHAR(36) PRIMARY KEY,
+    email VARCHAR(255),
+    nickname VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    last_login_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS oauth_identity (
+    provider VARCHAR(20) NOT NULL,
+    provider_id VARCHAR(255) NOT NULL,
+    account_id VARCHAR(36) NOT NULL,
+    email VARCHAR(255),
+    nickname VARCHAR(255),
+    profile_image VARCHAR(1024),
+    created_at TIMESTAMP NOT NULL,
+    last_login_at TIMESTAMP NOT NULL,
+    linked_at TIMESTAMP,
+    PRIMARY KEY (provider, provider_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_oauth_identity_account ON oauth_identity (account_id);
+
+ALTER TABLE oauth_identity ADD COLUMN IF NOT EXISTS linked_at TIMESTAMP;
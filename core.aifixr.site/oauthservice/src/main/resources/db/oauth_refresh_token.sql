@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS oauth_refresh_token (
+    token_hash VARCHAR(64) PRIMARY KEY,
+    family_id VARCHAR(36) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    claims TEXT,
+    expires_at TIMESTAMP NOT NULL,
+    used BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_oauth_refresh_token_family ON oauth_refresh_token (family_id);
+CREATE INDEX IF NOT EXISTS idx_oauth_refresh_token_expires ON oauth_refresh_token (expires_at);
@@ -0,0 +1,126 @@
+package site.aifixr.api.oauthservice.account;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountServiceTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private AccountWriter accountWriter;
+	private AccountService accountService;
+
+	@BeforeEach
+	void setUp() {
+		AccountProperties properties = new AccountProperties();
+		properties.setInitializeSchema(false);
+		properties.setLookupTimeout(100);
+		jdbcTemplate = mock(JdbcTemplate.class);
+		accountWriter = new AccountWriter(jdbcTemplate, properties);
+		accountService = new AccountService(properties, accountWriter, jdbcTemplate, mock(DataSource.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountService.shutdown();
+	}
+
+	@Test
+	void cacheMissAnswersWithTheDefaultIdWithoutWaitingOnTheDatabase() {
+		when(jdbcTemplate.query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<String>>any()))
+				.thenAnswer(invocation -> {
+					Thread.sleep(5_000);
+					return List.of();
+				});
+
+		long started = System.nanoTime();
+		String accountId = accountService.recordLogin("google", "g-1", null, null, null);
+
+		assertThat(accountId).isEqualTo(AccountService.defaultAccountId("google", "g-1"));
+		assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+		assertThat(accountWriter.getBufferSize()).isEqualTo(1);
+	}
+
+	@Test
+	void refreshedIdentitiesAreAnsweredFromCache() {
+		when(jdbcTemplate.query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<String>>any()))
+				.thenReturn(List.of("linked-account"));
+
+		accountService.refresh("kakao", "42");
+		String first = accountService.recordLogin("kakao", "42", "user@aifixr.site", "user", null);
+		String second = accountService.recordLogin("kakao", "42", "user@aifixr.site", "user", null);
+
+		assertThat(first).isEqualTo(second).isEqualTo("linked-account");
+		verify(jdbcTemplate, times(1))
+				.query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<String>>any());
+		assertThat(accountWriter.getBufferSize()).isEqualTo(2);
+	}
+
+	@Test
+	void linkedIdentityResolvesToTargetAccountEvenIfAStaleLookupFinishesLater() {
+		when(jdbcTemplate.query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<String>>any()))
+				.thenReturn(List.of());
+
+		assertThat(accountService.link("account-1", "google", "g-1", null, null)).isTrue();
+		accountService.refresh("google", "g-1");
+
+		assertThat(accountService.resolveAccountId("google", "g-1")).isEqualTo("account-1");
+		assertThat(accountWriter.getBufferSize()).isEqualTo(1);
+	}
+
+	@Test
+	void flushCoalescesDuplicateLoginsIntoOneBatch() {
+		long now = System.currentTimeMillis();
+		List<AccountEvent> events = List.of(
+				new AccountEvent(AccountEvent.Type.LOGIN, "naver", "n-1", "a-1", null, "old", null, now),
+				new AccountEvent(AccountEvent.Type.LOGIN, "naver", "n-1", "a-1", null, "new", null, now + 1),
+				new AccountEvent(AccountEvent.Type.LOGIN, "naver", "n-2", "a-2", null, null, null, now));
+
+		assertThat(accountWriter.flush(events)).isTrue();
+
+		verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO oauth_account"),
+				ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 2));
+		verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO oauth_identity"),
+				ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 2
+						&& "new".equals(rows.get(0)[4])));
+		verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	void flushWritesLinksAfterLoginsWithoutTouchingAccounts() {
+		long now = System.currentTimeMillis();
+		List<AccountEvent> events = List.of(
+				new AccountEvent(AccountEvent.Type.LOGIN, "naver", "n-1", "a-1", null, null, null, now),
+				new AccountEvent(AccountEvent.Type.LINK, "naver", "n-1", "a-2", null, null, null, now + 1));
+
+		assertThat(accountWriter.flush(events)).isTrue();
+
+		InOrder inOrder = inOrder(jdbcTemplate);
+		inOrder.verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO oauth_account"),
+				ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 1 && "a-1".equals(rows.get(0)[0])));
+		inOrder.verify(jdbcTemplate).batchUpdate(contains("DO UPDATE SET email"), anyList());
+		inOrder.verify(jdbcTemplate).batchUpdate(contains("account_id = EXCLUDED.account_id"),
+				ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 1 && "a-2".equals(rows.get(0)[2])));
+	}
+}
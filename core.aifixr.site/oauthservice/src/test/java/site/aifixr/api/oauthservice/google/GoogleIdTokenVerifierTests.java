@@ -0,0 +1,105 @@
+package site.aifixr.api.oauthservice.google;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.RsaPublicJwk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import site.aifixr.api.oauthservice.config.GoogleConfig;
+import site.aifixr.api.oauthservice.google.dto.GoogleUserInfo;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * 로컬 JWKS 스탠드인(MockRestServiceServer)으로 id_token 검증 확인
+ */
+class GoogleIdTokenVerifierTests {
+
+	private static final String JWKS_URI = "http://localhost/jwks";
+	private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+
+	private KeyPair keyPair;
+	private MockRestServiceServer jwksServer;
+	private GoogleIdTokenVerifier verifier;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		keyPair = generator.generateKeyPair();
+
+		GoogleConfig googleConfig = new GoogleConfig();
+		googleConfig.setClientId(CLIENT_ID);
+		googleConfig.setJwksUri(JWKS_URI);
+
+		RestTemplate restTemplate = new RestTemplate();
+		jwksServer = MockRestServiceServer.bindTo(restTemplate).build();
+		verifier = new GoogleIdTokenVerifier(googleConfig, restTemplate);
+	}
+
+	@Test
+	void verifiesTokenSignedByPublishedKey() throws Exception {
+		jwksServer.expect(requestTo(JWKS_URI)).andRespond(withSuccess(jwks("kid-1"), MediaType.APPLICATION_JSON));
+
+		Optional<GoogleUserInfo> userInfo = verifier.verify(idToken("kid-1", "https://accounts.google.com", CLIENT_ID));
+
+		assertThat(userInfo).isPresent();
+		assertThat(userInfo.get().getId()).isEqualTo("1234567890");
+		assertThat(userInfo.get().getEmail()).isEqualTo("user@aifixr.site");
+		assertThat(userInfo.get().getVerifiedEmail()).isTrue();
+		jwksServer.verify();
+	}
+
+	@Test
+	void cachedKeysAreReusedAcrossLogins() throws Exception {
+		jwksServer.expect(requestTo(JWKS_URI)).andRespond(withSuccess(jwks("kid-1"), MediaType.APPLICATION_JSON));
+		verifier.refreshKeys();
+
+		assertThat(verifier.verify(idToken("kid-1", "accounts.google.com", CLIENT_ID))).isPresent();
+		assertThat(verifier.verify(idToken("kid-1", "accounts.google.com", CLIENT_ID))).isPresent();
+		jwksServer.verify();
+	}
+
+	@Test
+	void rejectsForeignAudienceAndIssuer() throws Exception {
+		jwksServer.expect(requestTo(JWKS_URI)).andRespond(withSuccess(jwks("kid-1"), MediaType.APPLICATION_JSON));
+		verifier.refreshKeys();
+
+		assertThat(verifier.verify(idToken("kid-1", "https://accounts.google.com", "other-client"))).isEmpty();
+		assertThat(verifier.verify(idToken("kid-1", "https://evil.example.com", CLIENT_ID))).isEmpty();
+	}
+
+	private String jwks(String keyId) throws Exception {
+		RsaPublicJwk jwk = Jwks.builder().key((RSAPublicKey) keyPair.getPublic()).id(keyId).build();
+		return new ObjectMapper().writeValueAsString(Map.of("keys", List.of(jwk)));
+	}
+
+	private String idToken(String keyId, String issuer, String audience) {
+		return Jwts.builder()
+				.header().keyId(keyId).and()
+				.issuer(issuer)
+				.audience().add(audience).and()
+				.subject("1234567890")
+				.claim("email", "user@aifixr.site")
+				.claim("email_verified", true)
+				.claim("name", "AIFIXR User")
+				.issuedAt(new Date())
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(keyPair.getPrivate())
+				.compact();
+	}
+}
@@ -0,0 +1,55 @@
+package site.aifixr.api.oauthservice.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTests {
+
+	private JwtVerifier jwtVerifier;
+	private JwtTokenProvider jwtTokenProvider;
+
+	@BeforeEach
+	void setUp() {
+		JwtProperties properties = new JwtProperties();
+		properties.setSecret("test-secret-key-at-least-256-bits-long-for-hs256-algorithm");
+		jwtVerifier = new JwtVerifier(properties);
+		jwtTokenProvider = new JwtTokenProvider(properties, jwtVerifier);
+	}
+
+	@Test
+	void validateThenReadClaimsParsesOnce() {
+		String token = jwtTokenProvider.generateToken("user-1", Map.of("email", "user@aifixr.site"));
+
+		assertThat(jwtTokenProvider.validateToken(token)).isTrue();
+		Claims claims = jwtTokenProvider.getClaimsFromToken(token);
+
+		assertThat(claims.getSubject()).isEqualTo("user-1");
+		assertThat(claims.get("email", String.class)).isEqualTo("user@aifixr.site");
+		assertThat(jwtVerifier.getCache().getMissCount()).isEqualTo(1);
+		assertThat(jwtVerifier.getCache().getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void tamperedTokenIsRejectedAndNotCached() {
+		String token = jwtTokenProvider.generateToken("user-1", null);
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		assertThat(jwtTokenProvider.validateToken(tampered)).isFalse();
+		assertThat(jwtTokenProvider.resolveClaims(tampered)).isEmpty();
+		assertThat(jwtVerifier.getCache().size()).isZero();
+	}
+
+	@Test
+	void refreshTokenIsNotAcceptedAsAccessToken() {
+		String refreshToken = jwtTokenProvider.generateRefreshToken("user-1");
+
+		assertThat(jwtTokenProvider.validateToken(refreshToken)).isFalse();
+		assertThat(jwtTokenProvider.resolveClaims(refreshToken)).isEmpty();
+		assertThat(jwtTokenProvider.resolveRefreshClaims(refreshToken)).isPresent();
+	}
+}
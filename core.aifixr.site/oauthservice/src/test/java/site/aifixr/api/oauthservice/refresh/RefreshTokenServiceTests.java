@@ -0,0 +1,59 @@
+package site.aifixr.api.oauthservice.refresh;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import site.aifixr.api.oauthservice.jwt.JwtProperties;
+import site.aifixr.api.oauthservice.jwt.JwtTokenProvider;
+import site.aifixr.api.oauthservice.jwt.JwtVerifier;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenServiceTests {
+
+	private JwtTokenProvider jwtTokenProvider;
+	private RefreshTokenService refreshTokenService;
+
+	@BeforeEach
+	void setUp() {
+		JwtProperties properties = new JwtProperties();
+		properties.setSecret("test-secret-key-at-least-256-bits-long-for-hs256-algorithm");
+		jwtTokenProvider = new JwtTokenProvider(properties, new JwtVerifier(properties));
+		refreshTokenService = new RefreshTokenService(
+				properties, jwtTokenProvider, new InMemoryRefreshTokenStore(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void rotateIssuesNewPairWithOriginalClaims() {
+		String refreshToken = refreshTokenService.issue("user-1", Map.of("email", "user@aifixr.site"));
+
+		RefreshTokenService.TokenPair tokens = refreshTokenService.rotate(refreshToken);
+
+		assertThat(tokens.refreshToken()).isNotEqualTo(refreshToken);
+		assertThat(jwtTokenProvider.getUserIdFromToken(tokens.accessToken())).isEqualTo("user-1");
+		assertThat(jwtTokenProvider.getClaimsFromToken(tokens.accessToken()).get("email", String.class))
+				.isEqualTo("user@aifixr.site");
+	}
+
+	@Test
+	void reusedTokenRevokesWholeFamily() {
+		String refreshToken = refreshTokenService.issue("user-1", Map.of());
+		RefreshTokenService.TokenPair rotated = refreshTokenService.rotate(refreshToken);
+
+		assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken))
+				.isInstanceOf(InvalidRefreshTokenException.class);
+		assertThatThrownBy(() -> refreshTokenService.rotate(rotated.refreshToken()))
+				.isInstanceOf(InvalidRefreshTokenException.class);
+	}
+
+	@Test
+	void accessTokenIsNotAcceptedAsRefreshToken() {
+		String accessToken = jwtTokenProvider.generateToken("user-1", Map.of());
+
+		assertThatThrownBy(() -> refreshTokenService.rotate(accessToken))
+				.isInstanceOf(InvalidRefreshTokenException.class);
+	}
+}
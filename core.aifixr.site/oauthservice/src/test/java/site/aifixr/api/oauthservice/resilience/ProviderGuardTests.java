@@ -0,0 +1,116 @@
+package site.aifixr.api.oauthservice.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import site.aifixr.api.oauthservice.config.OAuthHttpClientProperties;
+import site.aifixr.api.oauthservice.config.OAuthResilienceProperties;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderGuardTests {
+
+	private static final String TOKEN_URI = "https://auth.example.com/oauth/token";
+	private static final String USER_INFO_URI = "https://api.example.com/v2/user/me";
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void rejectsCallsBeyondBulkheadLimit() throws Exception {
+		OAuthResilienceProperties properties = new OAuthResilienceProperties();
+		properties.setMaxConcurrentCalls(1);
+		properties.setMaxWait(10);
+		ProviderGuard guard = guard(properties);
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> holder = executor.submit(() -> guard.call(TOKEN_URI, () -> {
+			started.countDown();
+			await(release);
+			return "ok";
+		}));
+		started.await();
+
+		assertThatThrownBy(() -> guard.call(TOKEN_URI, () -> "second")).isInstanceOf(BulkheadFullException.class);
+		assertThat(guard.getRejectedCount()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(holder.get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+		assertThat(guard.getAvailablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void timeoutFollowsObservedLatencyWithinBounds() {
+		OAuthResilienceProperties properties = new OAuthResilienceProperties();
+		properties.setMinSamples(10);
+		properties.setMinTimeout(5);
+		properties.setMaxTimeout(1000);
+		ProviderGuard guard = guard(properties);
+
+		assertThat(guard.timeout("token")).isEqualTo(1000);
+		for (int i = 0; i < 10; i++) {
+			guard.call(TOKEN_URI, () -> {
+				sleep(20);
+				return "ok";
+			});
+		}
+
+		assertThat(guard.timeout("token")).isBetween(40L, 200L);
+		assertThat(guard.timeout("userinfo")).isEqualTo(1000);
+	}
+
+	@Test
+	void hedgedCallReturnsFasterAttempt() {
+		OAuthResilienceProperties properties = new OAuthResilienceProperties();
+		properties.setHedgeEnabled(true);
+		properties.setHedgeDelay(20);
+		ProviderGuard guard = guard(properties);
+
+		AtomicInteger attempts = new AtomicInteger();
+		String result = guard.callHedged(USER_INFO_URI, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				sleep(5000);
+				return "slow";
+			}
+			return "fast";
+		});
+
+		assertThat(result).isEqualTo("fast");
+		assertThat(guard.getHedgeCount()).isEqualTo(1);
+		assertThat(guard.getHedgeWinCount()).isEqualTo(1);
+	}
+
+	private ProviderGuard guard(OAuthResilienceProperties properties) {
+		return new ProviderGuard("test", properties, new OAuthHttpClientProperties(),
+				Map.of("token", TOKEN_URI, "userinfo", USER_INFO_URI), executor);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
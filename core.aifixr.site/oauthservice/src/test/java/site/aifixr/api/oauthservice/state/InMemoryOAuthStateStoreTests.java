@@ -0,0 +1,48 @@
+package site.aifixr.api.oauthservice.state;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryOAuthStateStoreTests {
+
+	private final AtomicLong now = new AtomicLong(1_000_000L);
+	private InMemoryOAuthStateStore store;
+
+	@BeforeEach
+	void setUp() {
+		OAuthStateProperties properties = new OAuthStateProperties();
+		properties.setTtl(10_000L);
+		properties.setTickInterval(1_000L);
+		store = new InMemoryOAuthStateStore(properties, now::get);
+	}
+
+	@Test
+	void stateCanBeConsumedOnlyOnceByItsProvider() {
+		store.save("state-1", "google", 10_000L);
+		store.save("state-2", "google", 10_000L);
+
+		assertThat(store.consume("state-1", "google")).isTrue();
+		assertThat(store.consume("state-1", "google")).isFalse();
+		assertThat(store.consume("state-2", "naver")).isFalse();
+		assertThat(store.consume("unknown", "google")).isFalse();
+		assertThat(store.outstanding()).isZero();
+	}
+
+	@Test
+	void timerWheelExpiresUnconsumedStates() {
+		store.save("state-1", "naver", 10_000L);
+		store.save("state-2", "naver", 20_000L);
+
+		now.addAndGet(10_000L);
+		store.advance();
+
+		assertThat(store.outstanding()).isEqualTo(1);
+		assertThat(store.expiredCount()).isEqualTo(1);
+		assertThat(store.consume("state-1", "naver")).isFalse();
+		assertThat(store.consume("state-2", "naver")).isTrue();
+	}
+}
@@ -0,0 +1,44 @@
+package site.aifixr.api.oauthservice.state;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseCookie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OAuthStateServiceTests {
+
+	private final OAuthStateProperties properties = new OAuthStateProperties();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final OAuthStateService service = new OAuthStateService(
+			new InMemoryOAuthStateStore(properties), properties, meterRegistry);
+
+	@Test
+	void stateIsAcceptedOnceFromTheBrowserItWasIssuedTo() {
+		String state = service.issue("kakao");
+		ResponseCookie cookie = service.bindingCookie("kakao", state);
+
+		assertThat(cookie.getName()).isEqualTo("oauth_state_kakao");
+		assertThat(cookie.isHttpOnly()).isTrue();
+		assertThat(service.verify("kakao", state, cookie.getValue())).isTrue();
+		assertThat(service.verify("kakao", state, cookie.getValue())).isFalse();
+	}
+
+	@Test
+	void stateMintedByAnotherBrowserIsRejected() {
+		String attackerState = service.issue("google");
+		String victimState = service.issue("google");
+
+		assertThat(service.verify("google", attackerState, null)).isFalse();
+		assertThat(service.verify("google", attackerState, victimState)).isFalse();
+		assertThat(meterRegistry.get("oauth.state").tag("result", "unbound").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void missingStateIsRejectedForEveryProvider() {
+		for (String provider : new String[] {"kakao", "google", "naver"}) {
+			assertThat(service.verify(provider, null, null)).isFalse();
+		}
+		assertThat(meterRegistry.get("oauth.state").tag("result", "missing").counters()).hasSize(3);
+	}
+}
@@ -62,15 +62,18 @@ export default function NaverCallbackPage() {
         }
 
         // 백엔드에서 토큰 받기
+        // state와 로그인 시작 때 받은 state 쿠키를 함께 보내야 백엔드 검증을 통과함
+        const state = searchParams.get('state') || '';
         const API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
-        const response = await fetch(`${API_URL}/api/oauth/naver/callback?code=${code}`, {
+        const query = new URLSearchParams({ code, state });
+        const response = await fetch(`${API_URL}/api/oauth/naver/callback?${query}`, {
           method: 'GET',
           headers: {
             'Content-Type': 'application/json',
             'Accept': 'application/json',
           },
           mode: 'cors',
-          credentials: 'omit',
+          credentials: 'include',
         });
 
         if (!response.ok) {
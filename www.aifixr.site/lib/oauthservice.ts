@@ -72,6 +72,8 @@ export async function handleGoogleLogin() {
     const res = await fetch(`${API_BASE_URL}/api/oauth/google/login`, {
       method: "GET",
       headers: { "Content-Type": "application/json" },
+      // state 쿠키(oauth_state_google)를 받아야 콜백 검증을 통과함
+      credentials: "include",
     });
 
     if (!res.ok) throw new Error(`HTTP error! status: ${res.status}`);
@@ -96,6 +98,8 @@ export async function handleNaverLogin() {
     const res = await fetch(`${API_BASE_URL}/api/oauth/naver/login`, {
       method: "GET",
       headers: { "Content-Type": "application/json" },
+      // state 쿠키(oauth_state_naver)를 받아야 콜백 검증을 통과함
+      credentials: "include",
     });
 
     const data = await res.json();
@@ -129,6 +133,8 @@ export async function handleKakaoLogin() {
     const res = await fetch(`${API_BASE_URL}/api/oauth/kakao/login`, {
       method: "GET",
       headers: { "Content-Type": "application/json" },
+      // state 쿠키(oauth_state_kakao)를 받아야 콜백 검증을 통과함
+      credentials: "include",
     });
 
     if (!res.ok) throw new Error(`HTTP error! status: ${res.status}`);